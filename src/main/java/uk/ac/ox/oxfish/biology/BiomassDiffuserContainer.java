@@ -25,7 +25,7 @@ import ec.util.MersenneTwisterFast;
 import org.jetbrains.annotations.Nullable;
 import sim.engine.SimState;
 import sim.engine.Steppable;
-import sim.util.Bag;
+import uk.ac.ox.oxfish.geography.MooreNeighborhoodIndex;
 import uk.ac.ox.oxfish.geography.NauticalMap;
 import uk.ac.ox.oxfish.geography.SeaTile;
 import uk.ac.ox.oxfish.utility.FishStateUtilities;
@@ -197,12 +197,15 @@ public class BiomassDiffuserContainer implements Steppable {
      */
     public static List<SeaTile> getUsefulNeighbors(SeaTile tile, NauticalMap map)
     {
-        final Bag mooreNeighbors = map.getMooreNeighbors(tile, 1);
+        final MooreNeighborhoodIndex neighborhoods = map.getMooreNeighborhoodIndex(1);
+        final int[] offsets = neighborhoods.getWaterOffsets();
+        final int[] waterNeighbors = neighborhoods.getWaterNeighbors();
+        final int index = map.getTileIndex(tile);
         List<SeaTile> toKeep = new LinkedList<>();
-        for(Object inBag : mooreNeighbors)
+        for(int i = offsets[index]; i < offsets[index + 1]; i++)
         {
-            SeaTile newTile = (SeaTile) inBag;
-            if (newTile.isWater() && newTile.getBiology() instanceof BiomassLocalBiology)
+            SeaTile newTile = map.getSeaTileByIndex(waterNeighbors[i]);
+            if (newTile.getBiology() instanceof BiomassLocalBiology)
             {
                 toKeep.add(newTile);
             }
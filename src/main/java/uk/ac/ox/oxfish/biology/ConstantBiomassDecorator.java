@@ -32,6 +32,11 @@ public class ConstantBiomassDecorator implements VariableBiomassBasedBiology {
         return delegate.getAbundance(species);
     }
 
+    @Override
+    public StructuredAbundance getAbundanceView(Species species) {
+        return delegate.getAbundanceView(species);
+    }
+
     @Override
     public void start(FishState model) {
         delegate.start(model);
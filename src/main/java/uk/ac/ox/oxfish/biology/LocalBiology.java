@@ -55,8 +55,20 @@ public interface LocalBiology extends Startable
 
 
 
+    /**
+     * the abundance of this species, which the caller is free to modify
+     */
     StructuredAbundance getAbundance(Species species);
 
+    /**
+     * the abundance of this species, for callers that only read it and promise not to modify the arrays.
+     * Implementations can then skip whatever bookkeeping {@link #getAbundance(Species)} does to keep track of changes.
+     * By default this is just {@link #getAbundance(Species)}
+     */
+    default StructuredAbundance getAbundanceView(Species species) {
+        return getAbundance(species);
+    }
+
 
 
 
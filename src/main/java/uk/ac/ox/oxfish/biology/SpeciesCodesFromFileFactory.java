@@ -1,13 +1,11 @@
 package uk.ac.ox.oxfish.biology;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.LoadingCache;
 import org.jetbrains.annotations.NotNull;
+import uk.ac.ox.oxfish.utility.InputRegistry;
 
 import java.nio.file.Path;
 import java.util.function.Supplier;
 
-import static com.google.common.cache.CacheLoader.from;
 import static com.google.common.collect.ImmutableBiMap.toImmutableBiMap;
 import static uk.ac.ox.oxfish.utility.csv.CsvParserUtil.parseAllRecords;
 
@@ -20,8 +18,6 @@ import static uk.ac.ox.oxfish.utility.csv.CsvParserUtil.parseAllRecords;
  */
 public class SpeciesCodesFromFileFactory implements Supplier<SpeciesCodes> {
 
-    private static final LoadingCache<Path, SpeciesCodes> cache =
-        CacheBuilder.newBuilder().build(from(SpeciesCodesFromFileFactory::getSpeciesCodes));
     private Path speciesCodeFilePath;
 
     public SpeciesCodesFromFileFactory(Path speciesCodeFilePath) {
@@ -50,6 +46,8 @@ public class SpeciesCodesFromFileFactory implements Supplier<SpeciesCodes> {
 
     @Override
     public SpeciesCodes get() {
-        return cache.getUnchecked(speciesCodeFilePath);
+        return InputRegistry.INSTANCE.get(
+            SpeciesCodes.class, speciesCodeFilePath, () -> getSpeciesCodes(speciesCodeFilePath)
+        );
     }
 }
@@ -78,6 +78,11 @@ public class UnfishableLocalBiologyDecorator implements LocalBiology {
         return decorated.getAbundance(species);
     }
 
+    @Override
+    public StructuredAbundance getAbundanceView(Species species) {
+        return decorated.getAbundanceView(species);
+    }
+
     /**
      * this gets called by the fish-state right after the scenario has started. It's useful to set up steppables
      * or just to percolate a reference to the model
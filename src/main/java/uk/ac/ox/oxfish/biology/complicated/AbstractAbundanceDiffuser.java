@@ -49,6 +49,12 @@ public abstract class AbstractAbundanceDiffuser implements AbundanceDiffuser {
      */
     private final Map<SeaTile, List<SeaTile>> neighbors = new HashMap<>();
 
+    /**
+     * shuffles the neighbors; reseeded every step with the same seed as the tiles' shuffle so that diffusing draws
+     * no more numbers from the model's generator than it always has
+     */
+    private final MersenneTwisterFast neighborsRandom = new MersenneTwisterFast(0);
+
 
     public AbstractAbundanceDiffuser(
             int diffusingRange, boolean rounding) {
@@ -63,9 +69,14 @@ public abstract class AbstractAbundanceDiffuser implements AbundanceDiffuser {
             Map<SeaTile, AbundanceLocalBiology> biologies,
             FishState model) {
 
+        //only look the generator up once, it's passed to every move
+        final MersenneTwisterFast random = model.getRandom();
+        final long seed = random.nextLong();
+
         //turn it into a list and shuffle it
         List<Map.Entry<SeaTile, AbundanceLocalBiology>> locals = Lists.newArrayList(biologies.entrySet());
-        Collections.shuffle(locals, new Random(model.getRandom().nextLong()));
+        Collections.shuffle(locals, new Random(seed));
+        neighborsRandom.setSeed(seed);
 
 
         for (Map.Entry<SeaTile, AbundanceLocalBiology> here : locals) {
@@ -76,7 +87,7 @@ public abstract class AbstractAbundanceDiffuser implements AbundanceDiffuser {
             if(potential.size()==0)
                 continue;
             //shuffle neighbors
-            Collections.shuffle(potential);
+            shuffle(potential, neighborsRandom);
             for(SeaTile there : potential) {
                 assert biologies.containsKey(there);
                 AbundanceLocalBiology thereBiology = biologies.get(there);
@@ -100,7 +111,7 @@ public abstract class AbstractAbundanceDiffuser implements AbundanceDiffuser {
                         //move always get called, regardless of what the delta is!
                         move(species, here.getKey(),
                              abundanceHere, there, abundanceThere, delta, fishHere, fishThere, bin,
-                             model.getRandom(),
+                             random,
                              rounding, subdivision, here.getValue(), thereBiology);
 
 
@@ -159,7 +170,7 @@ public abstract class AbstractAbundanceDiffuser implements AbundanceDiffuser {
             Map<SeaTile, AbundanceLocalBiology> biologies)
     {
         final Bag mooreNeighbors = map.getMooreNeighbors(tile, diffusingRange);
-        List<SeaTile> toKeep = new LinkedList<>();
+        List<SeaTile> toKeep = new ArrayList<>();
         for(Object inBag : mooreNeighbors)
         {
             SeaTile newTile = (SeaTile) inBag;
@@ -172,4 +183,13 @@ public abstract class AbstractAbundanceDiffuser implements AbundanceDiffuser {
         }
         return toKeep;
     }
+
+    /**
+     * shuffles the list in place, the same way {@link Bag#shuffle(MersenneTwisterFast)} does
+     */
+    private static void shuffle(List<SeaTile> list, MersenneTwisterFast random)
+    {
+        for (int i = list.size() - 1; i > 0; i--)
+            Collections.swap(list, i, random.nextInt(i + 1));
+    }
 }
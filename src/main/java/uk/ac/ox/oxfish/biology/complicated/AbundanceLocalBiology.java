@@ -30,13 +30,15 @@ import uk.ac.ox.oxfish.model.FishState;
 import uk.ac.ox.oxfish.utility.FishStateUtilities;
 
 import java.util.Arrays;
-import java.util.HashMap;
 
 /**
  * A local biology object based on abundance.
  * It is a container for the number of fish but has no biological processes coded in it.
  * It is quite unsafe as it exposes its arrays in a couple of methods but that is necessary to prevent long delays in copy-pasting
- * abundance data whenever a process takes place
+ * abundance data whenever a process takes place.
+ * The biomass of each species is cached: {@link #getAbundance(Species)} assumes the caller will modify the abundance
+ * and resets the cache of that species only, {@link #getAbundanceView(Species)} doesn't touch it and code that keeps
+ * the arrays around and modifies them later has to call {@link #markAbundanceChanged(Species)}
  * Created by carrknight on 3/4/16.
  */
 public class AbundanceLocalBiology implements LocalBiology
@@ -44,15 +46,20 @@ public class AbundanceLocalBiology implements LocalBiology
 
 
     /**
-     * the hashmap contains for each species a table [age][male-female] corresponding to the number of fish of that
-     * age and that sex
+     * indexed by species index, contains for each species a table [subdivision][bin] corresponding to the number of
+     * fish in that bin and that subdivision
      */
-    private final HashMap<Species,double[][]>  abundance = new HashMap<>();
+    private final double[][][] abundance;
+
+    /**
+     * one wrapper per species around the arrays above, handed out by the getters instead of a new one each call
+     */
+    private final StructuredAbundance[] views;
 
 
 
     /**
-     * biomass gets computed somewhat lazily (but this number gets reset under any interaction with the object, no matter how trivial)
+     * biomass gets computed somewhat lazily (but this number gets reset whenever the abundance of the species might have changed)
      */
     private double lastComputedBiomass[];
 
@@ -64,12 +71,16 @@ public class AbundanceLocalBiology implements LocalBiology
     {
 
         //for each species create cohorts
+        abundance = new double[biology.getSpecies().size()][][];
         for(Species species : biology.getSpecies()) {
             double[][] fish = new double[species.getNumberOfSubdivisions()][];
             for(int i=0; i<fish.length; i++)
                 fish[i] = new double[species.getNumberOfBins()];
-            abundance.put(species, fish);
+            abundance[species.getIndex()] = fish;
         }
+        views = new StructuredAbundance[abundance.length];
+        for(int i=0; i<abundance.length; i++)
+            views[i] = new StructuredAbundance(abundance[i]);
         //done!
         lastComputedBiomass = new double[biology.getSpecies().size()];
         Arrays.fill(lastComputedBiomass,Double.NaN);
@@ -87,7 +98,7 @@ public class AbundanceLocalBiology implements LocalBiology
 
         if(Double.isNaN(lastComputedBiomass[species.getIndex()] )) {
             lastComputedBiomass[species.getIndex()] = FishStateUtilities.weigh(
-                    getAbundance(species),
+                    views[species.getIndex()],
                     species.getMeristics()
             );
             assert !Double.isNaN(lastComputedBiomass[species.getIndex()] );
@@ -141,7 +152,7 @@ public class AbundanceLocalBiology implements LocalBiology
             Preconditions.checkArgument(catches.getSubdivisions()==species.getNumberOfSubdivisions(), "wrong number of cohorts/subdivisions");
 
 
-            final double[][] abundanceHere = this.abundance.get(species);
+            final double[][] abundanceHere = this.abundance[species.getIndex()];
 
 
             double[][] catchesMatrix = catches.asMatrix();
@@ -170,11 +181,34 @@ public class AbundanceLocalBiology implements LocalBiology
 
     @Override
     public StructuredAbundance getAbundance(Species species) {
-        Arrays.fill(lastComputedBiomass,Double.NaN); //force a recount after calling this
+        markAbundanceChanged(species); //force a recount after calling this
+
+        return views[species.getIndex()];
+
+    }
+
+    /**
+     * the same arrays as {@link #getAbundance(Species)} but the biomass cache is kept: do not modify them!
+     */
+    @Override
+    public StructuredAbundance getAbundanceView(Species species) {
+        return views[species.getIndex()];
+    }
 
-        return new StructuredAbundance(abundance.get(species)
-        );
+    /**
+     * forces the biomass of this species to be recomputed next time it is asked for; call this after modifying arrays
+     * obtained earlier
+     */
+    public void markAbundanceChanged(Species species) {
+        lastComputedBiomass[species.getIndex()] = Double.NaN;
+    }
 
+    /**
+     * the live [subdivision][bin] table of this species, without going through {@link #getAbundance(Species)}.
+     * Meant for code that reads it only (see {@link SpeciesAbundanceIndex}); it does not reset the biomass cache
+     */
+    double[][] getAbundanceMatrix(Species species) {
+        return abundance[species.getIndex()];
     }
 
 
@@ -0,0 +1,104 @@
+package uk.ac.ox.oxfish.biology.complicated;
+
+import ec.util.MersenneTwisterFast;
+import sim.engine.SimState;
+import sim.engine.Steppable;
+import uk.ac.ox.oxfish.model.FishState;
+import uk.ac.ox.oxfish.model.StepOrder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+/**
+ * Steps the natural processes and diffusers of all species at once, one task per species on a fork-join pool,
+ * instead of scheduling each species on its own. Species only touch their own abundance arrays so they can
+ * proceed independently; components shared between species (allocators, noise makers and so on) have to be
+ * thread-safe.
+ * <p>
+ * Every species gets its own random number generator, reseeded from the model's generator on the schedule thread
+ * (always in registration order) each time the phase runs, and installed through
+ * {@link FishState#runWithRandom(MersenneTwisterFast, Runnable)} so that {@code model.getRandom()} returns it. Results
+ * are therefore the same whatever the number of threads, although they differ from a serial run.
+ * <p>
+ * This only holds for randomness drawn through {@code model.getRandom()} while stepping. A component that keeps the
+ * generator it got from {@code model.getRandom()} at construction holds the model's own generator, which is not
+ * thread-safe: two species using it at the same time race, and the results depend on the scheduling of the threads.
+ * Such components (and any {@link java.util.Random} created without a seed) must not be used in a parallel phase.
+ */
+public class ParallelBiologyPhase {
+
+    /**
+     * not part of checkpoints: a restored phase runs on the common pool
+     */
+    private transient ForkJoinPool pool;
+
+    private final List<SingleSpeciesNaturalProcesses> processes = new ArrayList<>();
+
+    private final List<MersenneTwisterFast> randoms = new ArrayList<>();
+
+    private boolean scheduled = false;
+
+    public ParallelBiologyPhase() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ParallelBiologyPhase(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * takes over the scheduling of these processes (and their diffuser); the first registration schedules the phase
+     */
+    void register(SingleSpeciesNaturalProcesses naturalProcesses, FishState model) {
+        processes.add(naturalProcesses);
+        randoms.add(new MersenneTwisterFast(0));
+        if (scheduled)
+            return;
+        scheduled = true;
+        model.scheduleEveryDay(new Steppable() {
+            @Override
+            public void step(SimState simState) {
+                //as when scheduled serially, daily processes diffuse first
+                run((FishState) simState, species -> {
+                    species.diffuse((FishState) simState);
+                    if (species.isDaily())
+                        species.step(simState);
+                });
+            }
+        }, StepOrder.BIOLOGY_PHASE);
+        model.scheduleEveryYear(new Steppable() {
+            @Override
+            public void step(SimState simState) {
+                run((FishState) simState, species -> {
+                    if (!species.isDaily())
+                        species.step(simState);
+                });
+            }
+        }, StepOrder.BIOLOGY_PHASE);
+    }
+
+    private void run(FishState model, Consumer<SingleSpeciesNaturalProcesses> action) {
+        //seeds are drawn here, in order, so that no worker ever touches the model's own generator
+        for (MersenneTwisterFast random : randoms)
+            random.setSeed(model.getRandom().nextLong());
+
+        if (pool == null)
+            pool = ForkJoinPool.commonPool();
+        final ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[processes.size()];
+        for (int i = 0; i < tasks.length; i++) {
+            final SingleSpeciesNaturalProcesses species = processes.get(i);
+            final MersenneTwisterFast random = randoms.get(i);
+            tasks[i] = pool.submit(() -> model.runWithRandom(random, () -> action.accept(species)));
+        }
+        //join rethrows whatever went wrong in the workers
+        for (ForkJoinTask<?> task : tasks)
+            task.join();
+    }
+
+    public int getNumberOfSpecies() {
+        return processes.size();
+    }
+}
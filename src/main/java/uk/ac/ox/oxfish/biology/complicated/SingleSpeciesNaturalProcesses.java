@@ -32,11 +32,9 @@ import uk.ac.ox.oxfish.model.Startable;
 import uk.ac.ox.oxfish.model.StepOrder;
 import uk.ac.ox.oxfish.utility.FishStateUtilities;
 
+import java.util.Arrays;
 import java.util.LinkedHashMap;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Map;
-import java.util.function.ToDoubleFunction;
 
 /**
  * An aggregator of natural processes that applies recruitment, mortality
@@ -93,10 +91,16 @@ public class SingleSpeciesNaturalProcesses implements Steppable, Startable
         this.diffuser = diffuser;
         this.mortality = mortality;
         this.daily = daily;
+        this.index = new SpeciesAbundanceIndex(species);
     }
 
     private final Map<SeaTile,AbundanceLocalBiology> biologies = new LinkedHashMap<>();
 
+    /**
+     * the same biologies as the map above, in the same order, indexed by position for the whole-map loops
+     */
+    private final SpeciesAbundanceIndex index;
+
     /**
      * schedules itself every year
      *
@@ -107,7 +111,9 @@ public class SingleSpeciesNaturalProcesses implements Steppable, Startable
     {
 
         this.agingProcess.start(species);
-        if(!daily) {
+        if(model.getParallelBiologyPhase() != null)
+            model.getParallelBiologyPhase().register(this, model);
+        else if(!daily) {
             model.scheduleEveryYear(this, StepOrder.BIOLOGY_PHASE);
             model.scheduleEveryDay(new Steppable() {
                 @Override
@@ -154,24 +160,18 @@ public class SingleSpeciesNaturalProcesses implements Steppable, Startable
          *
          */
         //we need to sum up all the abundances
-        List<StructuredAbundance> abundances = new LinkedList<>();
-        for (AbundanceLocalBiology biology : biologies.values()) {
-            abundances.add(biology.getAbundance(species));
-        }
         //now create the total number of recruits
         lastRecruits = recruitment.recruit(species, species.getMeristics(),
-                                           StructuredAbundance.sum(abundances, abundances.get(0).getBins(),
-                                                                   abundances.get(0).getSubdivisions()),
+                                           new StructuredAbundance(index.sum()),
                                            model.getDayOfTheYear(),
                                            daysSimulated());
         if (rounding)
             lastRecruits = (int) (lastRecruits);
-        abundances.clear();
 
 
         //decide where recruits are going to go before mortality hits
         //either allocate recruits with given allocator or proportional to where biomass is
-        final LinkedHashMap<AbundanceLocalBiology, Double> biomassWeight = prepareAllocation(model);
+        final double[] biomassWeight = prepareAllocation(model);
 
         /***
          *      __  __         _        _ _ _
@@ -212,62 +212,55 @@ public class SingleSpeciesNaturalProcesses implements Steppable, Startable
         }
     }
 
+    /**
+     * @return for each biology in the index, the share of recruits it will get (or an empty array if there are no recruits)
+     */
     @NotNull
-    private LinkedHashMap<AbundanceLocalBiology, Double> prepareAllocation(FishState model) {
-        final LinkedHashMap<AbundanceLocalBiology, Double> biomassWeight= new LinkedHashMap<>();
-        if (lastRecruits > 0) {
-            if (recruitsAllocator != null) {
-
-                double sum = 0;
-                for (Map.Entry<SeaTile, AbundanceLocalBiology> entry : biologies.entrySet()) {
-                    double weight = recruitsAllocator.allocate(entry.getKey(),
-                                                               model.getMap(),
-                                                               model.getRandom());
-                    sum += weight;
-                    biomassWeight.put(entry.getValue(), weight);
-
-                }
-                Preconditions.checkArgument(sum > 0, "No area valid for recruits!");
-                for (AbundanceLocalBiology biology : biologies.values()) {
-                    biomassWeight.replace(biology, biomassWeight.get(biology) / sum);
-                    Preconditions.checkArgument(Double.isFinite(biomassWeight.get(biology)),
-                                                "some weights are not finite");
-                }
+    private double[] prepareAllocation(FishState model) {
+        if (lastRecruits <= 0)
+            return new double[0];
+        final double[] biomassWeight = new double[index.size()];
+        if (recruitsAllocator != null) {
+
+            double sum = 0;
+            for (int i = 0; i < biomassWeight.length; i++) {
+                double weight = recruitsAllocator.allocate(index.getTile(i),
+                                                           model.getMap(),
+                                                           model.getRandom());
+                sum += weight;
+                biomassWeight[i] = weight;
 
             }
-            else {
-                //map for each biology its total weight
-                double totalBiomass = biologies.values().stream().mapToDouble(
-                        value -> {
-                            Double biomass = value.getBiomass(species);
-                            biomassWeight.put(value, biomass);
-                            return biomass;
-                        }).sum();
-                //reweight so they add up to 1
-                for (AbundanceLocalBiology bio : biomassWeight.keySet())
-                    biomassWeight.put(bio, biomassWeight.get(bio) / totalBiomass);
+            Preconditions.checkArgument(sum > 0, "No area valid for recruits!");
+            for (int i = 0; i < biomassWeight.length; i++) {
+                biomassWeight[i] = biomassWeight[i] / sum;
+                Preconditions.checkArgument(Double.isFinite(biomassWeight[i]),
+                                            "some weights are not finite");
+            }
+
+        }
+        else {
+            //map for each biology its total weight
+            for (int i = 0; i < biomassWeight.length; i++)
+                biomassWeight[i] = index.getBiology(i).getBiomass(species);
+            double totalBiomass = Arrays.stream(biomassWeight).sum();
+            //reweight so they add up to 1
+            for (int i = 0; i < biomassWeight.length; i++)
+                biomassWeight[i] = biomassWeight[i] / totalBiomass;
 
 
-            }
         }
         return biomassWeight;
     }
 
-    private void allocate(@NotNull LinkedHashMap<AbundanceLocalBiology, Double> biomassWeight) {
+    private void allocate(@NotNull double[] biomassWeight) {
         //make sure it all sum up to 1!
-        assert Math.abs(biomassWeight.values().stream().
-                mapToDouble(
-                        new ToDoubleFunction<Double>() {
-                            @Override
-                            public double applyAsDouble(Double value) {
-                                return value;
-                            }
-                        }).sum()-1d)<.001d;
+        assert Math.abs(Arrays.stream(biomassWeight).sum()-1d)<.001d;
         double leftOver = 0;
-        for (Map.Entry<AbundanceLocalBiology, Double> biologyBiomass : biomassWeight.entrySet()) {
-            double ratio = biologyBiomass.getValue();
+        for (int i = 0; i < biomassWeight.length; i++) {
+            double ratio = biomassWeight[i];
             double recruitsHere = ((lastRecruits + leftOver) * ratio);
-            StructuredAbundance abundance = biologyBiomass.getKey().getAbundance(species);
+            StructuredAbundance abundance = index.getBiology(i).getAbundance(species);
 
             if(rounding)
             {
@@ -292,13 +285,24 @@ public class SingleSpeciesNaturalProcesses implements Steppable, Startable
     }
 
     private void kill() {
-        for (AbundanceLocalBiology abundanceBasedLocalBiology : biologies.values()) {
+        for (int i = 0; i < index.size(); i++) {
             mortality.cull(
                     species.getMeristics(), rounding,
-                    abundanceBasedLocalBiology.getAbundance(species), daysSimulated());
+                    index.getBiology(i).getAbundance(species), daysSimulated());
         }
     }
 
+    /**
+     * moves fish around for one day
+     */
+    void diffuse(FishState model) {
+        diffuser.step(species, biologies, model);
+    }
+
+    boolean isDaily() {
+        return daily;
+    }
+
     private int daysSimulated() {
         return daily ? 1 : 365;
     }
@@ -310,10 +314,18 @@ public class SingleSpeciesNaturalProcesses implements Steppable, Startable
         Preconditions.checkArgument(!biologies.containsKey(tile));
         Preconditions.checkArgument(!biologies.containsKey(localBiology));
         biologies.put(tile, localBiology);
+        index.add(tile, localBiology);
     }
 
 
 
+    /**
+     * all the biologies registered with {@link #add(AbundanceLocalBiology, SeaTile)}, indexed by position
+     */
+    public SpeciesAbundanceIndex getAbundanceIndex() {
+        return index;
+    }
+
     public double getLastRecruits() {
         return lastRecruits;
     }
@@ -0,0 +1,91 @@
+package uk.ac.ox.oxfish.biology.complicated;
+
+import com.google.common.base.Preconditions;
+import uk.ac.ox.oxfish.biology.Species;
+import uk.ac.ox.oxfish.geography.SeaTile;
+
+import java.util.Arrays;
+
+/**
+ * Indexes the abundance of one species across the map by position: tile number {@code i} (in the order tiles were
+ * added) has its tile, its local biology and its live [subdivision][bin] table at position {@code i} of three plain
+ * arrays. Whole-map passes (summing for recruitment, weighting recruits) can then run as loops over the arrays
+ * rather than iterating over maps of boxed values and allocating a {@link StructuredAbundance} per tile.
+ * <p>
+ * This is an index, not a store: the tables are the ones the {@link AbundanceLocalBiology} objects own, shared and
+ * not copied, so fishing, diffusion and every other process that modifies a biology is visible here straight away.
+ * Abundance is not laid out in one contiguous array per species, because {@link StructuredAbundance#asMatrix()}
+ * hands out the per-tile tables and many callers write into them directly.
+ */
+public class SpeciesAbundanceIndex {
+
+    private final Species species;
+
+    private SeaTile[] tiles = new SeaTile[16];
+
+    private AbundanceLocalBiology[] biologies = new AbundanceLocalBiology[16];
+
+    private double[][][] abundances = new double[16][][];
+
+    private int size = 0;
+
+    public SpeciesAbundanceIndex(Species species) {
+        this.species = species;
+    }
+
+    public void add(SeaTile tile, AbundanceLocalBiology biology) {
+        final double[][] matrix = biology.getAbundanceMatrix(species);
+        Preconditions.checkArgument(matrix != null, "biology has no abundance for " + species);
+        if (size == tiles.length) {
+            final int newCapacity = size * 2;
+            tiles = Arrays.copyOf(tiles, newCapacity);
+            biologies = Arrays.copyOf(biologies, newCapacity);
+            abundances = Arrays.copyOf(abundances, newCapacity);
+        }
+        tiles[size] = tile;
+        biologies[size] = biology;
+        abundances[size] = matrix;
+        size++;
+    }
+
+    /**
+     * sums the abundance of all the tiles into a new [subdivision][bin] table; this doesn't touch any biomass cache
+     */
+    public double[][] sum() {
+        final double[][] total = new double[species.getNumberOfSubdivisions()][species.getNumberOfBins()];
+        for (int i = 0; i < size; i++) {
+            final double[][] matrix = abundances[i];
+            for (int subdivision = 0; subdivision < total.length; subdivision++) {
+                final double[] row = matrix[subdivision];
+                final double[] totalRow = total[subdivision];
+                for (int bin = 0; bin < totalRow.length; bin++)
+                    totalRow[bin] += row[bin];
+            }
+        }
+        return total;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Species getSpecies() {
+        return species;
+    }
+
+    public SeaTile getTile(int i) {
+        return tiles[i];
+    }
+
+    public AbundanceLocalBiology getBiology(int i) {
+        return biologies[i];
+    }
+
+    /**
+     * the live table of tile {@code i}: callers that modify it have to tell the biology through
+     * {@link AbundanceLocalBiology#markAbundanceChanged(Species)}
+     */
+    public double[][] getAbundance(int i) {
+        return abundances[i];
+    }
+}
@@ -0,0 +1,266 @@
+package uk.ac.ox.oxfish.biology.complicated;
+
+import com.google.common.base.Preconditions;
+import ec.util.MersenneTwisterFast;
+import uk.ac.ox.oxfish.biology.Species;
+import uk.ac.ox.oxfish.geography.MooreNeighborhoodIndex;
+import uk.ac.ox.oxfish.geography.NauticalMap;
+import uk.ac.ox.oxfish.geography.SeaTile;
+import uk.ac.ox.oxfish.model.FishState;
+import uk.ac.ox.oxfish.utility.FishStateUtilities;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Moves the same fish {@link ConstantRateAbundanceDiffuser} (or, given weights, {@link WeightedAbundanceDiffuser})
+ * would on average, but all at once: for each subdivision and bin it first computes, from the abundance at the start
+ * of the day, the flow along every pair of neighboring tiles (a fixed % of the difference, from the fuller to the
+ * emptier) and only then applies them all. There is no shuffling, so the result doesn't depend on the order tiles
+ * are visited in and, without rounding, doesn't use the random number generator at all.
+ * <p>
+ * Tiles and neighborhoods are flattened into arrays the first time the diffuser steps, and again whenever the
+ * biologies (or their abundance arrays) or the map change. Every step checks the biologies against the flat arrays, so
+ * tiles added to, removed from or swapped in the same map are picked up. If a tile's outflows would add up to more fish
+ * than it has, they are scaled down proportionally.
+ */
+public class StencilAbundanceDiffuser implements AbundanceDiffuser {
+
+    /**
+     * how many cells distant can this species move in a day?
+     */
+    private final int diffusingRange;
+
+    /**
+     * % of differential that moves from here to there
+     */
+    private final double diffusingRate;
+
+    /**
+     * when true fish are counted as integers: differences are computed on truncated abundances and flows are
+     * randomly rounded
+     */
+    private final boolean rounding;
+
+    /**
+     * the weight of each biology as in {@link WeightedAbundanceDiffuser}; null means no weighting
+     */
+    private final Map<AbundanceLocalBiology, Double> weights;
+
+    /**
+     * the neighborhood index the flat arrays were built from
+     */
+    private MooreNeighborhoodIndex builtFrom = null;
+
+    private Species builtForSpecies = null;
+
+    private SeaTile[] seaTiles;
+
+    private AbundanceLocalBiology[] tiles;
+
+    private double[][][] abundances;
+
+    private double[] tileWeights;
+
+    /**
+     * neighbors of tile {@code i} (as positions in {@link #tiles}) go from {@code offsets[i]} to {@code offsets[i+1]}
+     */
+    private int[] offsets;
+
+    private int[] neighbors;
+
+    /**
+     * the flow along each (tile, neighbor) pair of {@link #neighbors}; only positive flows go anywhere
+     */
+    private double[] flows;
+
+    private double[] levels;
+
+    private double[] stocks;
+
+    private double[] outflows;
+
+    private double[] next;
+
+    public StencilAbundanceDiffuser(int diffusingRange, double diffusingRate, boolean rounding) {
+        this(diffusingRange, diffusingRate, rounding, null);
+    }
+
+    public StencilAbundanceDiffuser(
+            int diffusingRange, double diffusingRate, boolean rounding,
+            Map<AbundanceLocalBiology, Double> weights) {
+        Preconditions.checkArgument(diffusingRange >= 1);
+        Preconditions.checkArgument(diffusingRate >= 0);
+        Preconditions.checkArgument(diffusingRate <= 1);
+        this.diffusingRange = diffusingRange;
+        this.diffusingRate = diffusingRate;
+        this.rounding = rounding;
+        this.weights = weights;
+    }
+
+    @Override
+    public void step(
+            Species species,
+            Map<SeaTile, AbundanceLocalBiology> biologies,
+            FishState state) {
+
+        prepare(species, biologies, state.getMap());
+        if (tiles.length == 0 || diffusingRate == 0)
+            return;
+
+        final MersenneTwisterFast random = state.getRandom();
+        final int subdivisions = abundances[0].length;
+        for (int subdivision = 0; subdivision < subdivisions; subdivision++) {
+            final int bins = abundances[0][subdivision].length;
+            for (int bin = 0; bin < bins; bin++) {
+                for (int i = 0; i < tiles.length; i++) {
+                    final double fish = abundances[i][subdivision][bin];
+                    stocks[i] = fish;
+                    levels[i] = rounding ? (int) fish : fish;
+                }
+                computeFlows();
+                applyFlows(random);
+                for (int i = 0; i < tiles.length; i++)
+                    abundances[i][subdivision][bin] = next[i];
+            }
+        }
+
+        for (AbundanceLocalBiology tile : tiles)
+            tile.markAbundanceChanged(species);
+    }
+
+    /**
+     * first pass: flow along each pair and total outflow of each tile, all from the abundance at the start
+     */
+    private void computeFlows() {
+        for (int i = 0; i < tiles.length; i++) {
+            double outflow = 0;
+            for (int k = offsets[i]; k < offsets[i + 1]; k++) {
+                final int j = neighbors[k];
+                double delta;
+                if (tileWeights == null)
+                    delta = levels[i] - levels[j];
+                else {
+                    delta = (levels[i] * tileWeights[j] - levels[j] * tileWeights[i]) /
+                        (tileWeights[i] + tileWeights[j]);
+                    if (rounding)
+                        delta = (int) delta;
+                }
+                final double flow = delta > 0 ? delta * diffusingRate : 0;
+                flows[k] = flow;
+                outflow += flow;
+            }
+            outflows[i] = outflow;
+        }
+    }
+
+    /**
+     * second pass: move the fish, never taking more out of a tile than it had to start with
+     */
+    private void applyFlows(MersenneTwisterFast random) {
+        System.arraycopy(stocks, 0, next, 0, tiles.length);
+        for (int i = 0; i < tiles.length; i++) {
+            if (outflows[i] <= 0)
+                continue;
+            final double scale = outflows[i] > stocks[i] ? stocks[i] / outflows[i] : 1d;
+            double left = stocks[i];
+            for (int k = offsets[i]; k < offsets[i + 1]; k++) {
+                if (flows[k] <= 0)
+                    continue;
+                double movement = flows[k] * scale;
+                if (rounding)
+                    movement = FishStateUtilities.randomRounding(movement, random);
+                movement = Math.min(movement, left);
+                if (movement <= 0)
+                    continue;
+                left -= movement;
+                next[i] -= movement;
+                next[neighbors[k]] += movement;
+            }
+            assert next[i] >= -FishStateUtilities.EPSILON;
+        }
+    }
+
+    /**
+     * flattens biologies and neighborhoods, unless it has already been done for the same biologies and map
+     */
+    private void prepare(Species species, Map<SeaTile, AbundanceLocalBiology> biologies, NauticalMap map) {
+        final MooreNeighborhoodIndex index = map.getMooreNeighborhoodIndex(diffusingRange);
+        if (index == builtFrom && species == builtForSpecies && isBuiltFor(biologies))
+            return;
+
+        final int size = biologies.size();
+        seaTiles = new SeaTile[size];
+        tiles = new AbundanceLocalBiology[size];
+        abundances = new double[size][][];
+        tileWeights = weights == null ? null : new double[size];
+        final int[] positions = new int[index.getNumberOfTiles()];
+        Arrays.fill(positions, -1);
+        final int[] tileIndices = new int[size];
+        int i = 0;
+        for (Map.Entry<SeaTile, AbundanceLocalBiology> entry : biologies.entrySet()) {
+            final AbundanceLocalBiology biology = entry.getValue();
+            seaTiles[i] = entry.getKey();
+            tiles[i] = biology;
+            abundances[i] = biology.getAbundanceMatrix(species);
+            if (weights != null) {
+                final Double weight = weights.get(biology);
+                Preconditions.checkArgument(weight != null, "No weight for tile " + entry.getKey());
+                tileWeights[i] = weight;
+            }
+            tileIndices[i] = map.getTileIndex(entry.getKey());
+            positions[tileIndices[i]] = i;
+            i++;
+        }
+
+        offsets = new int[size + 1];
+        int[] found = new int[index.getNeighbors().length];
+        int count = 0;
+        for (i = 0; i < size; i++) {
+            final int tileIndex = tileIndices[i];
+            for (int k = index.getOffsets()[tileIndex]; k < index.getOffsets()[tileIndex + 1]; k++) {
+                final int position = positions[index.getNeighbors()[k]];
+                if (position >= 0)
+                    found[count++] = position;
+            }
+            offsets[i + 1] = count;
+        }
+        neighbors = Arrays.copyOf(found, count);
+
+        flows = new double[count];
+        levels = new double[size];
+        stocks = new double[size];
+        outflows = new double[size];
+        next = new double[size];
+        builtFrom = index;
+        builtForSpecies = species;
+    }
+
+    /**
+     * true if the flat arrays hold exactly these tiles, biologies and abundance arrays, in this order
+     */
+    private boolean isBuiltFor(Map<SeaTile, AbundanceLocalBiology> biologies) {
+        if (tiles == null || biologies.size() != tiles.length)
+            return false;
+        int i = 0;
+        for (Map.Entry<SeaTile, AbundanceLocalBiology> entry : biologies.entrySet()) {
+            if (entry.getKey() != seaTiles[i] || entry.getValue() != tiles[i] ||
+                entry.getValue().getAbundanceMatrix(builtForSpecies) != abundances[i])
+                return false;
+            i++;
+        }
+        return true;
+    }
+
+    public int getDiffusingRange() {
+        return diffusingRange;
+    }
+
+    public double getDiffusingRate() {
+        return diffusingRate;
+    }
+
+    public boolean isRounding() {
+        return rounding;
+    }
+}
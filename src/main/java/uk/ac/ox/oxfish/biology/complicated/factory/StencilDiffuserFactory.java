@@ -0,0 +1,64 @@
+package uk.ac.ox.oxfish.biology.complicated.factory;
+
+import uk.ac.ox.oxfish.biology.complicated.StencilAbundanceDiffuser;
+import uk.ac.ox.oxfish.model.FishState;
+import uk.ac.ox.oxfish.utility.AlgorithmFactory;
+import uk.ac.ox.oxfish.utility.parameters.DoubleParameter;
+import uk.ac.ox.oxfish.utility.parameters.FixedDoubleParameter;
+
+/**
+ * Same parameters as {@link ConstantRateDiffuserFactory}, but all the flows are computed and then applied at once
+ * (see {@link StencilAbundanceDiffuser}). Like the constant rate diffuser it rounds by default. There is no weighted
+ * variant: {@link uk.ac.ox.oxfish.biology.complicated.WeightedAbundanceDiffuser} has no factory either and is only
+ * built by the California scenario, which would need to pass its weights to the stencil constructor directly.
+ */
+public class StencilDiffuserFactory implements AlgorithmFactory<StencilAbundanceDiffuser> {
+
+    /**
+     * % of differential that moves from here to there
+     */
+    private DoubleParameter diffusingRate = new FixedDoubleParameter(.001);
+
+    /**
+     * max distance in cells fish can move within a day
+     */
+    private DoubleParameter diffusingRange = new FixedDoubleParameter(1);
+
+    /**
+     * when true only whole fish move, as in {@link uk.ac.ox.oxfish.biology.complicated.ConstantRateAbundanceDiffuser}
+     */
+    private boolean rounding = true;
+
+    @Override
+    public StencilAbundanceDiffuser apply(FishState state) {
+        return new StencilAbundanceDiffuser(
+                diffusingRange.apply(state.getRandom()).intValue(),
+                diffusingRate.apply(state.getRandom()),
+                rounding
+        );
+    }
+
+    public DoubleParameter getDiffusingRate() {
+        return diffusingRate;
+    }
+
+    public void setDiffusingRate(DoubleParameter diffusingRate) {
+        this.diffusingRate = diffusingRate;
+    }
+
+    public DoubleParameter getDiffusingRange() {
+        return diffusingRange;
+    }
+
+    public void setDiffusingRange(DoubleParameter diffusingRange) {
+        this.diffusingRange = diffusingRange;
+    }
+
+    public boolean isRounding() {
+        return rounding;
+    }
+
+    public void setRounding(boolean rounding) {
+        this.rounding = rounding;
+    }
+}
@@ -4,7 +4,6 @@ import com.google.common.base.Preconditions;
 import joptsimple.internal.Strings;
 import uk.ac.ox.oxfish.maximization.generic.OptimizationParameter;
 import uk.ac.ox.oxfish.maximization.generic.SimpleOptimizationParameter;
-import uk.ac.ox.oxfish.model.scenario.Scenario;
 
 import java.io.IOException;
 import java.nio.file.Files;
@@ -52,7 +51,7 @@ public class ReadFromCSVOptimizationParameter implements OptimizationParameter {
 
 
     @Override
-    public String parametrize(Scenario scenario, double[] inputs) {
+    public String parametrize(Object scenario, double[] inputs) {
 
         try {
             List<String> csvContent  = Files.readAllLines(Paths.get(csvPathFile));
@@ -34,6 +34,7 @@ import uk.ac.ox.oxfish.model.data.monitors.loggers.TidyYearlyData;
 import uk.ac.ox.oxfish.model.scenario.Scenario;
 import uk.ac.ox.oxfish.utility.AlgorithmFactory;
 import uk.ac.ox.oxfish.utility.yaml.FishYAML;
+import uk.ac.ox.oxfish.utility.yaml.ScenarioCache;
 
 import java.io.*;
 import java.nio.file.Path;
@@ -94,9 +95,8 @@ public final class Runner<S extends Scenario> {
         final Class<S> scenarioClass
     ) {
         return () -> {
-            try (final FileReader fileReader = new FileReader(scenarioPath.toFile())) {
-                final FishYAML fishYAML = new FishYAML();
-                return fishYAML.loadAs(fileReader, scenarioClass);
+            try {
+                return ScenarioCache.getShared().load(scenarioPath, scenarioClass);
             } catch (final FileNotFoundException e) {
                 throw new IllegalArgumentException("Can't find scenario file: " + scenarioPath, e);
             } catch (final IOException e) {
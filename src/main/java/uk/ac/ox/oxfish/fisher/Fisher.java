@@ -53,7 +53,6 @@ import uk.ac.ox.oxfish.geography.SeaTile;
 import uk.ac.ox.oxfish.geography.ports.Port;
 import uk.ac.ox.oxfish.model.FishState;
 import uk.ac.ox.oxfish.model.Startable;
-import uk.ac.ox.oxfish.model.StepOrder;
 import uk.ac.ox.oxfish.model.data.collectors.*;
 import uk.ac.ox.oxfish.model.market.TradeInfo;
 import uk.ac.ox.oxfish.model.network.SocialNetwork;
@@ -314,7 +313,7 @@ public class Fisher implements Steppable, Startable{
 
         this.state = state;
         this.status.setNetwork(state.getSocialNetwork());
-        receipt = state.scheduleEveryStep(this, StepOrder.FISHER_PHASE);
+        receipt = state.scheduleFisher(this);
 
 
         //start datas
@@ -424,6 +423,14 @@ public class Fisher implements Steppable, Startable{
 
     }
 
+    /**
+     * decision work done ahead of {@link #step(SimState)} when the fisher phase runs in parallel; see
+     * {@link DestinationStrategy#plan(FishState, Fisher)} for what is allowed here
+     */
+    public void planStep(FishState model) {
+        destinationStrategy.plan(model, this);
+    }
+
     /**
      * weird name to avoid beans
      */
@@ -540,16 +547,16 @@ public class Fisher implements Steppable, Startable{
         final double litersBought = equipment.getBoat().refill();
         status.setFuelEmergencyOverride(false);
         status.setExogenousEmergencyOverride(false);
-        memory.getYearlyCounter().count(FisherYearlyTimeSeries.HOURS_OUT, status.getHoursAtSea());
-        memory.getYearlyCounter().count(FisherYearlyTimeSeries.FUEL_CONSUMPTION, litersBought);
+        memory.getYearlyCounter().count(memory.getHoursOutColumn(), status.getHoursAtSea());
+        memory.getYearlyCounter().count(memory.getFuelConsumptionColumn(), litersBought);
 
         //now pay for it
         double gasExpenditure = litersBought * status.getHomePort().getGasPricePerLiter();
         spendForTrip(gasExpenditure);
-        memory.getYearlyCounter().count(FisherYearlyTimeSeries.FUEL_EXPENDITURE, gasExpenditure);
+        memory.getYearlyCounter().count(memory.getFuelExpenditureColumn(), gasExpenditure);
         if(status.getHoursAtSea()>0) //if you have been somewhere at all
         {
-            memory.getYearlyCounter().count(FisherYearlyTimeSeries.TRIPS, 1);
+            memory.getYearlyCounter().count(memory.getTripsColumn(), 1);
             //log all areas as just visited!
             for(SeaTile tile : getCurrentTrip().getTilesFished())
                 memory.registerVisit(tile, (int) state.getDay());
@@ -577,8 +584,8 @@ public class Fisher implements Steppable, Startable{
         if(status.getHoursAtSea()>0) {
 	        TripRecord finished = memory.getTripLogger().finishTrip(status.getHoursAtSea(), getHomePort(), this);
 	        //account for the costs
-	        memory.getYearlyCounter().count(FisherYearlyTimeSeries.VARIABLE_COSTS,finished.getTotalCosts());
-	        memory.getYearlyCounter().count(FisherYearlyTimeSeries.EARNINGS,finished.getEarnings());
+	        memory.getYearlyCounter().count(memory.getVariableCostsColumn(),finished.getTotalCosts());
+	        memory.getYearlyCounter().count(memory.getEarningsColumn(),finished.getEarnings());
 
         }
 
@@ -884,8 +891,8 @@ public class Fisher implements Steppable, Startable{
         if(litersBurned>0)
             consumeFuel(litersBurned);
 
-        memory.getYearlyCounter().count(FisherYearlyTimeSeries.EFFORT, hoursSpentFishing);
-        memory.getDailyCounter().count(FisherYearlyTimeSeries.EFFORT, hoursSpentFishing);
+        memory.getYearlyCounter().count(memory.getEffortColumn(), hoursSpentFishing);
+        memory.getDailyCounter().countEffort(hoursSpentFishing);
     }
 
     public Gear getGear() {
@@ -946,7 +953,7 @@ public class Fisher implements Steppable, Startable{
     public void earn(double moneyEarned)
     {
         status.setBankBalance(status.getBankBalance() + moneyEarned);
-        getDailyCounter().count(FisherYearlyTimeSeries.CASH_FLOW_COLUMN, moneyEarned);
+        getDailyCounter().countCashFlow(moneyEarned);
 
     }
 
@@ -959,7 +966,7 @@ public class Fisher implements Steppable, Startable{
     {
         spendExogenously(moneySpent);
         memory.getTripLogger().recordCosts(moneySpent);
-        getDailyCounter().count(FisherYearlyTimeSeries.CASH_FLOW_COLUMN, -moneySpent);
+        getDailyCounter().countCashFlow(-moneySpent);
 
     }
 
@@ -983,7 +990,7 @@ public class Fisher implements Steppable, Startable{
      */
     public void spendExogenously(double moneySpent){
         status.setBankBalance(status.getBankBalance() - moneySpent);
-        getDailyCounter().count(FisherYearlyTimeSeries.CASH_FLOW_COLUMN, -moneySpent);
+        getDailyCounter().countCashFlow(-moneySpent);
 
     }
 
@@ -103,23 +103,72 @@ public class HomogeneousAbundanceGear implements Gear {
         prepTempAbundance(species);
 
         double[][] catches = tempAbundance;
-
-
-        //you are going to fish every hour until you are done
-        int hoursSpentFishingThisSpecies = hoursSpentFishing;
-
-        while (hoursSpentFishingThisSpecies > 0) {
+        if (hoursSpentFishing <= 0)
+            return new StructuredAbundance(catches);
+
+        //nothing is removed until we are done, so every hour catches the same: fish one hour and multiply
+        final double[][] selectivity = getFusedSelectivity(species);
+        if (selectivity != null) {
+            final double[][] abundance = where.getAbundanceView(species).asMatrix();
+            if (isNonZero(abundance))
+                for (int cohort = 0; cohort < catches.length; cohort++)
+                    for (int bin = 0; bin < catches[0].length; bin++)
+                        catches[cohort][bin] = abundance[cohort][bin] * selectivity[cohort][bin] * hoursSpentFishing;
+        } else {
             double[][] hourlyCatches = fishThisSpecies(where, species);
             for (int cohort = 0; cohort < catches.length; cohort++)
                 for (int bin = 0; bin < catches[0].length; bin++)
-                    catches[cohort][bin] += hourlyCatches[cohort][bin];
+                    catches[cohort][bin] = hourlyCatches[cohort][bin] * hoursSpentFishing;
+        }
+        return new StructuredAbundance(catches);
+    }
 
-            hoursSpentFishingThisSpecies = hoursSpentFishingThisSpecies - 1;
+    /**
+     * the product of the selectivity of all filters for this species, worked out the first time it is needed; null
+     * if any filter doesn't reduce to a fixed selectivity (see {@link AbundanceFilter#getSelectivity(Species)})
+     */
+    private double[][] getFusedSelectivity(Species species) {
+        final int index = species.getIndex();
+        if (index >= fusedSpecies.length) {
+            fusedSpecies = Arrays.copyOf(fusedSpecies, index + 1);
+            fusedSelectivity = Arrays.copyOf(fusedSelectivity, index + 1);
+        }
+        if (fusedSpecies[index] != species) {
+            fusedSpecies[index] = species;
+            fusedSelectivity[index] = fuseSelectivity(species);
+        }
+        return fusedSelectivity[index];
+    }
 
+    private double[][] fuseSelectivity(Species species) {
+        double[][] fused = new double[species.getNumberOfSubdivisions()][species.getNumberOfBins()];
+        for (double[] row : fused)
+            Arrays.fill(row, 1d);
+        for (AbundanceFilter filter : filters) {
+            double[][] selectivity = filter.getSelectivity(species);
+            if (selectivity == null)
+                return null;
+            for (int subdivision = 0; subdivision < fused.length; subdivision++)
+                for (int bin = 0; bin < fused[subdivision].length; bin++)
+                    fused[subdivision][bin] *= selectivity[subdivision][bin];
         }
-        return new StructuredAbundance(catches);
+        return fused;
+    }
+
+    private static boolean isNonZero(double[][] abundance) {
+        for (double[] row : abundance)
+            for (double fish : row)
+                if (fish > 0)
+                    return true;
+        return false;
     }
 
+    /**
+     * by species index: the species each fused selectivity was worked out for, and the fused selectivity itself
+     */
+    private Species[] fusedSpecies = new Species[0];
+    private double[][][] fusedSelectivity = new double[0][][];
+
     //basically if every hour of fishing we create a matrix we are going to collapse under our own weight
     //recycle the abundance matrix instead. This is dangerous but every time this is called it should be safe to assume
     //that the previous numbers have by now been used
@@ -172,19 +221,14 @@ public class HomogeneousAbundanceGear implements Gear {
      */
     protected double[][] fishThisSpecies(
             LocalBiology where, Species species) {
-        //get the array of the fish (but perform a safety copy)
+        //read the fish without touching the biology (and copy them, the filters work in place)
 
         double[][] fish = prepTemplocationalAbundance(species);
-        double[][] realValues = where.getAbundance(species).asMatrix();
-        boolean isNonZero = false;
+        double[][] realValues = where.getAbundanceView(species).asMatrix();
         for(int subdivision=0; subdivision<realValues.length; subdivision++)
-            for(int bin=0; bin<realValues[0].length; bin++) {
-                fish[subdivision][bin] = realValues[subdivision][bin];
-                if(realValues[subdivision][bin]>0)
-                    isNonZero = true;
-            }
+            System.arraycopy(realValues[subdivision], 0, fish[subdivision], 0, realValues[0].length);
         //filter until you get the catch
-        if(isNonZero)
+        if(isNonZero(realValues))
             fish = filter(species, fish);
 
         return fish;
@@ -39,6 +39,17 @@ public interface AbundanceFilter {
      */
     double[][] filter(Species species, double[][] abundance);
 
+    /**
+     * the proportion of each subdivision and bin that gets through, if all this filter does is multiply the abundance
+     * by it (no rounding, nothing depending on the abundance itself); null otherwise. Gears multiply these together
+     * once so they can apply all their filters in one pass.
+     * @param species the species of fish
+     * @return a [subdivisions][bins] matrix that must not be modified, or null
+     */
+    default double[][] getSelectivity(Species species) {
+        return null;
+    }
+
 
 
 }
@@ -74,6 +74,11 @@ public class ArrayFilter  implements AbundanceFilter{
     }
 
 
+    @Override
+    public double[][] getSelectivity(Species species) {
+        return round ? null : filters;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -3,6 +3,8 @@ package uk.ac.ox.oxfish.fisher.equipment.gear.components;
 import uk.ac.ox.oxfish.biology.Species;
 import uk.ac.ox.oxfish.utility.FishStateUtilities;
 
+import java.util.Arrays;
+
 /**
  * kills off (1-e^-M) of each bin
  */
@@ -29,4 +31,12 @@ public class ExponentialMortalityFilter implements AbundanceFilter {
 
         return abundance;
     }
+
+    @Override
+    public double[][] getSelectivity(Species species) {
+        double[][] selectivity = new double[species.getNumberOfSubdivisions()][species.getNumberOfBins()];
+        for (double[] row : selectivity)
+            Arrays.fill(row, 1 - Math.exp(-exponentialMortality));
+        return selectivity;
+    }
 }
@@ -24,6 +24,8 @@ import com.google.common.base.Preconditions;
 import uk.ac.ox.oxfish.biology.Species;
 import uk.ac.ox.oxfish.utility.FishStateUtilities;
 
+import java.util.Arrays;
+
 /**
  * Filters the same proportion for each age and sex
  * Created by carrknight on 3/10/16.
@@ -74,6 +76,16 @@ public class FixedProportionFilter implements AbundanceFilter
         return abundance;
     }
 
+    @Override
+    public double[][] getSelectivity(Species species) {
+        if (rounding)
+            return null;
+        double[][] selectivity = new double[species.getNumberOfSubdivisions()][species.getNumberOfBins()];
+        for (double[] row : selectivity)
+            Arrays.fill(row, proportion);
+        return selectivity;
+    }
+
     public double getProportion() {
         return proportion;
     }
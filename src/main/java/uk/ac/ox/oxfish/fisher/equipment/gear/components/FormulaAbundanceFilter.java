@@ -95,6 +95,11 @@ public abstract class FormulaAbundanceFilter implements AbundanceFilter {
         return abundance;
     }
 
+    @Override
+    public double[][] getSelectivity(Species species) {
+        return rounding ? null : getProbabilityMatrix(species);
+    }
+
     /**
      * the method that gives the probability matrix for each age class and each sex of not filtering the abundance away
      * @param species
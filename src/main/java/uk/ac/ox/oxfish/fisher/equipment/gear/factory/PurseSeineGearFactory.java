@@ -90,6 +90,7 @@ public class PurseSeineGearFactory implements AlgorithmFactory<PurseSeineGear> {
     private double fadDeploymentPctActiveFadsLimitLogisticSteepness = 1;
     private double actionDistanceExponent = 1;
     private double destinationDistanceExponent = 1;
+    private double attractionFieldAggregationThreshold = 0;
     private double numFadsInStockLogisticMidpoint = 5;
     private double numFadsInStockLogisticSteepness = 1;
 
@@ -125,6 +126,14 @@ public class PurseSeineGearFactory implements AlgorithmFactory<PurseSeineGear> {
         this.destinationDistanceExponent = destinationDistanceExponent;
     }
 
+    public double getAttractionFieldAggregationThreshold() {
+        return attractionFieldAggregationThreshold;
+    }
+
+    public void setAttractionFieldAggregationThreshold(final double attractionFieldAggregationThreshold) {
+        this.attractionFieldAggregationThreshold = attractionFieldAggregationThreshold;
+    }
+
     public double getPctSetsRemainingLogisticMidpoint() {
         return pctSetsRemainingLogisticMidpoint;
     }
@@ -335,7 +344,8 @@ public class PurseSeineGearFactory implements AlgorithmFactory<PurseSeineGear> {
                 globalSetAttractionModulator,
                 FadSetAction.class,
                 actionDistanceExponent,
-                destinationDistanceExponent
+                destinationDistanceExponent,
+                attractionFieldAggregationThreshold
             ),
             new ActionAttractionField(
                 new OpportunisticFadSetLocationValues(
@@ -349,7 +359,8 @@ public class PurseSeineGearFactory implements AlgorithmFactory<PurseSeineGear> {
                 globalSetAttractionModulator,
                 OpportunisticFadSetAction.class,
                 actionDistanceExponent,
-                destinationDistanceExponent
+                destinationDistanceExponent,
+                attractionFieldAggregationThreshold
             ),
             new ActionAttractionField(
                 new NonAssociatedSetLocationValues(
@@ -363,7 +374,8 @@ public class PurseSeineGearFactory implements AlgorithmFactory<PurseSeineGear> {
                 globalSetAttractionModulator,
                 NonAssociatedSetAction.class,
                 actionDistanceExponent,
-                destinationDistanceExponent
+                destinationDistanceExponent,
+                attractionFieldAggregationThreshold
             ),
             new ActionAttractionField(
                 new DolphinSetLocationValues(
@@ -377,7 +389,8 @@ public class PurseSeineGearFactory implements AlgorithmFactory<PurseSeineGear> {
                 globalSetAttractionModulator,
                 DolphinSetAction.class,
                 actionDistanceExponent,
-                destinationDistanceExponent
+                destinationDistanceExponent,
+                attractionFieldAggregationThreshold
             ),
             new ActionAttractionField(
                 new DeploymentLocationValues(
@@ -393,7 +406,8 @@ public class PurseSeineGearFactory implements AlgorithmFactory<PurseSeineGear> {
                 ),
                 FadDeploymentAction.class,
                 actionDistanceExponent,
-                destinationDistanceExponent
+                destinationDistanceExponent,
+                attractionFieldAggregationThreshold
             ),
             new PortAttractionField(
                 new PortAttractionModulator(
@@ -403,7 +417,8 @@ public class PurseSeineGearFactory implements AlgorithmFactory<PurseSeineGear> {
                     pctTravelTimeLeftLogisticSteepness
                 ),
                 actionDistanceExponent,
-                destinationDistanceExponent
+                destinationDistanceExponent,
+                attractionFieldAggregationThreshold
             )
         );
     }
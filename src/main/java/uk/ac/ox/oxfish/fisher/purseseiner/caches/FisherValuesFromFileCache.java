@@ -19,10 +19,8 @@
 
 package uk.ac.ox.oxfish.fisher.purseseiner.caches;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import uk.ac.ox.oxfish.fisher.Fisher;
+import uk.ac.ox.oxfish.utility.InputRegistry;
 
 import java.nio.file.Path;
 import java.util.Map;
@@ -43,9 +41,6 @@ import static uk.ac.ox.oxfish.model.scenario.TunaScenario.getBoatId;
  */
 public abstract class FisherValuesFromFileCache<T> {
 
-    private final LoadingCache<Path, Map<Integer, Map<String, T>>> cache =
-        CacheBuilder.newBuilder().build(CacheLoader.from(this::readValues));
-
     protected abstract Map<Integer, Map<String, T>> readValues(final Path valuesFile);
 
     public Optional<T> get(
@@ -53,7 +48,9 @@ public abstract class FisherValuesFromFileCache<T> {
         final int targetYear,
         final Fisher fisher
     ) {
-        final T value = cache.getUnchecked(valuesFile)
+        final Map<Integer, Map<String, T>> values =
+            InputRegistry.INSTANCE.get(getClass(), valuesFile, () -> readValues(valuesFile));
+        final T value = values
             .getOrDefault(targetYear, emptyMap())
             .get(getBoatId(fisher));
         return Optional.ofNullable(value);
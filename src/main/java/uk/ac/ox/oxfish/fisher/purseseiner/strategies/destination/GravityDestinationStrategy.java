@@ -56,6 +56,14 @@ public class GravityDestinationStrategy implements DestinationStrategy {
     private Set<AttractionField> attractionFields;
     private double maxTravelTime;
 
+    /**
+     * the net attraction worked out by {@link #plan(FishState, Fisher)}, where and when it was worked out; used by
+     * the first destination choice made from there during that step, if any
+     */
+    private Optional<Double2D> plannedAttraction = null;
+    private SeaTile plannedFrom = null;
+    private int plannedAtStep = -1;
+
     GravityDestinationStrategy(
         final AttractionWeightLoader attractionWeightLoader,
         final ToDoubleFunction<Fisher> maxTravelTimeLoader,
@@ -94,16 +102,38 @@ public class GravityDestinationStrategy implements DestinationStrategy {
         return fisher.getHoursAtSea() + travelTimeToPort >= maxTravelTime;
     }
 
-    private SeaTile nextDestination(final Fisher fisher) {
-        final SeaTile seaTile = fisher.getLocation();
-        final Int2D here = new Int2D(seaTile.getGridX(), seaTile.getGridY());
-        final FishState fishState = fisher.grabState();
+    /**
+     * Going through the attraction fields is what takes time here, so when the fisher may need a new destination
+     * we do it ahead of the step.
+     */
+    @Override
+    public void plan(final FishState model, final Fisher fisher) {
+        if (destination == null || fisher.getLocation() == destination) {
+            plannedAttraction = netAttraction();
+            plannedFrom = fisher.getLocation();
+            plannedAtStep = model.getStep();
+        }
+    }
+
+    private Optional<Double2D> netAttraction() {
         return attractionWeights
             .entrySet()
             .stream()
             .filter(entry -> entry.getValue() > 0)
             .map(entry -> entry.getKey().netAttractionHere().multiply(entry.getValue()))
-            .reduce(Double2D::add)
+            .reduce(Double2D::add);
+    }
+
+    private SeaTile nextDestination(final Fisher fisher) {
+        final SeaTile seaTile = fisher.getLocation();
+        final Int2D here = new Int2D(seaTile.getGridX(), seaTile.getGridY());
+        final FishState fishState = fisher.grabState();
+        final Optional<Double2D> attraction =
+            plannedAttraction != null && plannedFrom == seaTile && plannedAtStep == fishState.getStep()
+                ? plannedAttraction
+                : netAttraction();
+        plannedAttraction = null;
+        return attraction
             .filter(v -> !v.equals(new Double2D(0.0, 0.0)))
             .map(v -> new Double2D(here.x + 0.5, here.y + 0.5).add(v.normalize()))
             .map(v -> fishState.getMap().getSeaTile((int) v.x, (int) v.y))
@@ -31,9 +31,17 @@ public class ActionAttractionField extends AttractionField {
         final GlobalAttractionModulator globalModulator,
         final Class<? extends PurseSeinerAction> actionClass,
         final double actionDistanceExponent,
-        final double destinationDistanceExponent
+        final double destinationDistanceExponent,
+        final double aggregationThreshold
     ) {
-        super(locationValues, modulator, globalModulator, actionDistanceExponent, destinationDistanceExponent);
+        super(
+            locationValues,
+            modulator,
+            globalModulator,
+            actionDistanceExponent,
+            destinationDistanceExponent,
+            aggregationThreshold
+        );
         this.actionClass = actionClass;
     }
 
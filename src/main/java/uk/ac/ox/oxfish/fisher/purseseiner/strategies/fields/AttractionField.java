@@ -26,8 +26,11 @@ import uk.ac.ox.oxfish.fisher.Fisher;
 import uk.ac.ox.oxfish.model.FishState;
 import uk.ac.ox.oxfish.model.FisherStartable;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Map.Entry;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static java.lang.Math.pow;
 
@@ -40,18 +43,42 @@ public class AttractionField implements FisherStartable {
     private final double destinationDistanceExponent;
     private Fisher fisher;
 
+    /**
+     * The distance-dependent terms from the tile we last evaluated the field at to each valued location.
+     * Vessels take several decisions from the same tile, and each one goes through all the values, so we only
+     * compute distances and powers again when moving to another tile.
+     */
+    private final Map<Int2D, DistanceTerms> distanceTerms = new HashMap<>();
+    private Int2D distanceTermsFrom = null;
+
+    /**
+     * Zero sums over every valued location. Above zero, distant groups of locations are lumped
+     * together (see {@link LocationValuesTree}): each group is modulated and weighted by distance at the tile
+     * closest to its value-weighted centre. The tree is built from the values seen at the first evaluation of
+     * each step, so values that change later in the step are only picked up at the next one.
+     */
+    private final double aggregationThreshold;
+    private LocationValuesTree tree = null;
+    private long treeStep = -1;
+
     AttractionField(
         final LocationValues locationValues,
         final LocalAttractionModulator localModulator,
         final GlobalAttractionModulator globalModulator,
         final double actionDistanceExponent,
-        final double destinationDistanceExponent
+        final double destinationDistanceExponent,
+        final double aggregationThreshold
     ) {
+        checkArgument(
+            aggregationThreshold >= 0 && aggregationThreshold <= 1,
+            "the accuracy threshold must be in [0, 1]"
+        );
         this.locationValues = locationValues;
         this.localModulator = localModulator;
         this.globalModulator = globalModulator;
         this.actionDistanceExponent = actionDistanceExponent;
         this.destinationDistanceExponent = destinationDistanceExponent;
+        this.aggregationThreshold = aggregationThreshold;
     }
 
     public Double2D netAttractionHere() {
@@ -69,21 +96,29 @@ public class AttractionField implements FisherStartable {
         final MutableDouble2D netAttraction = new MutableDouble2D();
         final MutableDouble2D locationAttraction = new MutableDouble2D();
 
-        locationValues.getValues().forEach(entry -> {
-            final Int2D there = entry.getKey();
-            final double travelTime = distance(here, there) / speed;
-            final int t = (int) (fishState.getStep() + travelTime / fishState.getHoursPerStep());
-            locationAttraction.x = there.x - here.x;
-            locationAttraction.y = there.y - here.y;
+        final LocationValuesTree.ClusterVisitor addAttraction = (x, y, there, value) -> {
+            final DistanceTerms terms = getDistanceTerms(here, there).atSpeed(speed);
+            final int t = (int) (fishState.getStep() + terms.travelTime / fishState.getHoursPerStep());
+            locationAttraction.x = x - here.x;
+            locationAttraction.y = y - here.y;
             if (locationAttraction.length() > 0) {
                 locationAttraction.normalize().multiplyIn(
                     // scale to modulated "there" value, decreasing with travel time
-                    entry.getValue() * localModulator.modulate(there.x, there.y, t, fisher)
-                        / pow(travelTime, destinationDistanceExponent)
+                    value * localModulator.modulate(there.x, there.y, t, fisher)
+                        / terms.travelTimePower
                 );
             }
             netAttraction.addIn(locationAttraction);
-        });
+        };
+
+        if (aggregationThreshold > 0) {
+            getTree(fishState).forEachCluster(here, aggregationThreshold, addAttraction);
+        } else {
+            for (final Entry<Int2D, Double> entry : locationValues.getValues()) {
+                final Int2D there = entry.getKey();
+                addAttraction.visit(there.x, there.y, there, entry.getValue());
+            }
+        }
 
         if (netAttraction.length() > 0) {
             netAttraction.normalize().multiplyIn(globalModulator.modulate(fisher));
@@ -98,14 +133,45 @@ public class AttractionField implements FisherStartable {
     }
 
     public double getActionValueAt(final Int2D here) {
+        if (aggregationThreshold > 0) {
+            final double[] sum = {0.0};
+            getTree(fisher.grabState()).forEachCluster(here, aggregationThreshold, (x, y, there, value) ->
+                sum[0] += value / getDistanceTerms(here, there).distancePower
+            );
+            return sum[0];
+        }
         double sum = 0.0;
         for (final Entry<Int2D, Double> entry : locationValues.getValues()) {
-            final double distance = distance(here, entry.getKey());
-            sum += entry.getValue() / pow(distance + 1, actionDistanceExponent);
+            sum += entry.getValue() / getDistanceTerms(here, entry.getKey()).distancePower;
         }
         return sum;
     }
 
+    private LocationValuesTree getTree(final FishState fishState) {
+        if (tree == null || treeStep != fishState.getStep()) {
+            tree = new LocationValuesTree(locationValues.getValues());
+            treeStep = fishState.getStep();
+        }
+        return tree;
+    }
+
+    public double getAggregationThreshold() {
+        return aggregationThreshold;
+    }
+
+    private DistanceTerms getDistanceTerms(final Int2D here, final Int2D there) {
+        if (!here.equals(distanceTermsFrom)) {
+            distanceTerms.clear();
+            distanceTermsFrom = here;
+        }
+        DistanceTerms terms = distanceTerms.get(there);
+        if (terms == null) {
+            terms = new DistanceTerms(distance(here, there));
+            distanceTerms.put(there, terms);
+        }
+        return terms;
+    }
+
     public double getValueAt(final Int2D location) {
         return locationValues.getValueAt(location);
     }
@@ -116,4 +182,31 @@ public class AttractionField implements FisherStartable {
         locationValues.start(model, fisher);
     }
 
+    private class DistanceTerms {
+
+        final double distance;
+        final double distancePower;
+        double speed = Double.NaN;
+        double travelTime;
+        double travelTimePower;
+
+        DistanceTerms(final double distance) {
+            this.distance = distance;
+            this.distancePower = pow(distance + 1, actionDistanceExponent);
+        }
+
+        /**
+         * travel times are only needed for destinations, and depend on the boat's speed
+         */
+        DistanceTerms atSpeed(final double speed) {
+            if (speed != this.speed) {
+                this.speed = speed;
+                this.travelTime = distance / speed;
+                this.travelTimePower = pow(travelTime, destinationDistanceExponent);
+            }
+            return this;
+        }
+
+    }
+
 }
@@ -0,0 +1,129 @@
+package uk.ac.ox.oxfish.fisher.purseseiner.strategies.fields;
+
+import sim.util.Int2D;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map.Entry;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A quadtree over a set of location values, used by {@link AttractionField} to lump distant locations together
+ * the way Barnes-Hut lumps distant bodies. Each node keeps the total value of the locations under it and their
+ * value-weighted centre. A node is visited as a single cluster when its width, in grid cells, divided by the
+ * distance from the vessel to its centre is below the accuracy threshold. A threshold of zero visits every
+ * location on its own.
+ */
+final class LocationValuesTree {
+
+    private final Node root;
+
+    LocationValuesTree(final Collection<Entry<Int2D, Double>> values) {
+        if (values.isEmpty()) {
+            root = null;
+            return;
+        }
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+        for (final Entry<Int2D, Double> entry : values) {
+            minX = Math.min(minX, entry.getKey().x);
+            minY = Math.min(minY, entry.getKey().y);
+            maxX = Math.max(maxX, entry.getKey().x);
+            maxY = Math.max(maxY, entry.getKey().y);
+        }
+        int size = 1;
+        while (size <= Math.max(maxX - minX, maxY - minY))
+            size *= 2;
+        root = new Node(new ArrayList<>(values), minX, minY, size);
+    }
+
+    /**
+     * Calls the visitor once for each cluster that can be seen as a single location from {@code here}: either a
+     * single location or a node far enough given the threshold. Thresholds are between 0 and 1, so that a
+     * cluster's representative tile is never the vessel's own tile.
+     */
+    void forEachCluster(final Int2D here, final double threshold, final ClusterVisitor visitor) {
+        checkArgument(threshold >= 0 && threshold <= 1, "the accuracy threshold must be in [0, 1]");
+        if (root != null)
+            root.visit(here, threshold, visitor);
+    }
+
+    @FunctionalInterface
+    interface ClusterVisitor {
+
+        /**
+         * @param centreX        the value-weighted centre of the cluster, in grid coordinates
+         * @param centreY        the value-weighted centre of the cluster, in grid coordinates
+         * @param representative the tile closest to that centre, used for distances and modulation
+         * @param value          the total value of the cluster
+         */
+        void visit(double centreX, double centreY, Int2D representative, double value);
+
+    }
+
+    private static final class Node {
+
+        private final int size;
+        private final double value;
+        private final double centreX;
+        private final double centreY;
+        private final Int2D representative;
+        /**
+         * the locations of a leaf, or null for inner nodes
+         */
+        private final List<Entry<Int2D, Double>> locations;
+        private final Node[] children;
+
+        Node(final List<Entry<Int2D, Double>> values, final int minX, final int minY, final int size) {
+            this.size = size;
+            double sum = 0, weightedX = 0, weightedY = 0;
+            for (final Entry<Int2D, Double> entry : values) {
+                sum += entry.getValue();
+                weightedX += entry.getValue() * entry.getKey().x;
+                weightedY += entry.getValue() * entry.getKey().y;
+            }
+            this.value = sum;
+            // a node without value contributes nothing wherever its centre is
+            this.centreX = sum > 0 ? weightedX / sum : minX + (size - 1) / 2.0;
+            this.centreY = sum > 0 ? weightedY / sum : minY + (size - 1) / 2.0;
+            this.representative = new Int2D((int) Math.round(centreX), (int) Math.round(centreY));
+
+            if (values.size() == 1 || size == 1) {
+                this.locations = values;
+                this.children = null;
+            } else {
+                final int half = size / 2;
+                final List<List<Entry<Int2D, Double>>> quadrants = new ArrayList<>(4);
+                for (int i = 0; i < 4; i++)
+                    quadrants.add(new ArrayList<>());
+                for (final Entry<Int2D, Double> entry : values) {
+                    final int right = entry.getKey().x - minX >= half ? 1 : 0;
+                    final int top = entry.getKey().y - minY >= half ? 1 : 0;
+                    quadrants.get(right + 2 * top).add(entry);
+                }
+                this.locations = null;
+                this.children = new Node[4];
+                for (int i = 0; i < 4; i++)
+                    if (!quadrants.get(i).isEmpty())
+                        children[i] = new Node(quadrants.get(i), minX + (i % 2) * half, minY + (i / 2) * half, half);
+            }
+        }
+
+        void visit(final Int2D here, final double threshold, final ClusterVisitor visitor) {
+            if (locations != null) {
+                for (final Entry<Int2D, Double> entry : locations)
+                    visitor.visit(entry.getKey().x, entry.getKey().y, entry.getKey(), entry.getValue());
+            } else if (size < threshold * Math.hypot(centreX - here.x, centreY - here.y)) {
+                visitor.visit(centreX, centreY, representative, value);
+            } else {
+                for (final Node child : children)
+                    if (child != null)
+                        child.visit(here, threshold, visitor);
+            }
+        }
+
+    }
+
+}
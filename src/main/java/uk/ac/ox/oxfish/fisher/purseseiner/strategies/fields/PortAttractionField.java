@@ -24,14 +24,16 @@ public class PortAttractionField extends AttractionField {
     public PortAttractionField(
         final GlobalAttractionModulator globalModulator,
         final double valueExponent,
-        final double distanceExponent
+        final double distanceExponent,
+        final double aggregationThreshold
     ) {
         super(
             new PortLocationValues(),
             ConstantLocalAttractionModulator.INSTANCE,
             globalModulator,
             valueExponent,
-            distanceExponent
+            distanceExponent,
+            aggregationThreshold
         );
     }
 
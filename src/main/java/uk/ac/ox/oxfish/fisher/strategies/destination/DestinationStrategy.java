@@ -48,7 +48,16 @@ public interface DestinationStrategy extends FisherStartable {
             FishState model,
             Action currentAction);
 
-	
+    /**
+     * work towards the next destination that can be done before the fisher steps, looking at the model as it is at
+     * the start of the fisher phase. Only called when the phase runs in parallel (see
+     * {@link FishState#setParallelFisherPhase(boolean)}), from worker threads and for many fishers at once: it must not
+     * change anything but this fisher's own strategies and must not draw random numbers.
+     * @param model the model link
+     * @param fisher the fisher about to step
+     */
+    default void plan(FishState model, Fisher fisher) {}
+
 
 
 }
@@ -0,0 +1,135 @@
+package uk.ac.ox.oxfish.geography;
+
+import java.util.Arrays;
+
+/**
+ * The Moore neighborhoods of every tile of the map, for one radius, stored as flat int arrays in "compressed sparse
+ * row" form. Tiles are identified by their index ({@code gridX * height + gridY}, see
+ * {@link NauticalMap#getTileIndex(SeaTile)}) and the neighbors of tile {@code i} are
+ * {@code getNeighbors()[k]} for {@code k} going from {@code getOffsets()[i]} (included) to
+ * {@code getOffsets()[i + 1]} (excluded). The same layout is repeated for water neighbors only.
+ * <p>
+ * Neighbors come in the same order as {@link NauticalMap#getMooreNeighbors(SeaTile, int)}, so code switching from
+ * one to the other visits tiles in the same order. The index is a snapshot: it has to be rebuilt if tiles change,
+ * which {@link NauticalMap} takes care of.
+ */
+public class MooreNeighborhoodIndex {
+
+    private final int radius;
+
+    private final int width;
+
+    private final int height;
+
+    private final int[] offsets;
+
+    private final int[] neighbors;
+
+    private final int[] waterOffsets;
+
+    private final int[] waterNeighbors;
+
+    MooreNeighborhoodIndex(NauticalMap map, int radius) {
+        this.radius = radius;
+        this.width = map.getWidth();
+        this.height = map.getHeight();
+        final int numberOfTiles = width * height;
+        final int diameter = 2 * radius + 1;
+        final int[] buffer = new int[diameter * diameter];
+
+        offsets = new int[numberOfTiles + 1];
+        waterOffsets = new int[numberOfTiles + 1];
+        int[] allNeighbors = new int[numberOfTiles * 8];
+        int[] allWaterNeighbors = new int[numberOfTiles * 8];
+        int size = 0;
+        int waterSize = 0;
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                final int index = x * height + y;
+                final int count = fillNeighborhood(x, y, buffer);
+                if (size + count > allNeighbors.length)
+                    allNeighbors = Arrays.copyOf(allNeighbors, Math.max(allNeighbors.length * 2, size + count));
+                if (waterSize + count > allWaterNeighbors.length)
+                    allWaterNeighbors = Arrays.copyOf(
+                        allWaterNeighbors, Math.max(allWaterNeighbors.length * 2, waterSize + count)
+                    );
+                for (int i = 0; i < count; i++) {
+                    final int neighbor = buffer[i];
+                    allNeighbors[size++] = neighbor;
+                    if (map.getSeaTile(neighbor / height, neighbor % height).isWater())
+                        allWaterNeighbors[waterSize++] = neighbor;
+                }
+                offsets[index + 1] = size;
+                waterOffsets[index + 1] = waterSize;
+            }
+        }
+        neighbors = Arrays.copyOf(allNeighbors, size);
+        waterNeighbors = Arrays.copyOf(allWaterNeighbors, waterSize);
+    }
+
+    /**
+     * Puts the neighborhood of (x,y) in the buffer in the order MASON's bounded {@code getMooreNeighbors} returns it:
+     * row by row, with the origin's slot taken by the last neighbor (that's how a {@link sim.util.Bag} removes
+     * elements).
+     *
+     * @return the number of neighbors
+     */
+    private int fillNeighborhood(int x, int y, int[] buffer) {
+        final int minX = Math.max(0, x - radius);
+        final int maxX = Math.min(width - 1, x + radius);
+        final int minY = Math.max(0, y - radius);
+        final int maxY = Math.min(height - 1, y + radius);
+        int count = 0;
+        int origin = -1;
+        for (int i = minX; i <= maxX; i++)
+            for (int j = minY; j <= maxY; j++) {
+                if (i == x && j == y)
+                    origin = count;
+                else
+                    buffer[count] = i * height + j;
+                count++;
+            }
+        count--;
+        if (origin != count)
+            buffer[origin] = buffer[count];
+        return count;
+    }
+
+    public int getRadius() {
+        return radius;
+    }
+
+    public int getNumberOfTiles() {
+        return width * height;
+    }
+
+    /**
+     * where the neighbors of each tile start in {@link #getNeighbors()}; has one more element than there are tiles
+     */
+    public int[] getOffsets() {
+        return offsets;
+    }
+
+    public int[] getNeighbors() {
+        return neighbors;
+    }
+
+    /**
+     * where the water neighbors of each tile start in {@link #getWaterNeighbors()}
+     */
+    public int[] getWaterOffsets() {
+        return waterOffsets;
+    }
+
+    public int[] getWaterNeighbors() {
+        return waterNeighbors;
+    }
+
+    public int getNumberOfNeighbors(int tileIndex) {
+        return offsets[tileIndex + 1] - offsets[tileIndex];
+    }
+
+    public int getNumberOfWaterNeighbors(int tileIndex) {
+        return waterOffsets[tileIndex + 1] - waterOffsets[tileIndex];
+    }
+}
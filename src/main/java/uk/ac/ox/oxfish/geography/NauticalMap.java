@@ -54,6 +54,7 @@ import uk.ac.ox.oxfish.utility.Pair;
 
 import java.util.Collections;
 import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -229,6 +230,8 @@ public class NauticalMap implements Startable
             tile.start(model);
         }
 
+        pathfinder.prepare(this);
+
         Preconditions.checkArgument(receipt==null);
         //reset fished map count
         receipt =
@@ -301,6 +304,7 @@ public class NauticalMap implements Startable
         alreadyComputedNeighbors.clear();
         coordinateCache.clear();
         sizeOneNeighborhoods.clear();
+        neighborhoodIndices.clear();
     }
 
     /**
@@ -428,7 +432,11 @@ public Coordinate getCoordinates(int gridX, int gridY) {
     public Map<SeaTile,Bag> sizeOneNeighborhoods = new WeakHashMap<>();
 
 
-    public Bag getMooreNeighbors(SeaTile tile, int neighborhoodSize)
+    /**
+     * synchronized because the caches are shared by species stepped in parallel (see
+     * {@link uk.ac.ox.oxfish.biology.complicated.ParallelBiologyPhase})
+     */
+    public synchronized Bag getMooreNeighbors(SeaTile tile, int neighborhoodSize)
     {
         Bag neighbors;
         neighbors =  neighborhoodSize == 1 ? sizeOneNeighborhoods.get(tile) :
@@ -445,12 +453,51 @@ public Coordinate getCoordinates(int gridX, int gridY) {
         return neighbors;
     }
 
+    /**
+     * flat neighborhood indices, one per radius, built on first request
+     */
+    private final Map<Integer, MooreNeighborhoodIndex> neighborhoodIndices = new HashMap<>();
+
+    /**
+     * Returns the Moore neighborhoods of all tiles as flat arrays of tile indices (see {@link MooreNeighborhoodIndex}).
+     * This is much cheaper than {@link #getMooreNeighbors(SeaTile, int)} in tight loops, as long as callers hold on
+     * to the index rather than asking for it for every tile.
+     * @param neighborhoodSize the radius of the neighborhood
+     * @return the (shared, do not modify) index
+     */
+    public synchronized MooreNeighborhoodIndex getMooreNeighborhoodIndex(int neighborhoodSize)
+    {
+        return neighborhoodIndices.computeIfAbsent(
+            neighborhoodSize,
+            radius -> new MooreNeighborhoodIndex(this, radius)
+        );
+    }
+
+    /**
+     * @return the index of the tile in flat arrays (gridX * height + gridY)
+     */
+    public int getTileIndex(SeaTile tile) {
+        return tile.getGridX() * getHeight() + tile.getGridY();
+    }
+
+    /**
+     * @return the tile with this index in flat arrays (see {@link #getTileIndex(SeaTile)})
+     */
+    public SeaTile getSeaTileByIndex(int tileIndex) {
+        final int height = getHeight();
+        return (SeaTile) rasterBackingGrid.get(tileIndex / height, tileIndex % height);
+    }
+
     /**
      * tell the map some seatile has changed (not in its inner workings but really swapped out with a new seatile object).
-     * Forgets all precomputed neighborhoods and recomputes MPAs
+     * Forgets all precomputed neighborhoods and routes and recomputes MPAs
      */
     public void reactToSeaTileChange()
     {
+        alreadyComputedNeighbors.clear();
+        sizeOneNeighborhoods.clear();
+        neighborhoodIndices.clear();
+        pathfinder.invalidate();
         recomputeTilesMPA();
     }
 
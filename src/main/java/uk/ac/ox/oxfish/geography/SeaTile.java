@@ -262,6 +262,11 @@ public class SeaTile implements Startable, LocalBiology{
         return biology.getAbundance(species);
     }
 
+    @Override
+    public StructuredAbundance getAbundanceView(Species species) {
+        return biology.getAbundanceView(species);
+    }
+
     public boolean isLand() { return altitude >= 0; }
 
     public boolean isWater() { return !isLand(); }
@@ -1,39 +1,59 @@
 package uk.ac.ox.oxfish.geography.currents;
 
-import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
-import org.jetbrains.annotations.NotNull;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import sim.util.Double2D;
 import sim.util.Int2D;
 
-import java.util.*;
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.Map.Entry;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutionException;
-import java.util.function.BiFunction;
+import java.util.TreeMap;
 import java.util.function.Function;
-import java.util.function.Supplier;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.lang.Math.abs;
+import static java.lang.Math.max;
+import static java.util.Arrays.fill;
 import static uk.ac.ox.oxfish.geography.currents.CurrentPattern.Y2017;
 
+/**
+ * The currents on the map at every step. The vectors read for each day and pattern are kept in dense {@code float}
+ * grids (one for u and one for v, NaN where we have no currents) and the grids for steps falling between those days
+ * are interpolated the first time they are asked for and then kept for a little while, so that looking up a vector
+ * is just a matter of reading two arrays.
+ * <p>
+ * Safe to share between models running at the same time.
+ */
 public class CurrentVectors {
 
     private static final Double2D ZERO_VECTOR = new Double2D();
 
-    // Even caching just 50 vectors per time step gives a hit rate of about 80%!
-    private static final int MAX_CACHE_ENTRIES = 50;
-    private final CacheBuilder<Object, Object> cacheBuilder =
-        CacheBuilder.newBuilder().maximumSize(MAX_CACHE_ENTRIES).recordStats();
+    /**
+     * how many steps worth of grids are kept around; enough for several models stepping at slightly different paces
+     */
+    private static final int STEPS_KEPT = 30;
 
-    private final Map<Integer, Cache<Int2D, Optional<Double2D>>> vectorCache = new ConcurrentHashMap<>();
-    private final TreeMap<Integer, EnumMap<CurrentPattern, Map<Int2D, Double2D>>> vectorMaps;
+    private final TreeMap<Integer, EnumMap<CurrentPattern, VectorGrid>> vectorGrids = new TreeMap<>();
     private final Function<? super Integer, CurrentPattern> currentPatternAtStep;
     private final int gridHeight;
     private final int gridWidth;
     private final int stepsPerDay;
 
+    /**
+     * grids are at least as big as the map but also cover any location we were given vectors for
+     */
+    private final int denseWidth;
+    private final int denseHeight;
+
+    private transient LoadingCache<Integer, VectorGrid> gridsAtStep;
+
+    /**
+     * the last grid looked up, to skip the cache when asking about the same step over and over
+     */
+    private transient volatile VectorGrid lastGrid;
+
     public CurrentVectors(
         final TreeMap<Integer, EnumMap<CurrentPattern, Map<Int2D, Double2D>>> vectorMaps,
         final int stepsPerDay,
@@ -50,22 +70,28 @@ public class CurrentVectors {
         final int gridHeight,
         final int stepsPerDay
     ) {
-        this.vectorMaps = vectorMaps;
         this.currentPatternAtStep = currentPatternAtStep;
         this.gridHeight = gridHeight;
         this.gridWidth = gridWidth;
         this.stepsPerDay = stepsPerDay;
-    }
 
-    @NotNull
-    public static Double2D getInterpolatedVector(
-        final Double2D vectorBefore, final int offsetBefore,
-        final Double2D vectorAfter, final int offsetAfter
-    ) {
-        final double totalOffset = (double) offsetBefore + offsetAfter;
-        final Double2D v1 = vectorBefore.multiply((totalOffset - offsetBefore) / totalOffset);
-        final Double2D v2 = vectorAfter.multiply((totalOffset - offsetAfter) / totalOffset);
-        return v1.add(v2);
+        int width = gridWidth;
+        int height = gridHeight;
+        for (final EnumMap<CurrentPattern, Map<Int2D, Double2D>> maps : vectorMaps.values())
+            for (final Map<Int2D, Double2D> vectorMap : maps.values())
+                for (final Int2D location : vectorMap.keySet()) {
+                    width = max(width, location.x + 1);
+                    height = max(height, location.y + 1);
+                }
+        this.denseWidth = width;
+        this.denseHeight = height;
+
+        vectorMaps.forEach((day, maps) -> {
+            final EnumMap<CurrentPattern, VectorGrid> grids = new EnumMap<>(CurrentPattern.class);
+            maps.forEach((pattern, vectorMap) -> grids.put(pattern, toGrid(vectorMap)));
+            vectorGrids.put(day, grids);
+        });
+        initGridsAtStep();
     }
 
     static int positiveDaysOffset(final int sourceDay, final int targetDay) {
@@ -80,10 +106,6 @@ public class CurrentVectors {
         return -positiveDaysOffset(targetDay, sourceDay);
     }
 
-    public Map<Integer, Cache<Int2D, Optional<Double2D>>> getVectorCache() {
-        return Collections.unmodifiableMap(vectorCache);
-    }
-
     public int getGridHeight() {
         return gridHeight;
     }
@@ -96,116 +118,166 @@ public class CurrentVectors {
         return ((timeStep / stepsPerDay) % 365) + 1;
     }
 
+    /**
+     * Returns the current vector at location for that step, or a zero vector if we have no currents there.
+     */
     public Double2D getVector(final int step, final Int2D location) {
-        try {
-            return vectorMaps.isEmpty() ?
-                ZERO_VECTOR :
-                vectorCache
-                    .computeIfAbsent(step, __ -> cacheBuilder.build())
-                    .get(location, () -> computeVector(step, location))
-                    .orElse(ZERO_VECTOR);
-        } catch (final ExecutionException e) {
-            throw new IllegalStateException(e);
+        if (vectorGrids.isEmpty() ||
+            location.x < 0 || location.x >= denseWidth ||
+            location.y < 0 || location.y >= denseHeight)
+            return ZERO_VECTOR;
+        final VectorGrid grid = getGrid(step);
+        final int i = location.x * denseHeight + location.y;
+        final float u = grid.u[i];
+        return Float.isNaN(u) ? ZERO_VECTOR : new Double2D(u, grid.v[i]);
+    }
+
+    /**
+     * Moves the positions from {@code from} (inclusive) to {@code to} (exclusive) by the vector of the grid cell they
+     * are in, exactly as adding {@link #getVector(int, Int2D)} would but without allocating anything. Positions with
+     * a NaN x are left alone. Positions in different ranges can be moved from different threads.
+     */
+    public void drift(final int step, final double[] xs, final double[] ys, final int from, final int to) {
+        if (vectorGrids.isEmpty())
+            return;
+        final VectorGrid grid = getGrid(step);
+        for (int i = from; i < to; i++) {
+            if (Double.isNaN(xs[i]) || xs[i] < 0 || ys[i] < 0)
+                continue;
+            final int x = (int) xs[i];
+            final int y = (int) ys[i];
+            if (x >= denseWidth || y >= denseHeight)
+                continue;
+            final int cell = x * denseHeight + y;
+            final float u = grid.u[cell];
+            if (!Float.isNaN(u)) {
+                xs[i] += u;
+                ys[i] += grid.v[cell];
+            }
+        }
+    }
+
+    private VectorGrid getGrid(final int step) {
+        final VectorGrid last = lastGrid;
+        if (last != null && last.step == step)
+            return last;
+        final VectorGrid grid = gridsAtStep.getUnchecked(step);
+        lastGrid = grid;
+        return grid;
+    }
+
+    private void initGridsAtStep() {
+        gridsAtStep = CacheBuilder.newBuilder()
+            .maximumSize(STEPS_KEPT)
+            .build(CacheLoader.from(this::computeGrid));
+    }
+
+    private Object readResolve() {
+        initGridsAtStep();
+        return this;
+    }
+
+    /**
+     * The grid read for that step if there is one; otherwise the grid interpolated between the ones before and after.
+     */
+    private VectorGrid computeGrid(final int step) {
+        final EnumMap<CurrentPattern, VectorGrid> gridsOnDay = vectorGrids.get(getDayOfTheYear(step));
+        if (gridsOnDay != null) {
+            final VectorGrid grid = gridsOnDay.get(currentPatternAtStep.apply(step));
+            if (grid != null)
+                return grid.atStep(step);
+        }
+        return getInterpolatedGrid(step);
+    }
+
+    private VectorGrid getInterpolatedGrid(final int step) {
+        final VectorGridAtStep before = lookupVectorGrid(step - 1, -1);
+        final VectorGridAtStep after = lookupVectorGrid(step + 1, +1);
+        final int offsetBefore = abs(step - before.step);
+        final int offsetAfter = abs(step - after.step);
+        final double totalOffset = (double) offsetBefore + offsetAfter;
+        final double weightBefore = (totalOffset - offsetBefore) / totalOffset;
+        final double weightAfter = (totalOffset - offsetAfter) / totalOffset;
+        final VectorGrid interpolated = new VectorGrid(step, denseWidth * denseHeight);
+        for (int i = 0; i < interpolated.u.length; i++) {
+            // NaN wherever either side is missing, which is what we want
+            interpolated.u[i] = (float) (before.grid.u[i] * weightBefore + after.grid.u[i] * weightAfter);
+            interpolated.v[i] = (float) (before.grid.v[i] * weightBefore + after.grid.v[i] * weightAfter);
         }
+        return interpolated;
     }
 
     /**
-     * Returns the current vector for seaTile at step. Returns an empty optional if we have no currents for that location.
+     * Finds the closest day with a grid for the current pattern at that time, looking backward (direction -1) or
+     * forward (direction +1) from step and wrapping around the year if needed.
      */
-    private Optional<Double2D> computeVector(final int step, final Int2D location) {
-        final int dayOfTheYear = getDayOfTheYear(step);
-        if (vectorMaps.containsKey(dayOfTheYear)) {
-            final Map<CurrentPattern, Map<Int2D, Double2D>> mapsAtStep = vectorMaps.get(dayOfTheYear);
-            final CurrentPattern currentPattern = currentPatternAtStep.apply(step);
-            if (mapsAtStep.containsKey(currentPattern)) {
-                return Optional.ofNullable(mapsAtStep.get(currentPattern).get(location));
+    private VectorGridAtStep lookupVectorGrid(int step, final int direction) {
+        while (true) {
+            final int oldDay = getDayOfTheYear(step);
+            Integer newDay = direction < 0 ? vectorGrids.floorKey(oldDay) : vectorGrids.ceilingKey(oldDay);
+            if (newDay == null) {
+                final Entry<Integer, ?> fallback = direction < 0 ? vectorGrids.lastEntry() : vectorGrids.firstEntry();
+                newDay = fallback.getKey();
             }
+            final int offsetInDays = direction < 0 ?
+                negativeDaysOffset(oldDay, newDay) :
+                positiveDaysOffset(oldDay, newDay);
+            final int newStep = step + (offsetInDays * stepsPerDay);
+            final VectorGrid grid = vectorGrids.get(newDay).get(currentPatternAtStep.apply(newStep));
+            if (grid != null)
+                return new VectorGridAtStep(newStep, grid);
+            step = newStep + direction;
         }
-        return getInterpolatedVector(location, step);
     }
 
-    private Optional<VectorMapAtStep> lookupVectorMap(
-        final int step,
-        final Function<? super Integer, Integer> keyLookup,
-        final Supplier<Integer> keyFallback,
-        final BiFunction<? super Integer, ? super Integer, Integer> offsetFunction,
-        final int stepDirection // +1 or -1
-    ) {
-        final int oldDay = getDayOfTheYear(step);
-        return Optional
-            .ofNullable(keyLookup.apply(oldDay))
-            .map(Optional::of) // wrap it because `orElse` unwraps; wouldn't need that with `Optional::or` in Java 9+
-            .orElseGet(() -> Optional.ofNullable(keyFallback.get()))
-            .flatMap(newDay -> {
-                final int offsetInDays = offsetFunction.apply(oldDay, newDay);
-                final int newStep = step + (offsetInDays * stepsPerDay);
-                final Map<CurrentPattern, Map<Int2D, Double2D>> mapsOnNewDay = vectorMaps.get(newDay);
-                final CurrentPattern patternAtNewStep = currentPatternAtStep.apply(newStep);
-                return Optional
-                    .ofNullable(mapsOnNewDay.get(patternAtNewStep))
-                    .map(vectorMap -> Optional.of(new VectorMapAtStep(newStep, vectorMap)))
-                    .orElseGet(() -> lookupVectorMap(
-                        newStep + stepDirection,
-                        keyLookup,
-                        keyFallback,
-                        offsetFunction,
-                        stepDirection
-                    ));
-            });
-    }
-
-    private Optional<VectorMapAtStep> getVectorMapBefore(final int step) {
-        return lookupVectorMap(
-            step,
-            vectorMaps::floorKey,
-            () -> Optional.ofNullable(vectorMaps.lastEntry()).map(Entry::getKey).orElse(null),
-            CurrentVectors::negativeDaysOffset,
-            -1
-        );
-    }
-
-    private Optional<VectorMapAtStep> getVectorMapAfter(final int step) {
-        return lookupVectorMap(
-            step,
-            vectorMaps::ceilingKey,
-            () -> Optional.ofNullable(vectorMaps.firstEntry()).map(Entry::getKey).orElse(null),
-            CurrentVectors::positiveDaysOffset,
-            +1
-        );
+    private VectorGrid toGrid(final Map<Int2D, Double2D> vectorMap) {
+        final VectorGrid grid = new VectorGrid(-1, denseWidth * denseHeight);
+        fill(grid.u, Float.NaN);
+        fill(grid.v, Float.NaN);
+        vectorMap.forEach((location, vector) -> {
+            final int i = location.x * denseHeight + location.y;
+            grid.u[i] = (float) vector.x;
+            grid.v[i] = (float) vector.y;
+        });
+        return grid;
     }
 
     /**
-     * Return the interpolated vector between the currents we have before and after step.
-     * Returns Optional.empty() if we don't have currents for the desired sea tile.
+     * The u and v components of the vectors over the whole map, column by column.
      */
-    private Optional<Double2D> getInterpolatedVector(final Int2D location, final int step) {
-        // I'm sorry, I know how dreadful that looks in Java but this really
-        // is just simple monad chaining and I don't know how else
-        // to do it without checking for null every other line. -- Nicolas
-        return getVectorMapBefore(step - 1).flatMap(vectorMapBefore ->
-            Optional.ofNullable(vectorMapBefore.vectorMap.get(location)).flatMap(vectorBefore ->
-                getVectorMapAfter(step + 1).flatMap(vectorMapAfter ->
-                    Optional.ofNullable(vectorMapAfter.vectorMap.get(location)).map(vectorAfter ->
-                        getInterpolatedVector(
-                            vectorBefore,
-                            abs(step - vectorMapBefore.step),
-                            vectorAfter,
-                            abs(step - vectorMapAfter.step)
-                        )
-                    )
-                )
-            )
-        );
-    }
-
-    static class VectorMapAtStep {
+    private static class VectorGrid {
+
+        final int step;
+        final float[] u;
+        final float[] v;
+
+        VectorGrid(final int step, final int size) {
+            this(step, new float[size], new float[size]);
+        }
+
+        private VectorGrid(final int step, final float[] u, final float[] v) {
+            this.step = step;
+            this.u = u;
+            this.v = v;
+        }
+
+        /**
+         * the same arrays, tagged with the step they are used for
+         */
+        VectorGrid atStep(final int step) {
+            return new VectorGrid(step, u, v);
+        }
+
+    }
+
+    private static class VectorGridAtStep {
 
         final int step;
-        final Map<Int2D, Double2D> vectorMap;
+        final VectorGrid grid;
 
-        VectorMapAtStep(final int step, final Map<Int2D, Double2D> vectorMap) {
+        VectorGridAtStep(final int step, final VectorGrid grid) {
             this.step = step;
-            this.vectorMap = vectorMap;
+            this.grid = grid;
         }
 
     }
@@ -1,8 +1,6 @@
 package uk.ac.ox.oxfish.geography.currents;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
 import com.univocity.parsers.common.record.Record;
 import com.vividsolutions.jts.geom.Coordinate;
 import sim.field.geo.GeomGridField;
@@ -11,16 +9,15 @@ import sim.util.Double2D;
 import sim.util.Int2D;
 import uk.ac.ox.oxfish.geography.EquirectangularDistance;
 import uk.ac.ox.oxfish.geography.MapExtent;
+import uk.ac.ox.oxfish.utility.InputRegistry;
 import uk.ac.ox.oxfish.utility.csv.CsvParserUtil;
 
 import java.nio.file.Path;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.TreeMap;
 
-import static uk.ac.ox.oxfish.utility.FishStateUtilities.entry;
 import static uk.ac.ox.oxfish.utility.MasonUtils.coordinateToXY;
 import static uk.ac.ox.oxfish.utility.csv.CsvParserUtil.getLocalDate;
 
@@ -31,22 +28,20 @@ public enum CurrentVectorsFactory {
     public static final int STEPS_PER_DAY = 1;
     private static final int SECONDS_PER_DAY = 60 * 60 * 24;
 
-    private final LoadingCache<Entry<MapExtent, Map<CurrentPattern, Path>>, CurrentVectors> cache =
-        CacheBuilder.newBuilder()
-            .build(CacheLoader.from(entry -> {
-                MapExtent mapExtent = entry.getKey();
-                Map<CurrentPattern, Path> currentFiles = entry.getValue();
-                return new CurrentVectors(
-                    makeVectorMaps(mapExtent, currentFiles),
-                    STEPS_PER_DAY,
-                    mapExtent.getGridWidth(),
-                    mapExtent.getGridHeight()
-                );
-            }));
-
-
+    /**
+     * shared by all models reading the same files on the same map, through the {@link InputRegistry}
+     */
     public CurrentVectors getCurrentVectors(final MapExtent mapExtent, final Map<CurrentPattern, Path> currentFiles) {
-        return cache.getUnchecked(entry(mapExtent, currentFiles));
+        return InputRegistry.INSTANCE.get(
+            ImmutableList.of(CurrentVectors.class, mapExtent, currentFiles),
+            currentFiles.values(),
+            () -> new CurrentVectors(
+                makeVectorMaps(mapExtent, currentFiles),
+                STEPS_PER_DAY,
+                mapExtent.getGridWidth(),
+                mapExtent.getGridHeight()
+            )
+        );
     }
 
     @SuppressWarnings("SameParameterValue")
@@ -3,26 +3,48 @@ package uk.ac.ox.oxfish.geography.fads;
 import org.jetbrains.annotations.Nullable;
 import sim.field.continuous.Continuous2D;
 import sim.util.Double2D;
-import sim.util.Int2D;
 import uk.ac.ox.oxfish.geography.NauticalMap;
 import uk.ac.ox.oxfish.geography.currents.CurrentVectors;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.BiConsumer;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static com.google.common.base.Preconditions.*;
 import static uk.ac.ox.oxfish.utility.MasonUtils.bagToStream;
 import static uk.ac.ox.oxfish.utility.MasonUtils.inBounds;
 
+/**
+ * Objects drifting with the currents. Positions are kept in primitive arrays (in the same order as the field's
+ * {@code allObjects} bag) so that each step computes all the new positions in one pass, possibly in parallel, before
+ * updating the field and calling the move callbacks one object at a time, in order.
+ */
 public class DriftingObjectsMap {
 
+    /**
+     * how many positions each parallel task drifts
+     */
+    private static final int DRIFT_CHUNK_SIZE = 4096;
+
     private final Continuous2D field;
     private final CurrentVectors currentVectors;
     private final Map<Object, BiConsumer<Double2D, Optional<Double2D>>> onMoveCallbacks = new HashMap<>();
 
+    private final Map<Object, Integer> slots = new HashMap<>();
+    private Object[] objects = new Object[16];
+    private double[] xs = new double[16];
+    private double[] ys = new double[16];
+    private int size = 0;
+
+    /**
+     * when true, new positions are computed on the common fork-join pool; results are the same either way
+     */
+    private boolean parallelDrift = false;
+
     DriftingObjectsMap(
         final CurrentVectors currentVectors,
         final NauticalMap nauticalMap
@@ -47,26 +69,63 @@ public class DriftingObjectsMap {
         return currentVectors;
     }
 
+    public boolean isParallelDrift() {
+        return parallelDrift;
+    }
+
+    public void setParallelDrift(final boolean parallelDrift) {
+        this.parallelDrift = parallelDrift;
+    }
+
     void applyDrift(final int timeStep) {
-        for (final Object o : field.allObjects.toArray()) { // makes a copy, as objects can be removed
-            final Double2D oldLoc = field.getObjectLocationAsDouble2D(o);
-            final Optional<Double2D> newLoc = nextPosition(oldLoc, timeStep);
-            if (newLoc.isPresent())
-                move(o, oldLoc, newLoc.get());
+        // copies, as objects can be removed while we go through them
+        final int n = size;
+        final Object[] drifting = Arrays.copyOf(objects, n);
+        final double[] oldXs = Arrays.copyOf(xs, n);
+        final double[] oldYs = Arrays.copyOf(ys, n);
+        final double[] newXs = Arrays.copyOf(xs, n);
+        final double[] newYs = Arrays.copyOf(ys, n);
+
+        if (parallelDrift && n > DRIFT_CHUNK_SIZE)
+            IntStream.range(0, (n + DRIFT_CHUNK_SIZE - 1) / DRIFT_CHUNK_SIZE).parallel().forEach(chunk ->
+                drift(timeStep, newXs, newYs, chunk * DRIFT_CHUNK_SIZE, Math.min(n, (chunk + 1) * DRIFT_CHUNK_SIZE))
+            );
+        else
+            drift(timeStep, newXs, newYs, 0, n);
+
+        for (int i = 0; i < n; i++) {
+            final Double2D oldLoc = new Double2D(oldXs[i], oldYs[i]);
+            if (Double.isNaN(newXs[i]))
+                remove(drifting[i], oldLoc);
             else
-                remove(o, oldLoc);
+                move(drifting[i], oldLoc, new Double2D(newXs[i], newYs[i]));
         }
     }
 
-    private Optional<Double2D> nextPosition(final Double2D position, final int timeStep) {
-        return getGridLocation(position)
-            .map(gridLocation -> currentVectors.getVector(timeStep, gridLocation))
-            .map(position::add)
-            .filter(location -> inBounds(location, field));
+    /**
+     * Moves the positions in the range by the currents, replacing them with NaN if they leave the map.
+     */
+    private void drift(final int timeStep, final double[] newXs, final double[] newYs, final int from, final int to) {
+        for (int i = from; i < to; i++)
+            if (!onMap(newXs[i], newYs[i]))
+                newXs[i] = Double.NaN;
+        currentVectors.drift(timeStep, newXs, newYs, from, to);
+        for (int i = from; i < to; i++)
+            if (!Double.isNaN(newXs[i]) && !inField(newXs[i], newYs[i]))
+                newXs[i] = Double.NaN;
+    }
+
+    private boolean onMap(final double x, final double y) {
+        return x >= 0 && x < currentVectors.getGridWidth() && y >= 0 && y < currentVectors.getGridHeight();
+    }
+
+    private boolean inField(final double x, final double y) {
+        return x >= 0 && x < field.getWidth() && y >= 0 && y < field.getHeight();
     }
 
     private void move(final Object object, final Double2D oldLocation, final Double2D newLocation) {
-        setObjectLocation(object, newLocation);
+        if (!newLocation.equals(oldLocation))
+            setObjectLocation(object, newLocation);
         Optional
             .ofNullable(onMoveCallbacks.get(object))
             .ifPresent(f -> f.accept(oldLocation, Optional.of(newLocation)));
@@ -75,22 +134,38 @@ public class DriftingObjectsMap {
     private void remove(final Object object, final Double2D oldLocation) {
         final Object result = field.remove(object);
         checkNotNull(result, "Object not on the map!");
+        // the field's bag moves its last object in the hole, and so do we
+        final int slot = slots.remove(object);
+        final int last = --size;
+        if (slot != last) {
+            objects[slot] = objects[last];
+            xs[slot] = xs[last];
+            ys[slot] = ys[last];
+            slots.put(objects[slot], slot);
+        }
+        objects[last] = null;
         Optional
             .ofNullable(onMoveCallbacks.remove(object))
             .ifPresent(f -> f.accept(oldLocation, Optional.empty()));
     }
 
-    private Optional<Int2D> getGridLocation(final Double2D position) {
-        return position.x >= 0 && position.x < currentVectors.getGridWidth() &&
-            position.y >= 0 && position.y < currentVectors.getGridHeight()
-            ? Optional.of(new Int2D((int) position.x, (int) position.y))
-            : Optional.empty();
-    }
-
     private void setObjectLocation(final Object object, final Double2D newLocation) {
         checkArgument(inBounds(newLocation, field));
         final boolean result = field.setObjectLocation(object, newLocation);
         checkState(result);
+        Integer slot = slots.get(object);
+        if (slot == null) {
+            slot = size++;
+            if (slot == objects.length) {
+                objects = Arrays.copyOf(objects, slot * 2);
+                xs = Arrays.copyOf(xs, slot * 2);
+                ys = Arrays.copyOf(ys, slot * 2);
+            }
+            objects[slot] = object;
+            slots.put(object, slot);
+        }
+        xs[slot] = newLocation.x;
+        ys[slot] = newLocation.y;
     }
 
     /**
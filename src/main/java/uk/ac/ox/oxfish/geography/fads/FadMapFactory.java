@@ -20,6 +20,11 @@ public class FadMapFactory implements AlgorithmFactory<FadMap> {
 
     private Map<CurrentPattern, Path> currentFiles = TunaScenario.currentFiles;
 
+    /**
+     * when true, FAD positions are drifted in parallel (worth it with tens of thousands of FADs)
+     */
+    private boolean parallelDrift = false;
+
     @SuppressWarnings("unused")
     public Map<CurrentPattern, Path> getCurrentFiles() {
         return Collections.unmodifiableMap(currentFiles);
@@ -39,7 +44,17 @@ public class FadMapFactory implements AlgorithmFactory<FadMap> {
         final NauticalMap nauticalMap = fishState.getMap();
         final CurrentVectors currentVectors =
             CurrentVectorsFactory.INSTANCE.getCurrentVectors(new MapExtent(nauticalMap), currentFiles);
-        return new FadMap(nauticalMap, currentVectors, fishState.getBiology());
+        final FadMap fadMap = new FadMap(nauticalMap, currentVectors, fishState.getBiology());
+        fadMap.getDriftingObjectsMap().setParallelDrift(parallelDrift);
+        return fadMap;
+    }
+
+    public boolean isParallelDrift() {
+        return parallelDrift;
+    }
+
+    public void setParallelDrift(final boolean parallelDrift) {
+        this.parallelDrift = parallelDrift;
     }
 
 }
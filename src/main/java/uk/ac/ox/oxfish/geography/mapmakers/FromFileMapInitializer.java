@@ -20,6 +20,7 @@
 
 package uk.ac.ox.oxfish.geography.mapmakers;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Table;
 import com.google.common.io.Files;
 import com.vividsolutions.jts.geom.Envelope;
@@ -34,10 +35,12 @@ import uk.ac.ox.oxfish.geography.pathfinding.AStarPathfinder;
 import uk.ac.ox.oxfish.geography.sampling.GeographicalSample;
 import uk.ac.ox.oxfish.geography.sampling.SampledMap;
 import uk.ac.ox.oxfish.model.FishState;
+import uk.ac.ox.oxfish.utility.InputRegistry;
 
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
 import java.util.LinkedList;
 import java.util.OptionalDouble;
@@ -110,35 +113,16 @@ public class FromFileMapInitializer implements MapInitializer {
 
                 default:
                 case "csv":
-                    //otherwise read from data
-                    GeographicalSample altitudeSample = new GeographicalSample(filePath,
-                            header);
-                    //create the mbr from max-min stuff
-                    Envelope mbr = new Envelope(
-                            //the additional epsilon is there to prevent the very edge observations from falling out
-                            altitudeSample.getMinFirstCoordinate() - mapPaddingInDegrees,
-                            altitudeSample.getMaxFirstCoordinate() + mapPaddingInDegrees,
-                            altitudeSample.getMinSecondCoordinate() - mapPaddingInDegrees,
-                            altitudeSample.getMaxSecondCoordinate() + mapPaddingInDegrees);
-                    //find ratio height to width
-                    double heightToWidth = mbr.getHeight()/mbr.getWidth();
-                    int gridHeightInCells = (int) Math.round(gridWidthInCells * heightToWidth);
-
-                    //create backing grid
-                    ObjectGrid2D backingObjectGrid = new ObjectGrid2D(gridWidthInCells, gridHeightInCells);
-                    GeomGridField geomGrid = new GeomGridField(backingObjectGrid);
-                    geomGrid.setMBR(mbr);
-
-                    //get the altitude grid
-                    Table<Integer, Integer, LinkedList<Double>> sampledAltitudeGrid = SampledMap.fileToGrid(
-                            geomGrid,
-                            altitudeSample,
-                            gridWidthInCells,
-                            gridHeightInCells
+                    //otherwise read from data (models reading the same file share the samples)
+                    SampledDepth depth = InputRegistry.INSTANCE.get(
+                            ImmutableList.of(SampledDepth.class, header, gridWidthInCells, mapPaddingInDegrees),
+                            filePath,
+                            this::sampleDepth
                     );
 
-                    return sampledAltitudeToNauticalMap(sampledAltitudeGrid, mbr, gridHeightInCells, gridWidthInCells,
-                            latLong);
+                    //the envelope is copied because the map keeps (and may change) it
+                    return sampledAltitudeToNauticalMap(depth.altitudeGrid, new Envelope(depth.mbr),
+                            depth.gridHeightInCells, gridWidthInCells, latLong);
 
             }
 
@@ -152,6 +136,59 @@ public class FromFileMapInitializer implements MapInitializer {
 
 
 
+    private SampledDepth sampleDepth() {
+        GeographicalSample altitudeSample;
+        try {
+            altitudeSample = new GeographicalSample(filePath,
+                    header);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        //create the mbr from max-min stuff
+        Envelope mbr = new Envelope(
+                //the additional epsilon is there to prevent the very edge observations from falling out
+                altitudeSample.getMinFirstCoordinate() - mapPaddingInDegrees,
+                altitudeSample.getMaxFirstCoordinate() + mapPaddingInDegrees,
+                altitudeSample.getMinSecondCoordinate() - mapPaddingInDegrees,
+                altitudeSample.getMaxSecondCoordinate() + mapPaddingInDegrees);
+        //find ratio height to width
+        double heightToWidth = mbr.getHeight()/mbr.getWidth();
+        int gridHeightInCells = (int) Math.round(gridWidthInCells * heightToWidth);
+
+        //create backing grid
+        ObjectGrid2D backingObjectGrid = new ObjectGrid2D(gridWidthInCells, gridHeightInCells);
+        GeomGridField geomGrid = new GeomGridField(backingObjectGrid);
+        geomGrid.setMBR(mbr);
+
+        //get the altitude grid
+        Table<Integer, Integer, LinkedList<Double>> sampledAltitudeGrid = SampledMap.fileToGrid(
+                geomGrid,
+                altitudeSample,
+                gridWidthInCells,
+                gridHeightInCells
+        );
+        return new SampledDepth(sampledAltitudeGrid, mbr, gridHeightInCells);
+    }
+
+    /**
+     * the depth samples of a csv file, gridded; read-only once built
+     */
+    private static class SampledDepth {
+
+        private final Table<Integer, Integer, LinkedList<Double>> altitudeGrid;
+
+        private final Envelope mbr;
+
+        private final int gridHeightInCells;
+
+        private SampledDepth(
+                Table<Integer, Integer, LinkedList<Double>> altitudeGrid, Envelope mbr, int gridHeightInCells) {
+            this.altitudeGrid = altitudeGrid;
+            this.mbr = mbr;
+            this.gridHeightInCells = gridHeightInCells;
+        }
+    }
+
     public static NauticalMap sampledAltitudeToNauticalMap(
             Table<Integer, Integer,
                     LinkedList<Double>> sampledAltitudeGrid,
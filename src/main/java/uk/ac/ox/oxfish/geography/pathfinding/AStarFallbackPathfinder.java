@@ -21,14 +21,24 @@ public class AStarFallbackPathfinder implements Pathfinder {
     private final PathMemory memory;
 
     private final Pathfinder straightLinePathfinder = new StraightLinePathfinder(new DiscardingPathMemory());
-    private final AStarPathfinder aStarPathfinder;
+    private final Pathfinder aStarPathfinder;
 
     public AStarFallbackPathfinder(Distance distanceFunction) { this(distanceFunction, new TableBasedPathMemory()); }
 
     @SuppressWarnings("WeakerAccess")
     public AStarFallbackPathfinder(Distance distanceFunction, PathMemory memory) {
+        this(distanceFunction, memory, false);
+    }
+
+    /**
+     * @param indexed if true, falls back on an {@link IndexedAStarPathfinder} instead of a plain {@link AStarPathfinder}.
+     *                Both return the same routes, but the indexed one doesn't allocate maps and queues for every search.
+     */
+    public AStarFallbackPathfinder(Distance distanceFunction, PathMemory memory, boolean indexed) {
         this.memory = memory;
-        this.aStarPathfinder = new AStarPathfinder(distanceFunction, memory);
+        this.aStarPathfinder = indexed ?
+            new IndexedAStarPathfinder(distanceFunction, memory) :
+            new AStarPathfinder(distanceFunction, memory);
     }
 
     @SuppressWarnings("OptionalAssignedToNull")
@@ -51,7 +61,7 @@ public class AStarFallbackPathfinder implements Pathfinder {
             memory.putPath(start, end, straightPath);
             return straightPath;
         }
-        // We don't know the path yet, and there is no straight path, so we delegate the job to the AStarPathfinder,
+        // We don't know the path yet, and there is no straight path, so we delegate the job to the A* pathfinder,
         // which will take care of storing the path it finds in our shared memory.
         return aStarPathfinder.getRoute(map, start, end);
     }
@@ -0,0 +1,174 @@
+package uk.ac.ox.oxfish.geography.pathfinding;
+
+import com.google.common.collect.ImmutableList;
+import uk.ac.ox.oxfish.geography.NauticalMap;
+import uk.ac.ox.oxfish.geography.SeaTile;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A path memory that holds at most a fixed number of tiles, forgetting the least recently used paths when it is full.
+ * <p>
+ * Paths are stored as arrays of tile indices ({@code gridX * height + gridY}) rather than lists of {@link SeaTile},
+ * and a path and its reverse share the same array: it is stored once under the (lowest index, highest index) pair
+ * and reversed on the way out when needed. Impossible paths are remembered too, and count as one tile.
+ * <p>
+ * Hits, misses and evictions are counted so that the capacity can be tuned.
+ */
+public class BoundedPathMemory implements PathMemory {
+
+    private static final int[] IMPOSSIBLE_PATH = new int[0];
+
+    private final NauticalMap map;
+
+    /**
+     * the maximum number of tile indices we keep in memory, summed over all paths
+     */
+    private final long capacityInTiles;
+
+    /**
+     * key is the pair of endpoints (lowest index in the upper bits), value is the path going from the lowest to the
+     * highest endpoint. Iteration order is access order, so the first entry is always the least recently used.
+     */
+    private final LinkedHashMap<Long, int[]> memory = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long storedTiles = 0;
+
+    private long hits = 0;
+
+    private long misses = 0;
+
+    private long evictions = 0;
+
+    /**
+     * @param map             the map the paths are on; we need it to turn indices back into tiles
+     * @param capacityInTiles how many tiles, summed over all paths, we can remember before evicting old paths
+     */
+    public BoundedPathMemory(NauticalMap map, long capacityInTiles) {
+        checkArgument(capacityInTiles > 0);
+        this.map = map;
+        this.capacityInTiles = capacityInTiles;
+    }
+
+    @SuppressWarnings("OptionalAssignedToNull")
+    @Override
+    public Optional<ImmutableList<SeaTile>> getPath(SeaTile start, SeaTile end) {
+        final int startIndex = indexOf(start);
+        final int endIndex = indexOf(end);
+        final int[] path = memory.get(key(startIndex, endIndex));
+        if (path == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        if (path == IMPOSSIBLE_PATH)
+            return Optional.empty();
+
+        final int height = map.getHeight();
+        final ImmutableList.Builder<SeaTile> builder = ImmutableList.builderWithExpectedSize(path.length);
+        if (startIndex <= endIndex)
+            for (int tile : path)
+                builder.add(map.getSeaTile(tile / height, tile % height));
+        else
+            for (int i = path.length - 1; i >= 0; i--)
+                builder.add(map.getSeaTile(path[i] / height, path[i] % height));
+        return Optional.of(builder.build());
+    }
+
+    /**
+     * Packs the path straight into an array of indices, without making an {@link ImmutableList} copy first
+     */
+    @Override
+    public void putPath(SeaTile start, SeaTile end, Collection<SeaTile> path) {
+        final int startIndex = indexOf(start);
+        final int endIndex = indexOf(end);
+        final int[] indices = new int[path.size()];
+        // always store the path going from the lowest to the highest endpoint
+        final boolean reverse = startIndex > endIndex;
+        int i = reverse ? indices.length - 1 : 0;
+        for (SeaTile tile : path) {
+            indices[i] = indexOf(tile);
+            i += reverse ? -1 : 1;
+        }
+        put(key(startIndex, endIndex), indices);
+    }
+
+    @Override
+    public void putPath(SeaTile start, SeaTile end, ImmutableList<SeaTile> path) {
+        putPath(start, end, (Collection<SeaTile>) path);
+    }
+
+    @Override
+    public void putImpossiblePath(SeaTile start, SeaTile end) {
+        put(key(indexOf(start), indexOf(end)), IMPOSSIBLE_PATH);
+    }
+
+    private void put(long key, int[] path) {
+        final int[] old = memory.put(key, path);
+        if (old != null)
+            storedTiles -= size(old);
+        storedTiles += size(path);
+        // evict the least recently used paths until we are within capacity (but never the one we just put in)
+        final Iterator<Map.Entry<Long, int[]>> iterator = memory.entrySet().iterator();
+        while (storedTiles > capacityInTiles && memory.size() > 1) {
+            final Map.Entry<Long, int[]> eldest = iterator.next();
+            storedTiles -= size(eldest.getValue());
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    private static int size(int[] path) {
+        return path == IMPOSSIBLE_PATH ? 1 : path.length;
+    }
+
+    private int indexOf(SeaTile tile) {
+        return tile.getGridX() * map.getHeight() + tile.getGridY();
+    }
+
+    /**
+     * packs the two endpoints in a long, lowest first, so that a path and its reverse have the same key
+     */
+    private static long key(int startIndex, int endIndex) {
+        final int low = Math.min(startIndex, endIndex);
+        final int high = Math.max(startIndex, endIndex);
+        return ((long) low << 32) | high;
+    }
+
+    public long getCapacityInTiles() {
+        return capacityInTiles;
+    }
+
+    public long getStoredTiles() {
+        return storedTiles;
+    }
+
+    public int getNumberOfPaths() {
+        return memory.size();
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return the proportion of lookups that found a path in memory (NaN if nothing was looked up yet)
+     */
+    public double getHitRate() {
+        return (double) hits / (hits + misses);
+    }
+}
@@ -0,0 +1,171 @@
+package uk.ac.ox.oxfish.geography.pathfinding;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import uk.ac.ox.oxfish.geography.CartesianDistance;
+import uk.ac.ox.oxfish.geography.Distance;
+import uk.ac.ox.oxfish.geography.MooreNeighborhoodIndex;
+import uk.ac.ox.oxfish.geography.NauticalMap;
+import uk.ac.ox.oxfish.geography.SeaTile;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedList;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * The same search as {@link AStarPathfinder}, but working on tile indices ({@code gridX * height + gridY})
+ * instead of {@link SeaTile} objects. The frontier is a primitive binary heap and the "came from" and
+ * "cost so far" maps are plain arrays that are allocated once per map size and reused across queries,
+ * so an uncached query allocates nothing but the route it returns.
+ * <p>
+ * Neighbors come from the map's {@link MooreNeighborhoodIndex}, which lists them in the
+ * same order as {@link NauticalMap#getMooreNeighbors(SeaTile, int)}, and ties in the frontier are broken
+ * the same way as in {@link java.util.PriorityQueue}, so this returns exactly the same routes as
+ * {@link AStarPathfinder}. Because of the reused arrays, an instance must not be queried from more than
+ * one thread at a time (which is already the case for the map that owns it).
+ */
+public class IndexedAStarPathfinder implements Pathfinder {
+
+    private final Distance distanceFunction;
+
+    private final PathMemory memory;
+
+    private final Distance distanceHeuristic = new CartesianDistance(1);
+
+    private final IndexedMinHeap frontier = new IndexedMinHeap();
+
+    /**
+     * the predecessor of each tile; only valid where {@code visitStamps[i] == currentStamp}
+     */
+    private int[] cameFrom = new int[0];
+
+    /**
+     * best path cost to each tile so far; only valid for the start and for tiles we came to
+     */
+    private double[] costSoFar = new double[0];
+
+    /**
+     * marks the tiles for which {@code cameFrom} was set during the current query, so we never have to clear
+     */
+    private int[] visitStamps = new int[0];
+
+    private int currentStamp = 0;
+
+    public IndexedAStarPathfinder(Distance distanceFunction, PathMemory memory) {
+        this.distanceFunction = distanceFunction;
+        this.memory = memory;
+    }
+
+    public IndexedAStarPathfinder(Distance distanceFunction) {
+        this(distanceFunction, new TableBasedPathMemory());
+    }
+
+    /**
+     * return the full path that brings us from start to end
+     *
+     * @param map   the map
+     * @param start the starting tile
+     * @param end   the ending tile
+     * @return a queue of steps from start to end or null if it isn't possible to go from start to end
+     */
+    @Override
+    @SuppressWarnings("OptionalAssignedToNull")
+    public Deque<SeaTile> getRoute(NauticalMap map, SeaTile start, SeaTile end) {
+        //preconditions
+        Preconditions.checkNotNull(start);
+        Preconditions.checkNotNull(end);
+        Preconditions.checkNotNull(map);
+
+        checkArgument(start.isWater() || start.isPortHere());
+        checkArgument(end.isWater() || end.isPortHere());
+
+        // If we already have this path in our memory, return a mutable copy of it
+        final Optional<ImmutableList<SeaTile>> knownPath = memory.getPath(start, end);
+        if (knownPath != null) return knownPath.map(LinkedList::new).orElse(null);
+
+        final MooreNeighborhoodIndex neighborhoods = map.getMooreNeighborhoodIndex(1);
+        final int[] offsets = neighborhoods.getOffsets();
+        final int[] neighbors = neighborhoods.getNeighbors();
+        prepareArrays(neighborhoods.getNumberOfTiles());
+
+        final int startIndex = map.getTileIndex(start);
+        final int endIndex = map.getTileIndex(end);
+
+        frontier.clear();
+        frontier.add(startIndex, 0d);
+        costSoFar[startIndex] = 0d;
+
+        //go!
+        while (!frontier.isEmpty()) {
+            final int current = frontier.poll();
+            //stop if we have arrived
+            if (current == endIndex)
+                break;
+
+            final SeaTile currentTile = map.getSeaTileByIndex(current);
+            final double currentCost = costSoFar[current];
+
+            for (int i = offsets[current]; i < offsets[current + 1]; i++) {
+                final int neighbor = neighbors[i];
+                final SeaTile neighborTile = map.getSeaTileByIndex(neighbor);
+
+                if (neighborTile.isLand() && neighbor != endIndex) //don't bother if it's land
+                    continue;
+
+                //check how much it would cost to move there
+                final double newCost = currentCost + distanceFunction.distance(currentTile, neighborTile, map);
+                if (visitStamps[neighbor] != currentStamp || newCost < costSoFar[neighbor]) {
+                    costSoFar[neighbor] = newCost;
+                    final double priority = newCost + distanceHeuristic.distance(end, neighborTile, map);
+                    frontier.add(neighbor, priority);
+                    cameFrom[neighbor] = current;
+                    visitStamps[neighbor] = currentStamp;
+                }
+            }
+        }
+
+        //if you haven't found the path, then return null
+        if (visitStamps[endIndex] != currentStamp) {
+            memory.putImpossiblePath(start, end);
+            return null;
+        }
+        //build the path
+        final LinkedList<SeaTile> path = new LinkedList<>();
+        int current = endIndex;
+        path.add(end);
+        while (current != startIndex) {
+            current = cameFrom[current];
+            path.add(map.getSeaTileByIndex(current));
+        }
+
+        // Since the path is from end to start, we use the opportunity to store a reversed version
+        memory.putPath(end, start, path);
+        // We then reverse it and store the version that goes from start to end
+        Collections.reverse(path);
+        memory.putPath(start, end, path);
+
+        return path;
+    }
+
+    /**
+     * Makes sure the arrays can hold the whole map and starts a new query stamp
+     */
+    private void prepareArrays(int numberOfTiles) {
+        if (cameFrom.length != numberOfTiles) {
+            cameFrom = new int[numberOfTiles];
+            costSoFar = new double[numberOfTiles];
+            visitStamps = new int[numberOfTiles];
+            currentStamp = 0;
+        }
+        if (currentStamp == Integer.MAX_VALUE) {
+            Arrays.fill(visitStamps, 0);
+            currentStamp = 0;
+        }
+        currentStamp++;
+    }
+
+}
@@ -0,0 +1,85 @@
+package uk.ac.ox.oxfish.geography.pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of int elements (tile indices) ordered by a double priority, backed by two parallel arrays
+ * that are reused between searches. The sift-up/sift-down logic mirrors {@link java.util.PriorityQueue} exactly,
+ * so that elements with equal priorities come out in the same order as they would from a
+ * {@code PriorityQueue<FrontierElement>}. Duplicates are allowed: there is no decrease-key operation.
+ */
+class IndexedMinHeap {
+
+    private int[] elements;
+
+    private double[] priorities;
+
+    private int size = 0;
+
+    IndexedMinHeap() { this(64); }
+
+    IndexedMinHeap(int initialCapacity) {
+        this.elements = new int[initialCapacity];
+        this.priorities = new double[initialCapacity];
+    }
+
+    boolean isEmpty() { return size == 0; }
+
+    int size() { return size; }
+
+    void clear() { size = 0; }
+
+    void add(int element, double priority) {
+        if (size == elements.length) {
+            final int newCapacity = elements.length * 2;
+            elements = Arrays.copyOf(elements, newCapacity);
+            priorities = Arrays.copyOf(priorities, newCapacity);
+        }
+        // sift up
+        int k = size++;
+        while (k > 0) {
+            final int parent = (k - 1) >>> 1;
+            if (Double.compare(priority, priorities[parent]) >= 0)
+                break;
+            elements[k] = elements[parent];
+            priorities[k] = priorities[parent];
+            k = parent;
+        }
+        elements[k] = element;
+        priorities[k] = priority;
+    }
+
+    /**
+     * @return the priority of the element at the top of the heap; the heap must not be empty
+     */
+    double peekPriority() { return priorities[0]; }
+
+    /**
+     * Removes and returns the element with the lowest priority; the heap must not be empty
+     */
+    int poll() {
+        final int result = elements[0];
+        final int n = --size;
+        if (n > 0) {
+            // sift down the last element from the root
+            final int element = elements[n];
+            final double priority = priorities[n];
+            final int half = n >>> 1;
+            int k = 0;
+            while (k < half) {
+                int child = (k << 1) + 1;
+                final int right = child + 1;
+                if (right < n && Double.compare(priorities[child], priorities[right]) > 0)
+                    child = right;
+                if (Double.compare(priority, priorities[child]) <= 0)
+                    break;
+                elements[k] = elements[child];
+                priorities[k] = priorities[child];
+                k = child;
+            }
+            elements[k] = element;
+            priorities[k] = priority;
+        }
+        return result;
+    }
+}
@@ -41,6 +41,16 @@ public interface Pathfinder {
      */
     Deque<SeaTile> getRoute(NauticalMap map, SeaTile start, SeaTile end);
 
+    /**
+     * called by the map when it starts: pathfinders that precompute routes can do it here
+     * @param map the map that just started
+     */
+    default void prepare(NauticalMap map) {}
+
+    /**
+     * called by the map when some of its tiles have been swapped out: anything precomputed is now stale
+     */
+    default void invalidate() {}
 
 
 
@@ -0,0 +1,219 @@
+package uk.ac.ox.oxfish.geography.pathfinding;
+
+import com.google.common.base.Preconditions;
+import uk.ac.ox.oxfish.geography.Distance;
+import uk.ac.ox.oxfish.geography.MooreNeighborhoodIndex;
+import uk.ac.ox.oxfish.geography.NauticalMap;
+import uk.ac.ox.oxfish.geography.SeaTile;
+import uk.ac.ox.oxfish.geography.ports.Port;
+
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Almost every trip starts or ends at a port, so this pathfinder runs one Dijkstra search from each port when
+ * the map starts and keeps the resulting distance and predecessor fields. Any route from or to a port is then
+ * just a walk back along the predecessors, and the length of that route is a single array read.
+ * Routes between two tiles that are not ports are delegated to another pathfinder.
+ * <p>
+ * Like the path memories, this treats routes as symmetric: the route from a tile to a port is the route
+ * from the port to that tile, reversed. Fields for ports that show up after the map started are computed the
+ * first time they are needed, and all fields are forgotten when the map tells us its tiles have changed.
+ */
+public class PortDistanceFieldPathfinder implements Pathfinder {
+
+    private final Distance distanceFunction;
+
+    /**
+     * used for all the routes that neither start nor end at a port
+     */
+    private final Pathfinder delegate;
+
+    /**
+     * one field per port tile
+     */
+    private final Map<SeaTile, DistanceField> fields = new HashMap<>();
+
+    private final IndexedMinHeap frontier = new IndexedMinHeap();
+
+    public PortDistanceFieldPathfinder(Distance distanceFunction) {
+        this(distanceFunction, new IndexedAStarPathfinder(distanceFunction));
+    }
+
+    public PortDistanceFieldPathfinder(Distance distanceFunction, Pathfinder delegate) {
+        this.distanceFunction = distanceFunction;
+        this.delegate = delegate;
+    }
+
+    /**
+     * computes the distance field of every port on the map
+     */
+    @Override
+    public void prepare(NauticalMap map) {
+        fields.clear();
+        for (Port port : map.getPorts())
+            getField(map, port.getLocation());
+        delegate.prepare(map);
+    }
+
+    @Override
+    public void invalidate() {
+        fields.clear();
+        delegate.invalidate();
+    }
+
+    /**
+     * return the full path that brings us from start to end
+     *
+     * @param map   the map
+     * @param start the starting tile
+     * @param end   the ending tile
+     * @return a queue of steps from start to end or null if it isn't possible to go from start to end
+     */
+    @Override
+    public Deque<SeaTile> getRoute(NauticalMap map, SeaTile start, SeaTile end) {
+        //preconditions
+        Preconditions.checkNotNull(start);
+        Preconditions.checkNotNull(end);
+        Preconditions.checkNotNull(map);
+
+        checkArgument(start.isWater() || start.isPortHere());
+        checkArgument(end.isWater() || end.isPortHere());
+        checkArgument(isOnMap(map, start), "%s is not a tile of this map", start);
+        checkArgument(isOnMap(map, end), "%s is not a tile of this map", end);
+
+        // a route from a tile to itself is whatever the delegate says it is, port or not
+        if (start == end)
+            return delegate.getRoute(map, start, end);
+        if (start.isPortHere())
+            return getField(map, start).routeFromOrigin(map, end);
+        else if (end.isPortHere())
+            return getField(map, end).routeToOrigin(map, start);
+        else
+            return delegate.getRoute(map, start, end);
+    }
+
+    /**
+     * @param map      the map
+     * @param portTile the tile of a port
+     * @param tile     any other tile
+     * @return the length (in km) of the route between the port and the tile, or infinity if there is none
+     */
+    public double getRouteDistance(NauticalMap map, SeaTile portTile, SeaTile tile) {
+        checkArgument(portTile.isPortHere(), "%s is not a port tile", portTile);
+        return getField(map, portTile).distanceTo(map, tile);
+    }
+
+    /**
+     * @param map        the map
+     * @param portTile   the tile of a port
+     * @param tile       any other tile
+     * @param speedInKph the speed of the boat
+     * @return the hours it takes to travel the route between the port and the tile, or infinity if there is none
+     */
+    public double getTravelTimeInHours(NauticalMap map, SeaTile portTile, SeaTile tile, double speedInKph) {
+        return getRouteDistance(map, portTile, tile) / speedInKph;
+    }
+
+    private static boolean isOnMap(NauticalMap map, SeaTile tile) {
+        return map.getSeaTile(tile.getGridX(), tile.getGridY()) == tile;
+    }
+
+    private DistanceField getField(NauticalMap map, SeaTile portTile) {
+        return fields.computeIfAbsent(portTile, origin -> computeField(map, origin));
+    }
+
+    /**
+     * Dijkstra from the origin over water tiles. Other port tiles can be reached but not crossed.
+     */
+    private DistanceField computeField(NauticalMap map, SeaTile origin) {
+        final MooreNeighborhoodIndex neighborhoods = map.getMooreNeighborhoodIndex(1);
+        final int[] offsets = neighborhoods.getOffsets();
+        final int[] neighbors = neighborhoods.getNeighbors();
+        final DistanceField field = new DistanceField(map.getTileIndex(origin), neighborhoods.getNumberOfTiles());
+
+        frontier.clear();
+        frontier.add(field.origin, 0d);
+        field.distances[field.origin] = 0d;
+        while (!frontier.isEmpty()) {
+            final double distanceSoFar = frontier.peekPriority();
+            final int current = frontier.poll();
+            if (distanceSoFar > field.distances[current]) // stale entry, we found a better way already
+                continue;
+            final SeaTile currentTile = map.getSeaTileByIndex(current);
+            if (current != field.origin && currentTile.isLand()) // don't sail through other ports
+                continue;
+
+            for (int i = offsets[current]; i < offsets[current + 1]; i++) {
+                final int neighbor = neighbors[i];
+                final SeaTile neighborTile = map.getSeaTileByIndex(neighbor);
+                if (neighborTile.isLand() && !neighborTile.isPortHere())
+                    continue;
+                final double newDistance = distanceSoFar + distanceFunction.distance(currentTile, neighborTile, map);
+                if (newDistance < field.distances[neighbor]) {
+                    field.distances[neighbor] = newDistance;
+                    field.predecessors[neighbor] = current;
+                    frontier.add(neighbor, newDistance);
+                }
+            }
+        }
+        return field;
+    }
+
+    /**
+     * The result of a Dijkstra search from one origin: for each tile index, the distance from the origin
+     * and the tile we come from to get there.
+     */
+    private static class DistanceField {
+
+        private final int origin;
+
+        private final double[] distances;
+
+        private final int[] predecessors;
+
+        private DistanceField(int origin, int numberOfTiles) {
+            this.origin = origin;
+            this.distances = new double[numberOfTiles];
+            this.predecessors = new int[numberOfTiles];
+            Arrays.fill(distances, Double.POSITIVE_INFINITY);
+            Arrays.fill(predecessors, -1);
+        }
+
+        private double distanceTo(NauticalMap map, SeaTile tile) { return distances[map.getTileIndex(tile)]; }
+
+        private Deque<SeaTile> routeFromOrigin(NauticalMap map, SeaTile end) {
+            return walk(map, end, true);
+        }
+
+        private Deque<SeaTile> routeToOrigin(NauticalMap map, SeaTile start) {
+            return walk(map, start, false);
+        }
+
+        /**
+         * follows the predecessors from the tile back to the origin
+         *
+         * @param fromOrigin whether the route should be ordered from the origin to the tile or the other way around
+         * @return the route, or null if the tile can't be reached from the origin
+         */
+        private Deque<SeaTile> walk(NauticalMap map, SeaTile tile, boolean fromOrigin) {
+            int current = map.getTileIndex(tile);
+            if (distances[current] == Double.POSITIVE_INFINITY)
+                return null;
+            final LinkedList<SeaTile> route = new LinkedList<>();
+            while (true) {
+                final SeaTile currentTile = map.getSeaTileByIndex(current);
+                if (fromOrigin) route.addFirst(currentTile);
+                else route.addLast(currentTile);
+                if (current == origin)
+                    return route;
+                current = predecessors[current];
+            }
+        }
+    }
+}
@@ -91,7 +91,7 @@ public class SaveButton extends JButton implements ActionListener{
             {
 
                 gui.preCheckPoint();
-                FishStateUtilities.writeModelToFile(file, (FishState) gui.state);
+                FishStateUtilities.writeCheckpoint(file, (FishState) gui.state, true);
                 gui.postCheckPoint();
             }
 
@@ -20,6 +20,7 @@
 
 package uk.ac.ox.oxfish.maximization;
 
+import com.google.common.base.Preconditions;
 import eva2.problems.simple.SimpleProblemDouble;
 import uk.ac.ox.oxfish.biology.complicated.factory.HockeyStickRecruitmentFactory;
 import uk.ac.ox.oxfish.biology.complicated.factory.RecruitmentBySpawningJackKnifeMaturity;
@@ -29,15 +30,22 @@ import uk.ac.ox.oxfish.biology.initializer.factory.SingleSpeciesAbundanceFactory
 import uk.ac.ox.oxfish.maximization.generic.*;
 import uk.ac.ox.oxfish.model.FishState;
 import uk.ac.ox.oxfish.model.scenario.FlexibleScenario;
+import uk.ac.ox.oxfish.model.scenario.PolicyScript;
 import uk.ac.ox.oxfish.model.scenario.Scenario;
 import uk.ac.ox.oxfish.utility.AlgorithmFactory;
+import uk.ac.ox.oxfish.utility.FishStateUtilities;
 import uk.ac.ox.oxfish.utility.parameters.FixedDoubleParameter;
 import uk.ac.ox.oxfish.utility.yaml.FishYAML;
+import uk.ac.ox.oxfish.utility.yaml.ScenarioCache;
 
 import java.io.*;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
 
 public class GenericOptimization extends SimpleProblemDouble implements Serializable {
 
@@ -261,6 +269,85 @@ public class GenericOptimization extends SimpleProblemDouble implements Serializ
 
     private int simulatedYears = 4;
 
+    /**
+     * when positive, the first years of every run are simulated only once, with the scenario as it is in the file,
+     * and every evaluation continues from a copy of that spun-up model. The parameters then modify the
+     * policy script in {@link #afterSpinUpScriptFile}, which is applied to each copy before it carries on
+     */
+    private int spinUpYears = 0;
+
+    /**
+     * the policy script the parameters modify when spinning up; required when {@link #spinUpYears} is positive
+     */
+    private String afterSpinUpScriptFile = null;
+
+    /**
+     * when not null the spun-up model is frozen to this file (or read from it, if it already exists) rather than
+     * kept in memory
+     */
+    private String spinUpCheckpointFile = null;
+
+    /**
+     * when above 1, replicates run at the same time on an executor with this many threads, shared by every candidate
+     * being evaluated (see {@link #allocateThreadBudget(int)})
+     */
+    private int replicateThreads = 1;
+
+    /**
+     * replicate seeds are derived from this; when null it is taken from the clock the first time it's needed
+     */
+    private Long seed = null;
+
+    /**
+     * when true (and minimizing) runs are stopped as soon as the targets' lower bounds show they can't beat the
+     * best error found so far; they are then scored as if their error was infinite (see {@link #translateNANto})
+     */
+    private boolean pruneHopelessRuns = false;
+
+    /**
+     * what the problem builds up while it's being optimized; created when first needed and dropped by
+     * {@link #release()}. EvA's wrappers hand the same problem to all their threads, so they all see it. Copies
+     * made by serialization start without it
+     */
+    private transient RunState runState = null;
+
+    private static final class RunState {
+
+        /**
+         * the spun-up model, when kept in memory
+         */
+        private byte[] spinUp = null;
+
+        /**
+         * null until some candidate has been evaluated
+         */
+        private Double bestError = null;
+
+        private Long clockSeed = null;
+
+        /**
+         * created with {@link #replicateThreads} threads the first time replicates run in parallel, and kept at that
+         * size until released
+         */
+        private ExecutorService replicateExecutor = null;
+    }
+
+    private synchronized RunState runState() {
+        if (runState == null)
+            runState = new RunState();
+        return runState;
+    }
+
+    /**
+     * Drops the spun-up model, the best error and the clock seed, and shuts the replicate executor down. Call it once
+     * the optimization is over; evaluating again afterwards starts from scratch.
+     */
+    public synchronized void release() {
+        if (runState != null && runState.replicateExecutor != null)
+            runState.replicateExecutor.shutdown();
+        runState = null;
+    }
+
     /**
      * create smaller optimization problem trying to climb within a small range of previously found optimal parameters
      * this assumes however all parameters are simple
@@ -313,22 +400,33 @@ public class GenericOptimization extends SimpleProblemDouble implements Serializ
     public double[] evaluate(double[] x) {
 
         try {
-            double error = 0;
-
-            for (int i = 0; i < runsPerSetting; i++) {
-                //read in and modify parameters
-                Scenario scenario = buildScenario(x, Paths.get(scenarioFile).toFile(), parameters);
-
-                //run the model
-                error += computeErrorGivenScenario(scenario, simulatedYears);
-
+            final long baseSeed = getBaseSeed();
+            final double[] errors = new double[runsPerSetting];
+            if (replicateThreads > 1 && runsPerSetting > 1) {
+                final List<Future<Double>> replicates = new ArrayList<>(runsPerSetting);
+                for (int i = 0; i < runsPerSetting; i++) {
+                    final long seed = replicateSeed(baseSeed, x, i);
+                    replicates.add(getReplicateExecutor().submit(() -> computeReplicateError(x, seed)));
+                }
+                for (int i = 0; i < runsPerSetting; i++)
+                    errors[i] = replicates.get(i).get();
+            } else {
+                for (int i = 0; i < runsPerSetting; i++)
+                    errors[i] = computeReplicateError(x, replicateSeed(baseSeed, x, i));
             }
 
+            //summed in replicate order, however they were run
+            double error = 0;
+            for (double replicateError : errors)
+                error += replicateError;
+
             double finalError = error / (double) runsPerSetting;
+            if(Double.isFinite(finalError))
+                updateBestError(finalError);
             if(maximization)
                 finalError = finalError * (-1);
             if(!Double.isFinite(finalError)) {
-                System.out.println("was NAN!");
+                System.out.println(Double.isNaN(finalError) ? "was NAN!" : "was infinite (or hopeless)!");
                 finalError = translateNANto;
             }
 
@@ -340,16 +438,123 @@ public class GenericOptimization extends SimpleProblemDouble implements Serializ
         }
     }
 
+    private double computeReplicateError(double[] x, long seed) throws IOException {
+        if(spinUpYears > 0)
+            return computeErrorAfterSpinUp(x, seed);
+        //read in and modify parameters
+        Scenario scenario = buildScenario(x, Paths.get(scenarioFile).toFile(), parameters);
+
+        //run the model
+        return computeErrorGivenScenario(scenario, simulatedYears, seed);
+    }
+
+    /**
+     * the seed of a replicate depends only on the base seed, the candidate and the replicate number, so that
+     * replicates never share a seed and results don't depend on how many threads run them
+     */
+    public static long replicateSeed(long baseSeed, double[] x, int replicate) {
+        long seed = baseSeed;
+        seed = seed * 31 + Arrays.hashCode(x);
+        seed = seed * 31 + replicate;
+        return seed;
+    }
+
+    private long getBaseSeed() {
+        if (seed != null)
+            return seed;
+        final RunState state = runState();
+        synchronized (state) {
+            if (state.clockSeed == null)
+                state.clockSeed = System.currentTimeMillis();
+            return state.clockSeed;
+        }
+    }
+
+    /**
+     * the executor replicates run on, sized from {@link #replicateThreads} when it's created
+     */
+    private ExecutorService getReplicateExecutor() {
+        final RunState state = runState();
+        synchronized (state) {
+            if (state.replicateExecutor == null)
+                state.replicateExecutor = Executors.newFixedThreadPool(replicateThreads, runnable -> {
+                    Thread thread = new Thread(runnable, "replicate");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            return state.replicateExecutor;
+        }
+    }
+
+    /**
+     * splits {@code threadBudget} threads between EvA and the replicates, returning how many EvA's own
+     * {@code setParallelThreads} should get. Call it before handing the problem to EvA: the replicate executor keeps
+     * the size it was created with until {@link #release()}.
+     * <p>
+     * When replicates run in parallel, the replicate executor gets the whole budget: it is shared by every candidate,
+     * while EvA's threads just hand replicates to it and wait. EvA then only needs
+     * enough threads to keep the executor busy, one for every {@link #runsPerSetting} threads. Otherwise replicates
+     * run on EvA's threads, which get the whole budget.
+     */
+    public int allocateThreadBudget(int threadBudget) {
+        Preconditions.checkArgument(threadBudget > 0);
+        Preconditions.checkState(
+            runState == null || runState.replicateExecutor == null,
+            "The replicate executor is already running; release() the problem first"
+        );
+        if (replicateThreads <= 1 || runsPerSetting <= 1)
+            return threadBudget;
+        replicateThreads = threadBudget;
+        return Math.max(1, (threadBudget + runsPerSetting - 1) / runsPerSetting);
+    }
+
     public double computeErrorGivenScenario(Scenario scenario,
                                             int simulatedYears) {
-        FishState model = new FishState(System.currentTimeMillis());
+        return computeErrorGivenScenario(scenario, simulatedYears, System.currentTimeMillis());
+    }
+
+    public double computeErrorGivenScenario(Scenario scenario,
+                                            int simulatedYears, long seed) {
+        FishState model = new FishState(seed);
 
-        double error = 0;
         model.setScenario(scenario);
         model.start();
         System.out.println("starting run");
+        return runAndComputeError(model, simulatedYears);
+    }
+
+    /**
+     * continues a copy of the spun-up model (spinning it up first, if this is the first evaluation) after applying
+     * the policy script modified by x. The copy is reseeded so that replicates differ after the spin-up
+     */
+    public double computeErrorAfterSpinUp(double[] x, long seed) throws IOException {
+        Preconditions.checkState(afterSpinUpScriptFile != null,
+                                 "Spinning up needs a policy script for the parameters to modify");
+        Preconditions.checkState(spinUpYears < simulatedYears, "Spin-up is longer than the simulation");
+
+        FishState model = forkSpinUp();
+        model.random.setSeed(seed);
+        buildPolicyScript(x, Paths.get(afterSpinUpScriptFile).toFile(), parameters).apply(model);
+        System.out.println("continuing run after spin-up");
+        return runAndComputeError(model, simulatedYears);
+    }
+
+    private double runAndComputeError(FishState model, int simulatedYears) {
+        List<Predicate<FishState>> circuitBreakers = new LinkedList<>();
+        if(pruneHopelessRuns && !maximization)
+            circuitBreakers.add(hopelessRunBreaker());
+
+        double error = 0;
         while (model.getYear() < simulatedYears) {
             model.schedule.step(model);
+            //breakers are checked at the start of each day: last-step targets can only be bounded during the last year
+            if(model.getStep() % model.getStepsPerDay() == 0)
+                for (Predicate<FishState> circuitBreaker : circuitBreakers)
+                    if(circuitBreaker.test(model)) {
+                        System.out.println("stopping hopeless run in year " + model.getYear());
+                        //a bound is optimistic, the run can't have done better than the best so far
+                        return Double.POSITIVE_INFINITY;
+                    }
         }
         model.schedule.step(model);
 
@@ -360,22 +565,109 @@ public class GenericOptimization extends SimpleProblemDouble implements Serializ
         return error;
     }
 
+    /**
+     * the sum of the targets' lower bounds: the run's error can't end up below this
+     */
+    public double computeLowerBound(FishState model) {
+        double bound = 0;
+        for (DataTarget target : targets)
+            bound += target.computeLowerBound(model, simulatedYears);
+        return bound;
+    }
+
+    /**
+     * true once a run can't beat the best error found so far. Even if all other replicates had no error at all,
+     * the average would still be worse, so it's safe to stop it
+     */
+    public Predicate<FishState> hopelessRunBreaker() {
+        return model -> computeLowerBound(model) / runsPerSetting > getBestError();
+    }
+
+    public double getBestError() {
+        final RunState state = runState();
+        synchronized (state) {
+            return state.bestError == null ? Double.POSITIVE_INFINITY : state.bestError;
+        }
+    }
+
+    void updateBestError(double error) {
+        final RunState state = runState();
+        synchronized (state) {
+            if (state.bestError == null || error < state.bestError)
+                state.bestError = error;
+        }
+    }
+
+    /**
+     * a new copy of the model after {@link #spinUpYears}
+     */
+    private FishState forkSpinUp() throws IOException {
+        final RunState state = runState();
+        synchronized (state) {
+            if (spinUpCheckpointFile != null) {
+                File checkpoint = Paths.get(spinUpCheckpointFile).toFile();
+                if (!checkpoint.exists())
+                    FishStateUtilities.writeCheckpoint(checkpoint, spinUp(), true);
+            } else if (state.spinUp == null) {
+                ByteArrayOutputStream output = new ByteArrayOutputStream();
+                FishStateUtilities.writeCheckpoint(output, spinUp());
+                state.spinUp = output.toByteArray();
+            }
+        }
+        if (spinUpCheckpointFile != null) {
+            FishState model = FishStateUtilities.readModelFromFile(Paths.get(spinUpCheckpointFile).toFile());
+            Preconditions.checkState(model != null, "Failed to read spin-up from " + spinUpCheckpointFile);
+            return model;
+        }
+        return FishStateUtilities.readCheckpoint(new ByteArrayInputStream(state.spinUp));
+    }
+
+    private FishState spinUp() throws FileNotFoundException {
+        FishState model = new FishState(getBaseSeed());
+        model.setScenario(buildScenario(new double[0], Paths.get(scenarioFile).toFile(), new LinkedList<>()));
+        model.start();
+        System.out.println("spinning up");
+        while (model.getYear() < spinUpYears) {
+            model.schedule.step(model);
+        }
+        return model;
+    }
+
     public static Scenario buildScenario(double[] x, File scenarioFile,
                                          List<OptimizationParameter> parameterList)
             throws FileNotFoundException {
+        Scenario scenario;
+        try {
+            scenario = ScenarioCache.getShared().load(scenarioFile.toPath(), Scenario.class);
+        } catch (FileNotFoundException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        parametrize(x, scenario, parameterList);
+
+        return scenario;
+    }
+
+    public static PolicyScript buildPolicyScript(double[] x, File scriptFile,
+                                                 List<OptimizationParameter> parameterList)
+            throws FileNotFoundException {
         FishYAML yaml = new FishYAML();
-        Scenario scenario = yaml.loadAs(new 
-                FileReader(scenarioFile),Scenario.class);
+        PolicyScript script = yaml.loadAs(new FileReader(scriptFile), PolicyScript.class);
+        parametrize(x, script, parameterList);
+
+        return script;
+    }
+
+    private static void parametrize(double[] x, Object target, List<OptimizationParameter> parameterList) {
         int parameter=0;
        for (OptimizationParameter optimizationParameter : parameterList)
         {
-            optimizationParameter.parametrize(scenario,
+            optimizationParameter.parametrize(target,
                     Arrays.copyOfRange(x,parameter,
                             parameter+optimizationParameter.size()));
             parameter+=optimizationParameter.size();
         }
-
-        return scenario;
     }
 
     public static void saveCalibratedScenario(double[] optimalParameters, Path optimizationYamlFile,
@@ -490,6 +782,54 @@ public class GenericOptimization extends SimpleProblemDouble implements Serializ
         this.runsPerSetting = runsPerSetting;
     }
 
+    public int getReplicateThreads() {
+        return replicateThreads;
+    }
+
+    public void setReplicateThreads(int replicateThreads) {
+        this.replicateThreads = replicateThreads;
+    }
+
+    public Long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(Long seed) {
+        this.seed = seed;
+    }
+
+    public boolean isPruneHopelessRuns() {
+        return pruneHopelessRuns;
+    }
+
+    public void setPruneHopelessRuns(boolean pruneHopelessRuns) {
+        this.pruneHopelessRuns = pruneHopelessRuns;
+    }
+
+    public int getSpinUpYears() {
+        return spinUpYears;
+    }
+
+    public void setSpinUpYears(int spinUpYears) {
+        this.spinUpYears = spinUpYears;
+    }
+
+    public String getAfterSpinUpScriptFile() {
+        return afterSpinUpScriptFile;
+    }
+
+    public void setAfterSpinUpScriptFile(String afterSpinUpScriptFile) {
+        this.afterSpinUpScriptFile = afterSpinUpScriptFile;
+    }
+
+    public String getSpinUpCheckpointFile() {
+        return spinUpCheckpointFile;
+    }
+
+    public void setSpinUpCheckpointFile(String spinUpCheckpointFile) {
+        this.spinUpCheckpointFile = spinUpCheckpointFile;
+    }
+
     /**
      * Getter for property 'simulatedYears'.
      *
@@ -66,6 +66,9 @@ public class OptimizerConsole {
 
         SimpleProblemWrapper problem = new SimpleProblemWrapper();
         problem.setSimpleProblem(optimization);
+        //parallel replicates get all the threads, EvA only enough to keep them busy
+        if(optimization instanceof GenericOptimization)
+            parallelThreads = ((GenericOptimization) optimization).allocateThreadBudget(parallelThreads);
         problem.setParallelThreads(parallelThreads);
         if(args.length>=4) {
             problem.setDefaultRange(Integer.parseInt(args[4]));
@@ -178,6 +181,8 @@ public class OptimizerConsole {
         });
 
         runnable.run();
+        if(optimization instanceof GenericOptimization)
+            ((GenericOptimization) optimization).release();
 
     }
 }
@@ -166,7 +166,9 @@ public class TunaCalibrator implements Runnable {
             .filter(target -> target instanceof AbstractLastStepFixedDataTarget)
             .forEach(target -> ((AbstractLastStepFixedDataTarget) target).setVerbose(verbose));
 
-        final int numThreads = Math.min(getRuntime().availableProcessors(), 32);
+        final int threadBudget = Math.min(getRuntime().availableProcessors(), 32);
+        //parallel replicates get the whole budget, EvA only enough threads to keep them busy
+        final int numThreads = optimizationProblem.allocateThreadBudget(threadBudget);
 
         System.out.println("Requesting " + numThreads + " threads");
 
@@ -198,6 +200,8 @@ public class TunaCalibrator implements Runnable {
             runnable.run();
         } catch (final IOException e) {
             throw new IllegalStateException(e);
+        } finally {
+            optimizationProblem.release();
         }
 
         return runnable.getDoubleSolution();
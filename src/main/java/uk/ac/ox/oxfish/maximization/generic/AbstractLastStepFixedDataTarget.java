@@ -34,6 +34,12 @@ public abstract class AbstractLastStepFixedDataTarget implements FixedDataTarget
     private boolean verbose;
     private String columnName = "";
 
+    /**
+     * true when the column adds up non-negative amounts over the year (landings, catches, numbers of sets...), so
+     * that its value can only grow until the year is over. Runs can then be stopped during their last year
+     */
+    private boolean accumulating = false;
+
     AbstractLastStepFixedDataTarget(final ForecastErrorMeasure forecastErrorMeasure) {
         this(forecastErrorMeasure, 1, false);
     }
@@ -64,6 +70,22 @@ public abstract class AbstractLastStepFixedDataTarget implements FixedDataTarget
         return error;
     }
 
+    /**
+     * only the last year's value counts and, unless the column is {@link #accumulating}, nothing can be said about it
+     * before it's gathered. When it is, the value so far this year can only grow, so once it has gone past the target
+     * the error can't get any smaller than it is now (this assumes the error measure doesn't decrease as the value
+     * moves away from the target, true of the scaled and symmetric percentage errors)
+     */
+    @Override
+    public double computeLowerBound(FishState model, int simulatedYears) {
+        if (!accumulating || model.getYear() != simulatedYears - 1)
+            return 0;
+        final Double soFar = model.getYearlyDataSet().peek(columnName);
+        if (soFar == null || !(soFar > fixedTarget))
+            return 0;
+        return forecastErrorMeasure.applyAsDouble(fixedTarget, soFar) * weight;
+    }
+
     private void printResult(final double value, final double error) {
         System.out.println("$$$$$$$$$$$$$$$$$$$$$$$$$$$$$$$$$$$$$$");
         System.out.println("column: " + getColumnName());
@@ -88,6 +110,10 @@ public abstract class AbstractLastStepFixedDataTarget implements FixedDataTarget
         this.fixedTarget = fixedTarget;
     }
 
+    public boolean isAccumulating() { return accumulating; }
+
+    public void setAccumulating(final boolean accumulating) { this.accumulating = accumulating; }
+
 
 
 }
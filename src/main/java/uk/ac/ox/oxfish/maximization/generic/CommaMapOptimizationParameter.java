@@ -21,7 +21,6 @@
 package uk.ac.ox.oxfish.maximization.generic;
 
 import com.google.common.base.Preconditions;
-import uk.ac.ox.oxfish.model.scenario.Scenario;
 
 /**
  * always returns a string concatenating many numbers through a comma in a map format:
@@ -77,7 +76,7 @@ public class CommaMapOptimizationParameter implements OptimizationParameter {
      * @return
      */
     @Override
-    public String parametrize(Scenario scenario, double[] inputs) {
+    public String parametrize(Object scenario, double[] inputs) {
 
         Preconditions.checkArgument(inputs.length==size);
         Preconditions.checkArgument(size>0);
@@ -35,4 +35,15 @@ public interface DataTarget extends Serializable {
      * @return distance from target (0 best, the higher the number the further away from optimum we are)
      */
     public double computeError(FishState model);
+
+    /**
+     * a number the error can't end up below, given what the model has gathered so far; used to stop runs that
+     * can't possibly do well early
+     * @param model model while it is running
+     * @param simulatedYears the run stops (and its error is computed) once this many years have been simulated
+     * @return lower bound on the final error (0, the default, when nothing can be said)
+     */
+    default double computeLowerBound(FishState model, int simulatedYears) {
+        return 0;
+    }
 }
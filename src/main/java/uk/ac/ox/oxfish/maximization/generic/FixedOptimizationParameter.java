@@ -20,7 +20,6 @@
 
 package uk.ac.ox.oxfish.maximization.generic;
 
-import uk.ac.ox.oxfish.model.scenario.Scenario;
 
 //for testing only!
 public class FixedOptimizationParameter implements OptimizationParameter {
@@ -53,7 +52,7 @@ public class FixedOptimizationParameter implements OptimizationParameter {
      * @return
      */
     @Override
-    public String parametrize(Scenario scenario, double[] inputs) {
+    public String parametrize(Object scenario, double[] inputs) {
         SimpleOptimizationParameter.quickParametrize(scenario,
                                                      realValue,
                                                      address);
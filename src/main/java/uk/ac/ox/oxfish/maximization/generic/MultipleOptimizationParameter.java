@@ -1,6 +1,5 @@
 package uk.ac.ox.oxfish.maximization.generic;
 
-import uk.ac.ox.oxfish.model.scenario.Scenario;
 
 import java.util.LinkedList;
 import java.util.List;
@@ -59,7 +58,7 @@ public class MultipleOptimizationParameter implements OptimizationParameter {
     }
 
     @Override
-    public String parametrize(Scenario scenario, double[] inputs) {
+    public String parametrize(Object scenario, double[] inputs) {
         double realValue =minimum+((maximum-minimum)/(10-(-10)))*(inputs[0] - (-10));
 
 
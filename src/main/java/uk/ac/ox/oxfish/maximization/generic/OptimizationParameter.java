@@ -22,7 +22,6 @@ package uk.ac.ox.oxfish.maximization.generic;
 
 import com.google.common.base.Preconditions;
 import org.apache.commons.beanutils.PropertyUtils;
-import uk.ac.ox.oxfish.model.scenario.Scenario;
 
 import java.lang.reflect.InvocationTargetException;
 
@@ -36,18 +35,22 @@ public interface OptimizationParameter {
     public int size();
 
     /**
-     * consume the scenario and add the parameters
-     * @param scenario the scenario to modify
+     * consume the scenario and add the parameters.
+     * When {@link uk.ac.ox.oxfish.maximization.GenericOptimization} spins up, the target is the policy script applied
+     * after the spin-up rather than the scenario, so only what a {@link uk.ac.ox.oxfish.model.scenario.PolicyScript}
+     * exposes (gear, strategies, regulations, costs...) can be calibrated; biology parameters are then out of reach,
+     * since the biology was built during the spin-up
+     * @param scenario the scenario to modify (or any other bean addresses can navigate, like a policy script)
      * @param inputs the numerical values of the parameters to set
      * @return
      */
-    public String parametrize(Scenario scenario, double[] inputs);
+    public String parametrize(Object scenario, double[] inputs);
 
 
 
 
 
-    public static void navigateAndSet(Scenario scenario,
+    public static void navigateAndSet(Object scenario,
                                       String address,
                                       Object value) throws IllegalAccessException,
             NoSuchMethodException, InvocationTargetException {
@@ -81,7 +81,7 @@ public class SimpleOptimizationParameter implements OptimizationParameter, Seria
      * @return
      */
     @Override
-    public String parametrize(Scenario scenario, double[] inputs) {
+    public String parametrize(Object scenario, double[] inputs) {
 
         Preconditions.checkArgument(maximum>=minimum, "invalid bounds " + addressToModify);
         Preconditions.checkArgument(inputs.length==1);
@@ -118,7 +118,7 @@ public class SimpleOptimizationParameter implements OptimizationParameter, Seria
 
     }
 
-    public static void quickParametrize(Scenario scenario, double realValue, String addressToModify) {
+    public static void quickParametrize(Object scenario, double realValue, String addressToModify) {
         try{
             //try as double parameter
             OptimizationParameter.navigateAndSet(
@@ -139,7 +139,7 @@ public class SimpleOptimizationParameter implements OptimizationParameter, Seria
         }
     }
 
-    public static void quickParametrizeRawNumber(Scenario scenario, double realValue, String addressToModify) {
+    public static void quickParametrizeRawNumber(Object scenario, double realValue, String addressToModify) {
         //try as raw number
         try{
             OptimizationParameter.navigateAndSet(
@@ -1,7 +1,6 @@
 package uk.ac.ox.oxfish.maximization.generic;
 
 import com.google.common.base.Preconditions;
-import uk.ac.ox.oxfish.model.scenario.Scenario;
 import uk.ac.ox.oxfish.utility.parameters.FixedDoubleParameter;
 import uk.ac.ox.oxfish.utility.parameters.UniformDoubleParameter;
 
@@ -28,7 +27,7 @@ public class UniformWithSpreadOptimizationParameter implements OptimizationParam
     }
 
     @Override
-    public String parametrize(Scenario scenario, double[] inputs) {
+    public String parametrize(Object scenario, double[] inputs) {
         Preconditions.checkArgument(maxSpread>=minSpread, "invalid bounds " + addressToModify);
         Preconditions.checkArgument(inputs.length==1);
 
@@ -20,6 +20,7 @@
 
 package uk.ac.ox.oxfish.maximization.generic;
 
+import com.google.common.primitives.Doubles;
 import uk.ac.ox.oxfish.model.FishState;
 import uk.ac.ox.oxfish.model.data.collectors.DataColumn;
 import uk.ac.ox.oxfish.utility.FishStateUtilities;
@@ -28,6 +29,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.DoubleSummaryStatistics;
 import java.util.List;
 
@@ -57,6 +59,13 @@ public class YearlyDataTarget implements DataTarget {
 
     private  double coefficientOfVariation = .1;
 
+    /**
+     * the parsed CSV and what it was parsed from (see {@link #readRealData()})
+     */
+    private transient List<Double> realData = null;
+
+    private transient String realDataSource = null;
+
 
     /**
      *  @param pathToCsvFile
@@ -84,37 +93,71 @@ public class YearlyDataTarget implements DataTarget {
 
         DataColumn simulationOutput = model.getYearlyDataSet().getColumn(yearlyDataColumnName);
 
+        List<Double> realData = readRealData();
+        double plainDistance = FishStateUtilities.timeSeriesDistance(
+                simulationOutput,
+                realData, exponent,
+                cumulative) / realData.size();
+
+        return scale(plainDistance, realData);
+
+    }
+
+    /**
+     * when not cumulative, the distance is a sum of non-negative yearly terms, so the years simulated so far already
+     * give a lower bound
+     */
+    @Override
+    public double computeLowerBound(FishState model, int simulatedYears) {
+        if(cumulative)
+            return 0;
+        DataColumn simulationOutput = model.getYearlyDataSet().getColumn(yearlyDataColumnName);
+        if(simulationOutput == null)
+            return 0;
+
+        List<Double> realData = readRealData();
+        final int years = Math.min(simulationOutput.size(), realData.size());
+        double plainDistance = FishStateUtilities.timeSeriesDistance(
+                Doubles.asList(simulationOutput.toArray(0, years)),
+                realData.subList(0, years), exponent,
+                false) / realData.size();
+
+        return scale(plainDistance, realData);
+    }
+
+    private double scale(double plainDistance, List<Double> realData) {
+        DoubleSummaryStatistics stats = realData.stream().mapToDouble(Double::doubleValue).summaryStatistics();
+        double std = stats.getAverage() * coefficientOfVariation;
+        if(std <=0 || !Double.isFinite(std))
+            return plainDistance;
+        else
+        // average distance / std
+        {
+
+            return plainDistance / std;
+        }
+    }
+
+    /**
+     * the CSV, parsed the first time it's needed and again only if the file or header setting change (lower bounds
+     * are computed every simulated day)
+     */
+    private synchronized List<Double> readRealData() {
+        final String source = pathToCsvFile + (hasHeader ? "" : " (no header)");
+        if (source.equals(realDataSource))
+            return realData;
         try {
             List<String> lines = Files.readAllLines(Paths.get(pathToCsvFile));
-            ArrayList<Double> realData = new ArrayList<>();
-
-            DoubleSummaryStatistics stats = new DoubleSummaryStatistics();
-            for (int i = hasHeader ? 1 : 0; i < lines.size(); i++) {
-                double realTimeSeriesElement = Double.parseDouble(lines.get(i));
-                realData.add(realTimeSeriesElement);
-                stats.accept(realTimeSeriesElement);
-
-            }
-            double plainDistance = FishStateUtilities.timeSeriesDistance(
-                    simulationOutput,
-                    realData, exponent,
-                    cumulative) / stats.getCount();
-
-            double std = stats.getAverage() * coefficientOfVariation;
-            if(std <=0 || !Double.isFinite(std))
-                return plainDistance;
-            else
-            // average distance / std
-            {
-
-                return plainDistance / std;
-            }
-
+            ArrayList<Double> parsed = new ArrayList<>();
+            for (int i = hasHeader ? 1 : 0; i < lines.size(); i++)
+                parsed.add(Double.parseDouble(lines.get(i)));
+            realData = Collections.unmodifiableList(parsed);
+            realDataSource = source;
+            return realData;
         }
         catch (IOException e){
             throw new RuntimeException(e);
         }
-
     }
 
     public YearlyDataTarget() {
@@ -23,6 +23,7 @@ package uk.ac.ox.oxfish.model;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Predicate;
 import java.util.function.ToDoubleFunction;
 
@@ -42,6 +43,7 @@ import sim.util.Bag;
 import uk.ac.ox.oxfish.biology.EmptyLocalBiology;
 import uk.ac.ox.oxfish.biology.GlobalBiology;
 import uk.ac.ox.oxfish.biology.Species;
+import uk.ac.ox.oxfish.biology.complicated.ParallelBiologyPhase;
 import uk.ac.ox.oxfish.fisher.Fisher;
 import uk.ac.ox.oxfish.fisher.equipment.gear.Gear;
 import uk.ac.ox.oxfish.fisher.equipment.gear.RandomCatchabilityTrawl;
@@ -52,6 +54,7 @@ import uk.ac.ox.oxfish.geography.fads.FadMap;
 import uk.ac.ox.oxfish.geography.ports.Port;
 import uk.ac.ox.oxfish.model.data.Gatherer;
 import uk.ac.ox.oxfish.model.data.OutputPlugin;
+import uk.ac.ox.oxfish.model.data.collectors.ColumnRetention;
 import uk.ac.ox.oxfish.model.data.collectors.Counter;
 import uk.ac.ox.oxfish.model.data.collectors.DataColumn;
 import uk.ac.ox.oxfish.model.data.collectors.FishStateYearlyTimeSeries;
@@ -134,6 +137,28 @@ public class FishState  extends SimState{
      */
     private boolean started = false;
 
+    /**
+     * steps the biology of all species in parallel when not null
+     */
+    private ParallelBiologyPhase parallelBiologyPhase = null;
+
+    /**
+     * random generators of code running off the schedule thread, see {@link #runWithRandom(MersenneTwisterFast, Runnable)}.
+     * The thread local is only looked up once something has been run that way; it isn't part of checkpoints
+     */
+    private transient ThreadLocal<MersenneTwisterFast> workerRandom = new ThreadLocal<>();
+
+    /**
+     * not volatile: the only thread that can find a generator in the thread local is the one that put it there, and
+     * that thread always sees its own write to this flag
+     */
+    private transient boolean workerRandomInUse = false;
+
+    /**
+     * how many observations the daily data of the model and of each fisher keep
+     */
+    private ColumnRetention dailyDataRetention = ColumnRetention.UNBOUNDED;
+
     /**
      * x steps equal 1 day
      */
@@ -169,6 +194,11 @@ public class FishState  extends SimState{
 
     private LinkedHashMap<StepOrder,AggregateSteppable> aggregateDailySteppables = new LinkedHashMap<>();
 
+    /**
+     * steps all the fishers, see {@link #scheduleFisher(Steppable)}
+     */
+    private final FisherPhase fisherPhase = new FisherPhase();
+
     /**
      * here you store all entryPlugins (any steppable that can automatically generate new fishers over time).
      * This is useful for regulations to pause them
@@ -252,6 +282,7 @@ public class FishState  extends SimState{
             schedule.scheduleRepeating(steppable.getValue(),steppable.getKey().ordinal(), stepsPerDay*365);
         for(Map.Entry<StepOrder,AggregateSteppable> steppable :aggregateDailySteppables.entrySet()  )
             schedule.scheduleRepeating(steppable.getValue(),steppable.getKey().ordinal(), stepsPerDay);
+        scheduleEveryStep(fisherPhase, StepOrder.FISHER_PHASE);
 
 
 
@@ -303,6 +334,7 @@ public class FishState  extends SimState{
         for( Pair<Fisher,FisherStartable> startable : fisherStartables)
             startable.getSecond().start(this,startable.getFirst());
         dailyDataSet.start(this,this);
+        dailyDataSet.setRetention(dailyDataRetention);
         yearlyDataSet.start(this,this);
         started=true;
 
@@ -422,6 +454,19 @@ public class FishState  extends SimState{
         return schedule.scheduleRepeating(steppable,order.ordinal(),1.0);
     }
 
+    /**
+     * steps the fisher every step in the {@link StepOrder#FISHER_PHASE}, in random order with the other fishers, as
+     * {@link #scheduleEveryStep(Steppable, StepOrder)} would; but all the fishers share one schedule entry
+     */
+    public Stoppable scheduleFisher(Steppable fisher)
+    {
+        return fisherPhase.add(fisher, schedule.getTime() + 1);
+    }
+
+    public FisherPhase getFisherPhase() {
+        return fisherPhase;
+    }
+
     public void scheduleOnce(Steppable steppable, StepOrder order)
     {
         schedule.scheduleOnce(steppable,order.ordinal());
@@ -518,7 +563,7 @@ public class FishState  extends SimState{
                                 new ToDoubleFunction<SeaTile>() {
                                     @Override
                                     public double applyAsDouble(SeaTile value) {
-                                        return value.getAbundance(species).getAbundanceInBin(bin);
+                                        return value.getAbundanceView(species).getAbundanceInBin(bin);
                                     }
                                 }
                         ).sum();
@@ -530,7 +575,7 @@ public class FishState  extends SimState{
         double sum = 0;
         for (SeaTile seaTile : map.getAllSeaTilesExcludingLandAsList()) {
             if(seaTile.isFishingEvenPossibleHere())
-                sum += seaTile.getAbundance(species).getAbundance(subdivision,bin);
+                sum += seaTile.getAbundanceView(species).getAbundance(subdivision,bin);
         }
         return sum;
     }
@@ -552,7 +597,7 @@ public class FishState  extends SimState{
                 for (int bin = 0; bin < species.getNumberOfBins(); bin++)
                 {
                     if (seaTile.isFishingEvenPossibleHere())
-                        totalAbundance[subdivision][bin] += seaTile.getAbundance(species).getAbundance(subdivision, bin);
+                        totalAbundance[subdivision][bin] += seaTile.getAbundanceView(species).getAbundance(subdivision, bin);
                 }
             }
         }
@@ -642,11 +687,94 @@ public class FishState  extends SimState{
         return (int) Math.round(schedule.getTime());
     }
 
+    /**
+     * the generator installed by {@link #runWithRandom(MersenneTwisterFast, Runnable)} if this thread is running
+     * within it, the model's own otherwise
+     */
     public MersenneTwisterFast getRandom()
     {
+        if(workerRandomInUse) {
+            final MersenneTwisterFast local = workerRandom.get();
+            if(local != null)
+                return local;
+        }
         return random;
     }
 
+    /**
+     * runs the task so that {@link #getRandom()}, called from this thread, returns the given generator. This is how
+     * work handed to other threads stays reproducible: the generator ought to be seeded from the model's
+     * own on the schedule thread
+     */
+    public void runWithRandom(MersenneTwisterFast random, Runnable task)
+    {
+        workerRandomInUse = true;
+        workerRandom.set(random);
+        try {
+            task.run();
+        }
+        finally {
+            workerRandom.remove();
+        }
+    }
+
+    public ColumnRetention getDailyDataRetention() {
+        return dailyDataRetention;
+    }
+
+    /**
+     * limits how many daily observations the model and each fisher keep (see {@link ColumnRetention}); at least
+     * 365 days have to stay in memory (or on disk) so that yearly data is unaffected. Needs to be set before the
+     * model starts
+     */
+    public void setDailyDataRetention(ColumnRetention dailyDataRetention) {
+        Preconditions.checkState(!started, "Data retention must be set before starting the model");
+        Preconditions.checkArgument(
+            !dailyDataRetention.isBounded() || dailyDataRetention.isSpillToDisk() ||
+                dailyDataRetention.getInMemory() >= ColumnRetention.MINIMUM_KEPT,
+            "Daily data has to keep at least " + ColumnRetention.MINIMUM_KEPT + " days, not " + dailyDataRetention);
+        this.dailyDataRetention = dailyDataRetention;
+    }
+
+    /**
+     * Getter for property 'parallelBiologyPhase'.
+     *
+     * @return Value for property 'parallelBiologyPhase'; null unless species biology is stepped in parallel
+     */
+    public ParallelBiologyPhase getParallelBiologyPhase() {
+        return parallelBiologyPhase;
+    }
+
+    /**
+     * when true, the natural processes and diffusers of all species are stepped in parallel by a
+     * {@link ParallelBiologyPhase} rather than one after the other. Needs to be set before the model starts
+     */
+    public void setParallelBiology(boolean parallelBiology) {
+        Preconditions.checkState(!started, "Parallel biology must be set before starting the model");
+        this.parallelBiologyPhase = parallelBiology ? new ParallelBiologyPhase() : null;
+    }
+
+    /**
+     * steps species biology in parallel on the given pool rather than the common one. Needs to be set before the
+     * model starts
+     */
+    public void setParallelBiology(ForkJoinPool pool) {
+        Preconditions.checkState(!started, "Parallel biology must be set before starting the model");
+        this.parallelBiologyPhase = new ParallelBiologyPhase(Preconditions.checkNotNull(pool));
+    }
+
+    /**
+     * when true, fishers plan their next destination all at the same time before being stepped one after the other
+     * (see {@link FisherPhase})
+     */
+    public void setParallelFisherPhase(boolean parallelFisherPhase) {
+        fisherPhase.setParallel(parallelFisherPhase);
+    }
+
+    public boolean isParallelFisherPhase() {
+        return fisherPhase.isParallel();
+    }
+
     public SocialNetwork getSocialNetwork() {
         return socialNetwork;
     }
@@ -949,4 +1077,12 @@ public class FishState  extends SimState{
     public void setEntryPlugins(List<EntryPlugin> entryPlugins) {
         this.entryPlugins = entryPlugins;
     }
+
+    /**
+     * transient fields aren't set when reading back a checkpoint
+     */
+    private Object readResolve() {
+        workerRandom = new ThreadLocal<>();
+        return this;
+    }
 }
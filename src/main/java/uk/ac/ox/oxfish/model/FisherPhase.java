@@ -0,0 +1,134 @@
+package uk.ac.ox.oxfish.model;
+
+import ec.util.MersenneTwisterFast;
+import sim.engine.SimState;
+import sim.engine.Steppable;
+import sim.engine.Stoppable;
+import uk.ac.ox.oxfish.fisher.Fisher;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Steps every fisher, in random order, from a single schedule entry. Like {@link AggregateSteppable} this keeps the
+ * MASON heap small: with thousands of fishers each in its own repeating entry most of the time goes into keeping the
+ * heap sorted and shuffling it. Here fishers sit in an array (removing one moves the last one in its place) and are
+ * shuffled with the model's generator every step.
+ * <p>
+ * As with the schedule, a fisher added during a step is first stepped on the next one and a fisher removed during a
+ * step isn't stepped anymore.
+ * <p>
+ * When parallel, each step starts by letting all the fishers plan ahead at the same time (see
+ * {@link Fisher#planStep(FishState)}), looking at the model as it is at the start of the phase. Fishers are then
+ * stepped one after the other in the shuffled order, which is all that changes the model. Results don't depend on
+ * the number of threads, but they are not the same as when not planning ahead.
+ */
+public class FisherPhase implements Steppable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Entry[] entries = new Entry[16];
+
+    private int size = 0;
+
+    /**
+     * the entries being stepped, in the order they are stepped; kept around to avoid reallocating it every step
+     */
+    private Entry[] order = new Entry[16];
+
+    private boolean parallel = false;
+
+    /**
+     * @param fisher    what to step
+     * @param firstStep the first time it should be stepped
+     * @return stop it to remove the fisher
+     */
+    public Stoppable add(Steppable fisher, double firstStep) {
+        if (size == entries.length)
+            entries = Arrays.copyOf(entries, size * 2);
+        final Entry entry = new Entry(fisher, firstStep, size);
+        entries[size++] = entry;
+        return entry;
+    }
+
+    private void remove(Entry entry) {
+        if (entry.index < 0)
+            return;
+        final Entry last = entries[--size];
+        entries[entry.index] = last;
+        last.index = entry.index;
+        entries[size] = null;
+        entry.index = -1;
+    }
+
+    @Override
+    public void step(SimState simState) {
+        final double now = simState.schedule.getTime();
+        if (order.length < size)
+            order = new Entry[entries.length];
+        int toStep = 0;
+        for (int i = 0; i < size; i++)
+            if (entries[i].firstStep <= now)
+                order[toStep++] = entries[i];
+
+        final MersenneTwisterFast random = ((FishState) simState).getRandom();
+        for (int i = toStep - 1; i > 0; i--) {
+            final int j = random.nextInt(i + 1);
+            final Entry swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+
+        if (parallel) {
+            final Entry[] planning = order;
+            IntStream.range(0, toStep).parallel().forEach(i -> {
+                if (planning[i].fisher instanceof Fisher)
+                    ((Fisher) planning[i].fisher).planStep((FishState) simState);
+            });
+        }
+
+        for (int i = 0; i < toStep; i++) {
+            final Entry entry = order[i];
+            order[i] = null;
+            if (entry.index >= 0)
+                entry.fisher.step(simState);
+        }
+    }
+
+    public int getNumberOfFishers() {
+        return size;
+    }
+
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    private class Entry implements Stoppable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Steppable fisher;
+
+        private final double firstStep;
+
+        /**
+         * where this is in the entries array, or -1 once removed
+         */
+        private int index;
+
+        private Entry(Steppable fisher, double firstStep, int index) {
+            this.fisher = fisher;
+            this.firstStep = firstStep;
+            this.index = index;
+        }
+
+        @Override
+        public void stop() {
+            remove(this);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package uk.ac.ox.oxfish.model.data.collectors;
+
+import com.google.common.base.Preconditions;
+
+import java.io.Serializable;
+
+/**
+ * How many observations a {@link DataColumn} keeps in memory, and what happens to older ones: either everything is
+ * kept ({@link #UNBOUNDED}), only the last N are ({@link #keepLast(int)}) or older observations are moved to a
+ * temporary file ({@link #spillToDisk(int)}) where they can still be read, just more slowly.
+ */
+public final class ColumnRetention implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final ColumnRetention UNBOUNDED = new ColumnRetention(0, false);
+
+    /**
+     * observations kept in memory; 0 means all of them
+     */
+    private final int inMemory;
+
+    private final boolean spillToDisk;
+
+    private ColumnRetention(int inMemory, boolean spillToDisk) {
+        this.inMemory = inMemory;
+        this.spillToDisk = spillToDisk;
+    }
+
+    /**
+     * the fewest observations {@link #keepLast(int)} accepts: yearly aggregates are built from the last 365 days
+     */
+    public static final int MINIMUM_KEPT = 365;
+
+    /**
+     * keep only the last {@code observations} (at least {@link #MINIMUM_KEPT}); older ones are forgotten and read
+     * as NaN
+     */
+    public static ColumnRetention keepLast(int observations) {
+        Preconditions.checkArgument(observations >= MINIMUM_KEPT,
+                                    "Yearly aggregates need at least " + MINIMUM_KEPT + " observations, got " +
+                                        observations);
+        return new ColumnRetention(observations, false);
+    }
+
+    /**
+     * keep the last {@code observationsInMemory} in memory and write older ones to a temporary file
+     */
+    public static ColumnRetention spillToDisk(int observationsInMemory) {
+        Preconditions.checkArgument(observationsInMemory > 0, "Need to keep at least one observation in memory");
+        return new ColumnRetention(observationsInMemory, true);
+    }
+
+    public boolean isBounded() {
+        return inMemory > 0;
+    }
+
+    public int getInMemory() {
+        return inMemory;
+    }
+
+    public boolean isSpillToDisk() {
+        return spillToDisk;
+    }
+
+    @Override
+    public String toString() {
+        return !isBounded() ? "unbounded" : (spillToDisk ? "spill to disk after " : "keep last ") + inMemory;
+    }
+}
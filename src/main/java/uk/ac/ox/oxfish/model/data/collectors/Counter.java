@@ -29,31 +29,29 @@ import uk.ac.ox.oxfish.model.Startable;
 import uk.ac.ox.oxfish.model.StepOrder;
 
 import java.util.*;
-import java.util.function.BiFunction;
 
 /**
- * A simple map String--->Double that auto-resets once started
+ * A simple map String--->Double that auto-resets once started.
+ * Each column gets an integer handle when added; hot code should keep it and count through it, which is just an
+ * array update. Counting by column name still works but costs a hash lookup.
  * Created by carrknight on 6/8/15.
  */
 public class Counter implements Startable, Steppable
 {
 
-    final private Map<String,Double> data;
+    /**
+     * the handle of each column, in the order they were added
+     */
+    final private Map<String,Integer> columns;
+
+    private double[] values = new double[8];
 
     final private IntervalPolicy policy;
 
     private Stoppable receipt = null;
 
-    //some counters spend an inordinate amount of time
-    //updating the same column over and over again
-    //we can speed up the processing a lot by not inserting
-    //the last column (and just track its counts separately)
-    //until we absolutely need it
-    private String lazyColumnToInsert = null;
-    private double lazyValueToAdd = 0;
-
     public Counter(IntervalPolicy policy) {
-        this.data = new LinkedHashMap<>();
+        this.columns = new LinkedHashMap<>();
         this.policy = policy;
     }
 
@@ -68,34 +66,23 @@ public class Counter implements Startable, Steppable
         /**
          * reset all stuff
          */
-        data.entrySet().forEach(datum -> datum.setValue(0d));
-    }
-
-
-    private void flushLazyValueInCounter(){
-        assert lazyColumnToInsert != null;
-        assert Double.isFinite(lazyValueToAdd);
-        data.compute(lazyColumnToInsert,
-                (s, oldValue) -> {
-                    if(oldValue==null)
-                        throw new NullPointerException("No column exists");
-                    else
-                        return oldValue + lazyValueToAdd;
-
-                });
-        lazyColumnToInsert = null;
-        lazyValueToAdd = 0;
-
+        Arrays.fill(values, 0, columns.size(), 0d);
     }
 
     /**
      * adds a new data column, ready to be counted. It can't be already there
      * @param columnName the name of the column
+     * @return the handle to count and read the column with
      */
-    public void addColumn(String columnName)
+    public int addColumn(String columnName)
     {
         Preconditions.checkArgument(!hasColumn(columnName), columnName + " column already exists!");
-        data.put(columnName,0d);
+        final int column = columns.size();
+        if(column == values.length)
+            values = Arrays.copyOf(values, column * 2);
+        values[column] = 0d;
+        columns.put(columnName, column);
+        return column;
     }
 
 
@@ -105,7 +92,18 @@ public class Counter implements Startable, Steppable
      * @return
      */
     public boolean hasColumn(String columnName){
-        return data.containsKey(columnName);
+        return columns.containsKey(columnName);
+    }
+
+    /**
+     * the handle of an existing column
+     * @param columnName the name of the column
+     */
+    public int getColumnIndex(String columnName){
+        final Integer column = columns.get(columnName);
+        if(column == null)
+            throw new NullPointerException("No column exists: " + columnName);
+        return column;
     }
 
     /**
@@ -119,13 +117,20 @@ public class Counter implements Startable, Steppable
         if(add==0)
             return;
 
-        if(lazyColumnToInsert != null && lazyColumnToInsert != columnName)
-            flushLazyValueInCounter();
-
-        lazyColumnToInsert = columnName;
-        lazyValueToAdd = lazyValueToAdd + add;
+        count(getColumnIndex(columnName), add);
 
+    }
 
+    /**
+     * increment column by this
+     * @param column the handle returned when adding the column
+     * @param add by how much to increment
+     */
+    public void count(int column, double add)
+    {
+        assert Double.isFinite(add);
+        assert column < columns.size();
+        values[column] += add;
     }
 
     /**
@@ -139,14 +144,21 @@ public class Counter implements Startable, Steppable
 
 
     public Double getColumn(String columnName){
-        if(lazyColumnToInsert!=null)
-            flushLazyValueInCounter();
-        return data.get(columnName);
+        final Integer column = columns.get(columnName);
+        return column == null ? null : values[column];
+    }
+
+    /**
+     * @param column the handle returned when adding the column
+     */
+    public double getColumn(int column){
+        assert column < columns.size();
+        return values[column];
     }
 
 
     public Set<String> getValidCounters(){
-        return data.keySet();
+        return columns.keySet();
     }
 
 }
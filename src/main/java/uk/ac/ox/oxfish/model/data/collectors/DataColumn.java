@@ -24,22 +24,42 @@ import org.jetbrains.annotations.Nullable;
 
 import javax.measure.Unit;
 import java.io.Serializable;
+import java.util.BitSet;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.NoSuchElementException;
 import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.Consumer;
+import java.util.stream.DoubleStream;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static tech.units.indriya.AbstractUnit.ONE;
 
 /**
- * basically a linked-list for double values that cannot be modified easily
+ * basically a list for double values that cannot be modified easily.
+ * Values are kept unboxed in a {@link DoubleColumn}; the boxed API is still there, nulls included.
+ * By default all values are kept, but a {@link ColumnRetention} can limit that to the most recent ones
  * Created by carrknight on 6/9/15.
  */
 public class DataColumn implements Iterable<Double>, Serializable{
 
-    private final LinkedList<Double> data = new LinkedList<>();
+    private final DoubleColumn data = new DoubleColumn();
+
+    /**
+     * positions where null was added (stored as NaN in data), counted from {@link #nullsOffset}; null until the first
+     * null shows up
+     */
+    @Nullable
+    private BitSet nulls = null;
+
+    /**
+     * the position of the first bit in {@link #nulls}: when older values are no longer retained, their bits are
+     * dropped too, so that the set doesn't grow forever
+     */
+    private int nullsOffset = 0;
 
     private final String name;
     private final Unit<?> unit;
@@ -84,7 +104,26 @@ public class DataColumn implements Iterable<Double>, Serializable{
      */
     public void add(Double newValue)
     {
-        data.addLast(newValue);
+        if(newValue == null) {
+            data.add(Double.NaN);
+            trimNulls();
+            if(nulls == null) {
+                nulls = new BitSet();
+                nullsOffset = data.getFirstAvailableIndex();
+            }
+            nulls.set(data.size() - 1 - nullsOffset);
+        }
+        else
+            data.add(newValue);
+    }
+
+    /**
+     * add latest observation, without boxing it
+     * @param newValue latest observation to add
+     */
+    public void add(double newValue)
+    {
+        data.add(newValue);
     }
 
     /**
@@ -93,7 +132,7 @@ public class DataColumn implements Iterable<Double>, Serializable{
      */
     public Double getLatest()
     {
-        return data.isEmpty() ? Double.NaN : data.peekLast();
+        return data.isEmpty() ? Double.NaN : get(data.size()-1);
     }
 
     /**
@@ -104,16 +143,62 @@ public class DataColumn implements Iterable<Double>, Serializable{
      * @throws IndexOutOfBoundsException {@inheritDoc}
      */
     public Double get(int index) {
-        return data.get(index);
+        final double value = data.get(index);
+        return nulls != null && index >= nullsOffset && nulls.get(index - nullsOffset) ? null : value;
+    }
+
+    /**
+     * drops the bits of values that are no longer retained, once there are at least as many of them as bits still
+     * needed (so that copying the rest is paid for by the values added since the last time)
+     */
+    private void trimNulls() {
+        if(nulls == null)
+            return;
+        final int dropped = data.getFirstAvailableIndex() - nullsOffset;
+        if(dropped <= 0 || dropped < data.size() - data.getFirstAvailableIndex())
+            return;
+        nulls = nulls.get(dropped, Math.max(dropped, nulls.length()));
+        nullsOffset += dropped;
+        if(nulls.isEmpty())
+            nulls = null;
     }
 
     public Double getDatumXStepsAgo(int daysAgo)
     {
-        return data.get(data.size()-daysAgo-1);
+        return get(data.size()-daysAgo-1);
+    }
+
+    /**
+     * the element at the specified position, unboxed (nulls come back as NaN)
+     */
+    public double getAsDouble(int index) {
+        return data.get(index);
+    }
+
+    /**
+     * all the values, oldest first, in a new array (nulls come back as NaN)
+     */
+    public double[] toArray() {
+        return data.toArray();
+    }
+
+    /**
+     * the values from {@code from} (included) to {@code to} (excluded) in a new array (nulls come back as NaN)
+     */
+    public double[] toArray(int from, int to) {
+        return data.toArray(from, to);
+    }
+
+    /**
+     * the values as a primitive stream (nulls come back as NaN)
+     */
+    public DoubleStream doubleStream() {
+        return data.stream();
     }
 
     /**
-     * Returns the number of elements in this list.
+     * Returns the number of elements ever added to this list (with a bounded {@link ColumnRetention} not all of them
+     * can still be read).
      *
      * @return the number of elements in this list
      */
@@ -121,6 +206,24 @@ public class DataColumn implements Iterable<Double>, Serializable{
         return data.size();
     }
 
+    /**
+     * the index of the oldest element that can still be read; iterators and streams start from there
+     */
+    public int getFirstAvailableIndex() {
+        return data.getFirstAvailableIndex();
+    }
+
+    public ColumnRetention getRetention() {
+        return data.getRetention();
+    }
+
+    /**
+     * how many elements to keep from now on (see {@link ColumnRetention})
+     */
+    public void setRetention(ColumnRetention retention) {
+        data.setRetention(retention);
+    }
+
     /**
      * Returns an iterator over elements of type {@code T}.
      *
@@ -128,7 +231,21 @@ public class DataColumn implements Iterable<Double>, Serializable{
      */
     @Override
     public Iterator<Double> iterator() {
-        return data.iterator();
+        return new Iterator<Double>() {
+            private int next = data.getFirstAvailableIndex();
+
+            @Override
+            public boolean hasNext() {
+                return next < data.size();
+            }
+
+            @Override
+            public Double next() {
+                if(next >= data.size())
+                    throw new NoSuchElementException();
+                return get(next++);
+            }
+        };
     }
 
 
@@ -136,21 +253,36 @@ public class DataColumn implements Iterable<Double>, Serializable{
      * @since 1.6
      */
     public Iterator<Double> descendingIterator() {
-        return data.descendingIterator();
+        return new Iterator<Double>() {
+            private int next = data.size() - 1;
+
+            @Override
+            public boolean hasNext() {
+                return next >= data.getFirstAvailableIndex();
+            }
+
+            @Override
+            public Double next() {
+                if(next < data.getFirstAvailableIndex())
+                    throw new NoSuchElementException();
+                return get(next--);
+            }
+        };
     }
 
     /**
      */
     @Override
     public void forEach(Consumer<? super Double> action) {
-        data.forEach(action);
+        for(int i = data.getFirstAvailableIndex(); i < data.size(); i++)
+            action.accept(get(i));
     }
 
     /**
      */
     @Override
     public Spliterator<Double> spliterator() {
-        return data.spliterator();
+        return Spliterators.spliterator(iterator(), data.size() - data.getFirstAvailableIndex(), Spliterator.ORDERED);
     }
 
 
@@ -170,7 +302,7 @@ public class DataColumn implements Iterable<Double>, Serializable{
      * @since 1.8
      */
     public Stream<Double> stream() {
-        return data.stream();
+        return StreamSupport.stream(spliterator(), false);
     }
 
 
@@ -178,19 +310,23 @@ public class DataColumn implements Iterable<Double>, Serializable{
 
 
     public LinkedList<Double> copy(){
-        return new LinkedList<>(data);
+        final LinkedList<Double> copy = new LinkedList<>();
+        forEach(copy::add);
+        return copy;
     }
 
 
     @Override
     public String toString() {
         final StringBuffer sb = new StringBuffer("DataColumn{");
-        sb.append("data=").append(data);
+        sb.append("data=").append(copy());
         sb.append('}');
         return sb.toString();
     }
 
     public void clear(){
         data.clear();
+        nulls = null;
+        nullsOffset = 0;
     }
 }
@@ -0,0 +1,333 @@
+package uk.ac.ox.oxfish.model.data.collectors;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.DoubleConsumer;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+
+/**
+ * A growable array of primitive doubles that can only be appended to (or cleared). Random access is O(1) and
+ * nothing gets boxed.
+ * <p>
+ * Values are indexed by the order they were added in, but depending on the {@link ColumnRetention} only the most
+ * recent ones may still be in memory (in a ring buffer); older ones are either gone or in a temporary file. The
+ * index of the oldest value that can still be read is {@link #getFirstAvailableIndex()}; iteration and streams
+ * start from there, while reading (or copying) an index that is no longer retained gives NaN. Clearing the column
+ * closes and deletes its temporary file, if any.
+ */
+public class DoubleColumn implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private double[] values;
+
+    /**
+     * where the oldest value in memory is in {@link #values}
+     */
+    private int head = 0;
+
+    /**
+     * number of values in memory
+     */
+    private int inMemory = 0;
+
+    /**
+     * number of values ever added
+     */
+    private int size = 0;
+
+    private ColumnRetention retention = ColumnRetention.UNBOUNDED;
+
+    /**
+     * older values, when they are spilled to disk; null otherwise
+     */
+    private Spill spill = null;
+
+    public DoubleColumn() {
+        this(16);
+    }
+
+    public DoubleColumn(int initialCapacity) {
+        values = new double[Math.max(initialCapacity, 1)];
+    }
+
+    public void add(double value) {
+        if (inMemory == values.length) {
+            if (!retention.isBounded() || values.length < retention.getInMemory())
+                resize(retention.isBounded() ?
+                    Math.min(values.length * 2, retention.getInMemory()) :
+                    values.length * 2);
+            else
+                evictOldest();
+        }
+        int slot = head + inMemory;
+        if (slot >= values.length)
+            slot -= values.length;
+        values[slot] = value;
+        inMemory++;
+        size++;
+    }
+
+    public double get(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        final int firstInMemory = size - inMemory;
+        if (index >= firstInMemory) {
+            int slot = head + index - firstInMemory;
+            if (slot >= values.length)
+                slot -= values.length;
+            return values[slot];
+        }
+        if (spill != null && index >= spill.first)
+            return spill.read(index);
+        //no longer retained: reported as missing, so that code going through every index from 0 still works
+        return Double.NaN;
+    }
+
+    /**
+     * the number of values ever added (not all of which may still be available)
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * the index of the oldest value that can still be read
+     */
+    public int getFirstAvailableIndex() {
+        return spill != null ? spill.first : size - inMemory;
+    }
+
+    public ColumnRetention getRetention() {
+        return retention;
+    }
+
+    /**
+     * changes how many values are kept from now on; values already beyond the new limit are dropped (or spilled)
+     * straight away
+     */
+    public void setRetention(ColumnRetention retention) {
+        this.retention = retention;
+        if (retention.isSpillToDisk() && spill == null)
+            spill = new Spill(size - inMemory);
+        if (!retention.isSpillToDisk() && spill != null) {
+            spill.delete();
+            spill = null;
+        }
+        if (retention.isBounded()) {
+            while (inMemory > retention.getInMemory())
+                evictOldest();
+            if (values.length > retention.getInMemory())
+                resize(retention.getInMemory());
+        }
+    }
+
+    public void clear() {
+        head = 0;
+        inMemory = 0;
+        size = 0;
+        if (spill != null) {
+            spill.delete();
+            spill = new Spill(0);
+        }
+    }
+
+    /**
+     * a copy of all the available values, oldest first
+     */
+    public double[] toArray() {
+        return toArray(getFirstAvailableIndex(), size);
+    }
+
+    /**
+     * a copy of the values from {@code from} (included) to {@code to} (excluded)
+     */
+    public double[] toArray(int from, int to) {
+        if (from < 0 || to > size || from > to)
+            throw new IndexOutOfBoundsException("Range: [" + from + ", " + to + "), Size: " + size);
+        final double[] copy = new double[to - from];
+        final int firstInMemory = size - inMemory;
+        if (from >= firstInMemory) {
+            //at most two copies, the ring buffer might wrap around
+            int start = head + from - firstInMemory;
+            if (start >= values.length)
+                start -= values.length;
+            final int firstPart = Math.min(copy.length, values.length - start);
+            System.arraycopy(values, start, copy, 0, firstPart);
+            System.arraycopy(values, 0, copy, firstPart, copy.length - firstPart);
+        } else {
+            for (int i = from; i < to; i++)
+                copy[i - from] = get(i);
+        }
+        return copy;
+    }
+
+    public void forEach(DoubleConsumer action) {
+        for (int i = getFirstAvailableIndex(); i < size; i++)
+            action.accept(get(i));
+    }
+
+    public DoubleStream stream() {
+        return IntStream.range(getFirstAvailableIndex(), size).mapToDouble(this::get);
+    }
+
+    public PrimitiveIterator.OfDouble iterator() {
+        return new PrimitiveIterator.OfDouble() {
+            private int next = getFirstAvailableIndex();
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public double nextDouble() {
+                if (next >= size)
+                    throw new NoSuchElementException();
+                return get(next++);
+            }
+        };
+    }
+
+    private void evictOldest() {
+        if (spill != null)
+            spill.write(values[head]);
+        head++;
+        if (head == values.length)
+            head = 0;
+        inMemory--;
+    }
+
+    /**
+     * moves the values in memory to a new array, oldest first
+     */
+    private void resize(int capacity) {
+        final double[] resized = new double[capacity];
+        final int firstPart = Math.min(inMemory, values.length - head);
+        System.arraycopy(values, head, resized, 0, firstPart);
+        System.arraycopy(values, 0, resized, firstPart, inMemory - firstPart);
+        values = resized;
+        head = 0;
+    }
+
+    /**
+     * the temporary file older values are spilled to, or null if there is none (yet)
+     */
+    Path getSpillFile() {
+        return spill == null || spill.file == null ? null : Paths.get(spill.file);
+    }
+
+    /**
+     * values evicted from memory, appended in blocks to a temporary file. The file stays open from the first block
+     * until the spill is deleted, which happens when the column is cleared (as it is when its time series is turned
+     * off) or stops spilling
+     */
+    private static class Spill implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private static final int BLOCK = 128;
+
+        /**
+         * the index of the first value in the file
+         */
+        private final int first;
+
+        private final double[] pending = new double[BLOCK];
+
+        private int numberPending = 0;
+
+        private long written = 0;
+
+        /**
+         * kept as a string because paths aren't serializable
+         */
+        private String file = null;
+
+        /**
+         * not serializable either: opened again on first use after a checkpoint is read back
+         */
+        private transient FileChannel channel = null;
+
+        private Spill(int first) {
+            this.first = first;
+        }
+
+        private void write(double value) {
+            pending[numberPending++] = value;
+            if (numberPending == BLOCK)
+                flush();
+        }
+
+        private double read(int index) {
+            final long position = index - first;
+            if (position >= written)
+                return pending[(int) (position - written)];
+            try {
+                final ByteBuffer buffer = ByteBuffer.allocate(Double.BYTES);
+                while (buffer.hasRemaining())
+                    if (channel().read(buffer, position * Double.BYTES + buffer.position()) < 0)
+                        throw new IOException("Spill file " + file + " is shorter than expected");
+                buffer.flip();
+                return buffer.getDouble();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void flush() {
+            try {
+                final ByteBuffer buffer = ByteBuffer.allocate(numberPending * Double.BYTES);
+                for (int i = 0; i < numberPending; i++)
+                    buffer.putDouble(pending[i]);
+                buffer.flip();
+                final FileChannel channel = channel();
+                while (buffer.hasRemaining())
+                    channel.write(buffer, written * Double.BYTES + buffer.position());
+                written += numberPending;
+                numberPending = 0;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private FileChannel channel() throws IOException {
+            if (file == null)
+                file = Files.createTempFile("column", ".bin").toString();
+            if (channel == null)
+                channel = FileChannel.open(Paths.get(file), StandardOpenOption.READ, StandardOpenOption.WRITE);
+            return channel;
+        }
+
+        /**
+         * closes the file and deletes it
+         */
+        private void delete() {
+            try {
+                if (channel != null)
+                    channel.close();
+                if (file != null)
+                    Files.deleteIfExists(Paths.get(file));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                channel = null;
+                file = null;
+            }
+        }
+    }
+}
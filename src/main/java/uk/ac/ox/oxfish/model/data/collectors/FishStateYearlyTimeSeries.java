@@ -20,6 +20,9 @@
 
 package uk.ac.ox.oxfish.model.data.collectors;
 
+import com.google.common.base.Preconditions;
+import sim.engine.SimState;
+import sim.engine.Steppable;
 import uk.ac.ox.oxfish.biology.Species;
 import uk.ac.ox.oxfish.fisher.Fisher;
 import uk.ac.ox.oxfish.geography.ports.Port;
@@ -28,10 +31,10 @@ import uk.ac.ox.oxfish.model.FishStateDailyTimeSeries;
 import uk.ac.ox.oxfish.model.StepOrder;
 import uk.ac.ox.oxfish.model.data.Gatherer;
 import uk.ac.ox.oxfish.model.market.AbstractMarket;
-import uk.ac.ox.oxfish.utility.FishStateUtilities;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.DoubleSummaryStatistics;
-import java.util.Iterator;
 import java.util.List;
 import java.util.function.DoublePredicate;
 import java.util.function.Predicate;
@@ -53,6 +56,8 @@ public class FishStateYearlyTimeSeries extends TimeSeries<FishState>
 
     private final FishStateDailyTimeSeries originalGatherer;
 
+    private final YearlySums yearlySums = new YearlySums();
+
     public FishStateYearlyTimeSeries(
             FishStateDailyTimeSeries originalGatherer) {
         super(IntervalPolicy.EVERY_YEAR, StepOrder.AGGREGATE_DATA_GATHERING);
@@ -69,6 +74,7 @@ public class FishStateYearlyTimeSeries extends TimeSeries<FishState>
     @Override
     public void start(FishState state, FishState observed) {
         super.start(state, observed);
+        originalGatherer.addObservationListener(yearlySums);
 
 
         final String fuel = FisherYearlyTimeSeries.FUEL_CONSUMPTION;
@@ -94,95 +100,36 @@ public class FishStateYearlyTimeSeries extends TimeSeries<FishState>
 
             //catches (includes discards)
             final String catchesColumn = species + " " + FisherDailyTimeSeries.CATCHES_COLUMN_NAME;
-            registerGatherer(catchesColumn,
-                             FishStateUtilities.generateYearlySum(originalGatherer.getColumn(
-                                     catchesColumn)), 0d);
+            final int catches = yearlySums.add(originalGatherer.getColumn(catchesColumn));
+            registerGatherer(catchesColumn, ignored -> yearlySums.get(catches), 0d);
 
 
             //CPUE
+            final int effort = yearlySums.add(originalGatherer.getColumn("Total Effort"));
             registerGatherer(species + " CPUE",
-                    new Gatherer<FishState>() {
-                        @Override
-                        public Double apply(FishState fishState) {
-                            final String catches =  catchesColumn;
-                            final String effort = "Total Effort";
-
-                            DataColumn numerator = originalGatherer.getColumn(catches);
-                            DataColumn denominator = originalGatherer.getColumn(effort);
-                            final Iterator<Double> numeratorIterator = numerator.descendingIterator();
-                            final Iterator<Double>  denominatorIterator = denominator.descendingIterator();
-                            if(!numeratorIterator.hasNext()) //not ready/year 1
-                                return Double.NaN;
-                            double sumNumerator = 0;
-                            double sumDenominator = 0;
-                            for(int i=0; i<365; i++) {
-                                //it should be step 365 times at most, but it's possible that this agent was added halfway through
-                                //and only has a partially filled collection
-                                if(numeratorIterator.hasNext()) {
-                                    sumNumerator += numeratorIterator.next();
-                                    sumDenominator += denominatorIterator.next();
-                                }
-                            }
-                            return  sumNumerator/sumDenominator;
-
-                        }
-                    },Double.NaN);
+                             ignored -> yearlySums.get(catches) / yearlySums.get(effort),
+                             Double.NaN);
 
             //CPHO
             registerGatherer(species + " CPHO",
-                    new Gatherer<FishState>() {
-                        @Override
-                        public Double apply(FishState fishState) {
-                            final String catches =  catchesColumn;
-
-                            DataColumn numerator = originalGatherer.getColumn(catches);
-                            final Iterator<Double> numeratorIterator = numerator.descendingIterator();
-                            if(!numeratorIterator.hasNext()) //not ready/year 1
-                                return Double.NaN;
-                            double sumNumerator = 0;
-                            for(int i=0; i<365; i++) {
-                                //it should be step 365 times at most, but it's possible that this agent was added halfway through
-                                //and only has a partially filled collection
-                                if(numeratorIterator.hasNext()) {
-                                    sumNumerator += numeratorIterator.next();
-                                }
-                            }
-                            double sumDenominator = fishState.getFishers().stream().
-                                    mapToDouble(value -> value.getLatestYearlyObservation(
-                                            FisherYearlyTimeSeries.HOURS_OUT)).sum();
-                            return  sumNumerator/sumDenominator;
-
-                        }
-                    },Double.NaN);
+                             fishState -> {
+                                 final double sumNumerator = yearlySums.get(catches);
+                                 if(Double.isNaN(sumNumerator)) //not ready/year 1
+                                     return Double.NaN;
+                                 double sumDenominator = fishState.getFishers().stream().
+                                         mapToDouble(value -> value.getLatestYearlyObservation(
+                                                 FisherYearlyTimeSeries.HOURS_OUT)).sum();
+                                 return  sumNumerator/sumDenominator;
+                             },Double.NaN);
 
             final String price = species + " Average Sale Price";
+            final int earnings =
+                yearlySums.add(originalGatherer.getColumn(species + " " + AbstractMarket.EARNINGS_COLUMN_NAME));
+            final int landings =
+                yearlySums.add(originalGatherer.getColumn(species + " " + AbstractMarket.LANDINGS_COLUMN_NAME));
             registerGatherer(price,
-                             new Gatherer<FishState>() {
-                                 @Override
-                                 public Double apply(FishState fishState) {
-                                     final String earnings =  species + " " +AbstractMarket.EARNINGS_COLUMN_NAME;
-                                     final String landings = species + " " + AbstractMarket.LANDINGS_COLUMN_NAME;
-
-                                     DataColumn numerator = originalGatherer.getColumn(earnings);
-                                     DataColumn denominator = originalGatherer.getColumn(landings);
-                                     final Iterator<Double> numeratorIterator = numerator.descendingIterator();
-                                     final Iterator<Double>  denominatorIterator = denominator.descendingIterator();
-                                     if(!numeratorIterator.hasNext()) //not ready/year 1
-                                         return Double.NaN;
-                                     double sumNumerator = 0;
-                                     double sumDenominator = 0;
-                                     for(int i=0; i<365; i++) {
-                                         //it should be step 365 times at most, but it's possible that this agent was added halfway through
-                                         //and only has a partially filled collection
-                                         if(numeratorIterator.hasNext()) {
-                                             sumNumerator += numeratorIterator.next();
-                                             sumDenominator += denominatorIterator.next();
-                                         }
-                                     }
-                                     return  sumNumerator/sumDenominator;
-
-                                 }
-                             },Double.NaN, currency, "Price");
+                             ignored -> yearlySums.get(earnings) / yearlySums.get(landings),
+                             Double.NaN, currency, "Price");
 
 
 
@@ -786,13 +733,76 @@ public class FishStateYearlyTimeSeries extends TimeSeries<FishState>
 
     private void registerYearlySumGatherer(final String columnName) {
         final DataColumn column = originalGatherer.getColumn(columnName);
+        final int sum = yearlySums.add(column);
         registerGatherer(
             columnName,
-            FishStateUtilities.generateYearlySum(column),
+            ignored -> yearlySums.get(sum),
             0d,
             column.getUnit(),
             column.getYLabel()
         );
     }
 
+    @Override
+    public void step(SimState simState) {
+        super.step(simState);
+        yearlySums.clear();
+    }
+
+    /**
+     * Running sums of daily columns, updated every time the daily data is gathered and cleared once the yearly data
+     * is. Yearly gathering happens right after the 365th day so these are the same sums we would get going back
+     * through the last 365 daily observations.
+     */
+    private static class YearlySums implements Steppable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<DataColumn> columns = new ArrayList<>();
+
+        private double[] sums = new double[8];
+
+        /**
+         * days summed up since the last clear
+         */
+        private int days = 0;
+
+        /**
+         * starts summing up the column, if it isn't already
+         * @return the handle to read the sum with
+         */
+        int add(DataColumn column) {
+            Preconditions.checkArgument(column != null, "No daily column to sum up");
+            int sum = columns.indexOf(column);
+            if (sum < 0) {
+                sum = columns.size();
+                columns.add(column);
+                if (sum == sums.length)
+                    sums = Arrays.copyOf(sums, sum * 2);
+            }
+            return sum;
+        }
+
+        /**
+         * the sum since the last clear, or NaN if no day has been gathered since
+         */
+        double get(int sum) {
+            return days == 0 ? Double.NaN : sums[sum];
+        }
+
+        void clear() {
+            Arrays.fill(sums, 0d);
+            days = 0;
+        }
+
+        @Override
+        public void step(SimState simState) {
+            for (int i = 0; i < columns.size(); i++) {
+                final DataColumn column = columns.get(i);
+                sums[i] += column.getAsDouble(column.size() - 1);
+            }
+            days++;
+        }
+    }
+
 }
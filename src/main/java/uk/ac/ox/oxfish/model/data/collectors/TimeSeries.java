@@ -34,7 +34,6 @@ import javax.measure.Unit;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashMap;
-import java.util.Map;
 
 import static uk.ac.ox.oxfish.utility.Measures.*;
 import static uk.ac.ox.oxfish.utility.Measures.DOLLAR;
@@ -47,6 +46,17 @@ public class TimeSeries<T> implements Steppable
 {
     final private LinkedHashMap<String,ColumnGatherer<T>> data;
 
+    /**
+     * the same gatherers, in a list so that stepping doesn't go through the map; name lookups are only for
+     * whoever doesn't keep the {@link DataColumn} returned when registering
+     */
+    final private ArrayList<ColumnGatherer<T>> gatherers = new ArrayList<>();
+
+    /**
+     * stepped after every observation, once all columns have their new value
+     */
+    final private ArrayList<Steppable> observationListeners = new ArrayList<>();
+
 
     /**
      * if this is true, gather data every year. Otherwise gather data step every step
@@ -60,6 +70,11 @@ public class TimeSeries<T> implements Steppable
     // The currency to use to set the unit of money related columns.
     Unit<Money> currency = DOLLAR;
 
+    /**
+     * how many observations each column keeps
+     */
+    private ColumnRetention retention = ColumnRetention.UNBOUNDED;
+
     /**
      * Create a new data column
      *
@@ -88,10 +103,13 @@ public class TimeSeries<T> implements Steppable
         Preconditions.checkArgument(!data.containsKey(title), "Column already exists: " + title);
         int size =noGatherers() ? 0 : numberOfObservations();
         DataColumn column = new DataColumn(title, unit, yLabel);
+        column.setRetention(retention);
         //fill if needed
         for(int i=0; i<size; i++)
             column.add(defaultValue);
-        data.put(title, new ColumnGatherer<>(column,gatherer));
+        final ColumnGatherer<T> columnGatherer = new ColumnGatherer<>(column, gatherer);
+        data.put(title, columnGatherer);
+        gatherers.add(columnGatherer);
 
         assert consistencyCheck();
         return column;
@@ -100,7 +118,9 @@ public class TimeSeries<T> implements Steppable
 
     public DataColumn removeGatherer(String title)
     {
-        DataColumn removed = data.remove(title).getColumn();
+        final ColumnGatherer<T> removedGatherer = data.remove(title);
+        gatherers.remove(removedGatherer);
+        DataColumn removed = removedGatherer.getColumn();
         assert removed!=null;
 
         return removed;
@@ -138,12 +158,13 @@ public class TimeSeries<T> implements Steppable
     @Override
     public void step(SimState simState) {
 
-        for(Map.Entry<String,ColumnGatherer<T>> columns : data.entrySet())
-        {
-            Gatherer<T> gatherer = columns.getValue().getGatherer();
-            columns.getValue().getColumn().add(gatherer.apply(observed));
+        for (int i = 0; i < gatherers.size(); i++) {
+            final ColumnGatherer<T> columnGatherer = gatherers.get(i);
+            columnGatherer.getColumn().add(columnGatherer.getGatherer().apply(observed));
         }
         assert consistencyCheck();
+        for (int i = 0; i < observationListeners.size(); i++)
+            observationListeners.get(i).step(simState);
 
     }
 
@@ -194,6 +215,18 @@ public class TimeSeries<T> implements Steppable
     {
         return data.get(columnName).getColumn().getLatest();
     }
+    /**
+     * what the column would get if data were gathered right now, without adding it (so, for yearly sums, the sum
+     * so far this year); null if there is no such column. Only meaningful for gatherers that just read values
+     */
+    public Double peek(String columnName)
+    {
+        ColumnGatherer<T> current = data.get(columnName);
+        if(current==null || observed == null)
+            return null;
+        return current.getGatherer().apply(observed);
+    }
+
     /**
      * get a specific column
      */
@@ -228,10 +261,36 @@ public class TimeSeries<T> implements Steppable
             value.getColumn().clear();
         }
         data.clear();
+        gatherers.clear();
+        observationListeners.clear();
+    }
+
+    /**
+     * steps the listener every time this collects data, right after all the columns have been updated
+     */
+    public void addObservationListener(Steppable listener){
+        observationListeners.add(listener);
     }
 
     public Unit<Money> getCurrency() { return currency; }
 
+    public ColumnRetention getRetention() {
+        return retention;
+    }
+
+    /**
+     * sets how many observations all columns, current and future, keep. Code that only looks at the latest
+     * observations (or at the last year, for yearly aggregates) keeps working as long as enough are retained
+     * @param retention how to retain observations; null leaves things as they are
+     */
+    public void setRetention(@Nullable ColumnRetention retention) {
+        if(retention == null)
+            return;
+        this.retention = retention;
+        for (ColumnGatherer<T> gatherer : data.values())
+            gatherer.getColumn().setRetention(retention);
+    }
+
     public void setCurrency(final Unit<Money> currency) { this.currency = currency; }
 
 }
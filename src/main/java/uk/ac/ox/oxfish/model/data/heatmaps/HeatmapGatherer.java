@@ -33,11 +33,13 @@ import uk.ac.ox.oxfish.model.Startable;
 import uk.ac.ox.oxfish.model.StepOrder;
 import uk.ac.ox.oxfish.model.data.monitors.loggers.RowProvider;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
 import java.util.function.DoubleBinaryOperator;
 import java.util.function.Function;
 import java.util.function.ToDoubleFunction;
@@ -56,6 +58,10 @@ public class HeatmapGatherer implements AdditionalStartable, Steppable, RowProvi
     private final ToDoubleFunction<SeaTile> numericExtractor;
     private final DoubleBinaryOperator merger;
     private final Map<Integer, DoubleGrid2D> grids = new LinkedHashMap<>();
+    private final List<BiConsumer<Integer, DoubleGrid2D>> gridListeners = new ArrayList<>();
+    private boolean keepingGrids = true;
+    private int numGridsCompleted = 0;
+    private double maxValueSeen = NaN;
     private int numObservations = 0;
     private int intervalStartDay = 0;
     private DoubleGrid2D currentGrid;
@@ -91,10 +97,22 @@ public class HeatmapGatherer implements AdditionalStartable, Steppable, RowProvi
 
     int getNumObservations() { return numObservations; }
 
-    public double maxValueSeen() {
-        return grids.values().stream().mapToDouble(DoubleGrid2D::max).max().orElse(NaN);
+    public double maxValueSeen() { return maxValueSeen; }
+
+    /**
+     * The listener gets each grid (with the first day of its interval) as soon as it is complete.
+     * It must not keep or modify the grid.
+     */
+    public void addGridListener(final BiConsumer<Integer, DoubleGrid2D> gridListener) {
+        gridListeners.add(gridListener);
     }
 
+    /**
+     * When false, completed grids are only passed on to the listeners and not kept for {@link #getGrids()} and
+     * {@link #getRows()}, so that memory doesn't grow with the length of the run.
+     */
+    public void setKeepingGrids(final boolean keepingGrids) { this.keepingGrids = keepingGrids; }
+
     @Override public void step(final SimState simState) {
 
         final NauticalMap map = fishState.getMap();
@@ -113,11 +131,18 @@ public class HeatmapGatherer implements AdditionalStartable, Steppable, RowProvi
         // When we have all the observations we need, we store the current grid
         // and reset the number of observations in order to start anew on the next call
         if (numObservations == interval) {
-            grids.put(intervalStartDay, currentGrid);
+            completeGrid(intervalStartDay, currentGrid);
             numObservations = 0;
         }
     }
 
+    private void completeGrid(final int day, final DoubleGrid2D grid) {
+        final double gridMax = grid.max();
+        maxValueSeen = numGridsCompleted++ == 0 ? gridMax : Math.max(maxValueSeen, gridMax);
+        if (keepingGrids) grids.put(day, grid);
+        gridListeners.forEach(listener -> listener.accept(day, grid));
+    }
+
     private DoubleGrid2D extractValues(NauticalMap map) {
         DoubleGrid2D grid = new DoubleGrid2D(map.getWidth(), map.getHeight());
         for (int x = 0; x < grid.getWidth(); ++x) {
@@ -20,6 +20,7 @@
 package uk.ac.ox.oxfish.model.data.webviz;
 
 import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
 import uk.ac.ox.oxfish.model.AdditionalStartable;
 import uk.ac.ox.oxfish.model.FishState;
 import uk.ac.ox.oxfish.model.Startable;
@@ -29,6 +30,9 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.nio.file.Path;
 
 public final class JsonOutputPlugin<T> implements OutputPlugin, AdditionalStartable {
@@ -37,6 +41,7 @@ public final class JsonOutputPlugin<T> implements OutputPlugin, AdditionalStarta
     private final JsonBuilder<? extends T> builder;
     private final String fileName;
     private T outputObject;
+    private FishState endState;
 
     JsonOutputPlugin(final Gson gson, final JsonBuilder<? extends T> builder, final String fileName) {
         this.gson = gson;
@@ -63,23 +68,51 @@ public final class JsonOutputPlugin<T> implements OutputPlugin, AdditionalStarta
         reactToEndOfSimulation(fishState);
         final File outputFile = outputFolder.resolve(getFileName()).toFile();
         try (BufferedWriter writer = new BufferedWriter(new FileWriter(outputFile))) {
-            gson.toJson(outputObject, writer);
+            writeJson(writer);
         } catch (IOException e) {
             throw new IllegalStateException("Failed to write JSON output to " + outputFile, e);
         }
     }
 
+    /**
+     * Streaming builders write their output as they go through it; others build the whole object first.
+     */
+    private void writeJson(Writer writer) throws IOException {
+        if (builder instanceof StreamingJsonBuilder) {
+            final JsonWriter jsonWriter = gson.newJsonWriter(writer);
+            ((StreamingJsonBuilder<?>) builder).writeJson(jsonWriter, endState);
+            jsonWriter.flush();
+        } else {
+            gson.toJson(outputObject, writer);
+        }
+    }
+
     @Override public void reactToEndOfSimulation(final FishState fishState) {
-        outputObject = builder.buildJsonObject(fishState);
+        if (builder instanceof StreamingJsonBuilder)
+            endState = fishState;
+        else
+            outputObject = builder.buildJsonObject(fishState);
     }
 
     @Override public String getFileName() { return fileName; }
 
-    @Override public String composeFileContents() { return gson.toJson(outputObject); }
+    @Override public String composeFileContents() {
+        final StringWriter writer = new StringWriter();
+        try {
+            writeJson(writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return writer.toString();
+    }
 
     @Override public void start(final FishState fishState) {
         if (builder instanceof Startable) ((Startable) builder).start(fishState);
         fishState.getOutputPlugins().add(this);
     }
 
+    @Override public void turnOff() {
+        if (builder instanceof Startable) ((Startable) builder).turnOff();
+    }
+
 }
@@ -0,0 +1,19 @@
+package uk.ac.ox.oxfish.model.data.webviz;
+
+import com.google.gson.stream.JsonWriter;
+import uk.ac.ox.oxfish.model.FishState;
+
+import java.io.IOException;
+
+/**
+ * A JSON builder that can also write its output straight to a {@link JsonWriter}, for outputs too big to build as
+ * a single object at the end of the run. {@link JsonOutputPlugin} prefers this over {@link #buildJsonObject}.
+ */
+public interface StreamingJsonBuilder<T> extends JsonBuilder<T> {
+
+    /**
+     * writes the same JSON that serializing {@link #buildJsonObject} would produce
+     */
+    void writeJson(JsonWriter writer, FishState fishState) throws IOException;
+
+}
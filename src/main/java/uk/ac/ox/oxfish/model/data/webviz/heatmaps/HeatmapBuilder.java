@@ -19,20 +19,46 @@
 
 package uk.ac.ox.oxfish.model.data.webviz.heatmaps;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.ByteStreams;
+import com.google.gson.stream.JsonWriter;
 import sim.field.grid.DoubleGrid2D;
 import uk.ac.ox.oxfish.model.FishState;
 import uk.ac.ox.oxfish.model.data.heatmaps.HeatmapGatherer;
 import uk.ac.ox.oxfish.model.data.webviz.SteppableJsonBuilder;
+import uk.ac.ox.oxfish.model.data.webviz.StreamingJsonBuilder;
 
-import java.util.Collection;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.function.BiConsumer;
 
-import static com.google.common.collect.ImmutableList.toImmutableList;
-import static java.util.stream.IntStream.range;
 import static uk.ac.ox.oxfish.utility.FishStateUtilities.round;
 
-public final class HeatmapBuilder implements SteppableJsonBuilder<Heatmap> {
+/**
+ * Rather than keeping every grid until the end of the run, this writes each of them to a temporary binary file
+ * (the day, the number of cells and the rounded cell values, row by row) as soon as the gatherer completes it, and
+ * streams them back from there when writing the JSON output. Writing only reads the file, so it can be done any
+ * number of times during the run; the file is deleted when the builder is turned off. Serializing the builder copies
+ * the timesteps written so far into the stream, so that each restored copy carries on in a temporary file of its own.
+ */
+public final class HeatmapBuilder implements SteppableJsonBuilder<Heatmap>, StreamingJsonBuilder<Heatmap> {
 
     private final HeatmapGatherer heatmapGatherer;
+    private transient File timestepsFile;
+    private transient DataOutputStream timestepsOutput;
 
     HeatmapBuilder(final HeatmapGatherer heatmapGatherer) {
         this.heatmapGatherer = heatmapGatherer;
@@ -40,25 +66,142 @@ public final class HeatmapBuilder implements SteppableJsonBuilder<Heatmap> {
 
     @Override
     public Heatmap buildJsonObject(final FishState fishState) {
-        return new Heatmap(gridsToTimesteps());
+        final ImmutableList.Builder<Timestep> timesteps = ImmutableList.builder();
+        readTimesteps((day, cellValues) -> timesteps.add(new Timestep(day, cellValues)));
+        return new Heatmap(timesteps.build());
+    }
+
+    @Override
+    public void writeJson(final JsonWriter writer, final FishState fishState) throws IOException {
+        writer.beginObject().name("timesteps").beginArray();
+        try {
+            readTimesteps((day, cellValues) -> {
+                try {
+                    writer.beginObject().name("timeInDays").value(day).name("cellValues").beginArray();
+                    for (final double value : cellValues) writer.value(value);
+                    writer.endArray().endObject();
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (final UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.endArray().endObject();
+    }
+
+    /**
+     * the timesteps are gone once the builder is turned off: the temporary file is deleted
+     */
+    @Override
+    public void turnOff() {
+        try {
+            closeOutput();
+            if (timestepsFile != null) {
+                Files.deleteIfExists(timestepsFile.toPath());
+                timestepsFile = null;
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void closeOutput() throws IOException {
+        if (timestepsOutput != null) {
+            timestepsOutput.close();
+            timestepsOutput = null;
+        }
     }
 
-    private Collection<Timestep> gridsToTimesteps() {
-        return heatmapGatherer.getGrids().entrySet().stream().map(entry ->
-            new Timestep(entry.getKey(), gridToArray(entry.getValue()))
-        ).collect(toImmutableList());
+    private static File createTimestepsFile() throws IOException {
+        final File file = File.createTempFile("heatmap", ".bin");
+        file.deleteOnExit();
+        return file;
     }
 
-    private static double[] gridToArray(final DoubleGrid2D grid) {
-        return range(0, grid.getHeight()).boxed().flatMapToDouble(y ->
-            range(0, grid.getWidth()).mapToDouble(x ->
-                round(grid.get(x, y))
-            )
-        ).toArray();
+    private void writeTimestep(final int day, final DoubleGrid2D grid) {
+        try {
+            if (timestepsFile == null) timestepsFile = createTimestepsFile();
+            if (timestepsOutput == null) {
+                timestepsOutput = new DataOutputStream(new BufferedOutputStream(
+                    new FileOutputStream(timestepsFile, true)
+                ));
+            }
+            timestepsOutput.writeInt(day);
+            timestepsOutput.writeInt(grid.getWidth() * grid.getHeight());
+            for (int y = 0; y < grid.getHeight(); y++)
+                for (int x = 0; x < grid.getWidth(); x++)
+                    timestepsOutput.writeDouble(round(grid.get(x, y)));
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Goes through the timesteps written so far, from the start of the file, reusing the same array of values for
+     * all of them. The output is only flushed, so timesteps keep being appended afterwards.
+     */
+    private void readTimesteps(final TimestepConsumer consumer) {
+        if (timestepsFile == null)
+            return;
+        try {
+            if (timestepsOutput != null) timestepsOutput.flush();
+            try (DataInputStream input =
+                     new DataInputStream(new BufferedInputStream(new FileInputStream(timestepsFile)))) {
+                double[] cellValues = new double[0];
+                while (true) {
+                    final int day;
+                    try {
+                        day = input.readInt();
+                    } catch (final EOFException e) {
+                        break;
+                    }
+                    final int numCells = input.readInt();
+                    if (cellValues.length != numCells) cellValues = new double[numCells];
+                    for (int i = 0; i < numCells; i++) cellValues[i] = input.readDouble();
+                    consumer.accept(day, cellValues);
+                }
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * the timesteps follow the fields as their length in bytes (-1 if there is no file yet) and their content
+     */
+    private void writeObject(final ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        if (timestepsOutput != null) timestepsOutput.flush();
+        if (timestepsFile == null) {
+            out.writeLong(-1);
+        } else {
+            out.writeLong(timestepsFile.length());
+            Files.copy(timestepsFile.toPath(), out);
+        }
+    }
+
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        final long length = in.readLong();
+        if (length >= 0) {
+            timestepsFile = createTimestepsFile();
+            try (OutputStream output = new BufferedOutputStream(new FileOutputStream(timestepsFile))) {
+                ByteStreams.copy(ByteStreams.limit(in, length), output);
+            }
+        }
     }
 
     @Override public void start(final FishState fishState) {
+        heatmapGatherer.setKeepingGrids(false);
+        // serializable, so that a restored gatherer feeds the restored builder
+        heatmapGatherer.addGridListener((BiConsumer<Integer, DoubleGrid2D> & Serializable) this::writeTimestep);
         heatmapGatherer.start(fishState);
     }
 
+    @FunctionalInterface
+    private interface TimestepConsumer {
+        void accept(int day, double[] cellValues);
+    }
+
 }
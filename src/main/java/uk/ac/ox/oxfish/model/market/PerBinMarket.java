@@ -24,6 +24,13 @@ public class PerBinMarket extends AbstractMarket {
 
     public static final String AGE_BIN_PREFIX = " - age bin ";
 
+    /**
+     * counter handles of the landings and earnings columns of each bin
+     */
+    private int[] landingsColumns;
+
+    private int[] earningsColumns;
+
 
 
     public PerBinMarket(double[] pricePerBin) {
@@ -60,9 +67,9 @@ public class PerBinMarket extends AbstractMarket {
             double soldThisBin =  hold.getWeightOfBin(species,age);
             //reweight because you might be not allowed to sell more than x
             soldThisBin *= proportionActuallySellable;
-            getDailyCounter().count(LANDINGS_COLUMN_NAME + " - age bin " + age,soldThisBin);
+            getDailyCounter().count(landingsColumns[age],soldThisBin);
             earnings+= soldThisBin *priceForThisBin;
-            getDailyCounter().count(EARNINGS_COLUMN_NAME + " - age bin " + age,soldThisBin *priceForThisBin);
+            getDailyCounter().count(earningsColumns[age],soldThisBin *priceForThisBin);
 
             sold+= soldThisBin;
         }
@@ -85,26 +92,28 @@ public class PerBinMarket extends AbstractMarket {
     public void start(FishState state) {
         super.start(state);
 
+        landingsColumns = new int[getSpecies().getNumberOfBins()];
+        earningsColumns = new int[getSpecies().getNumberOfBins()];
         for(int age =0; age<getSpecies().getNumberOfBins();age++) {
             String columnName = LANDINGS_COLUMN_NAME + AGE_BIN_PREFIX + age;
-            getDailyCounter().addColumn(columnName);
-            String finalColumnName1 = columnName;
+            final int landingsColumn = getDailyCounter().addColumn(columnName);
+            landingsColumns[age] = landingsColumn;
             getData().registerGatherer(columnName, new Gatherer<Market>() {
                         @Override
                         public Double apply(Market market) {
-                            return getDailyCounter().getColumn(finalColumnName1);
+                            return getDailyCounter().getColumn(landingsColumn);
                         }
                     },
                     0);
 
 
-            columnName = EARNINGS_COLUMN_NAME + " - age bin " + age;
-            getDailyCounter().addColumn(columnName);
-            String finalColumnName = columnName;
+            columnName = EARNINGS_COLUMN_NAME + AGE_BIN_PREFIX + age;
+            final int earningsColumn = getDailyCounter().addColumn(columnName);
+            earningsColumns[age] = earningsColumn;
             getData().registerGatherer(columnName, new Gatherer<Market>() {
                         @Override
                         public Double apply(Market market) {
-                            return getDailyCounter().getColumn(finalColumnName);
+                            return getDailyCounter().getColumn(earningsColumn);
                         }
                     },
                     0);
@@ -114,7 +114,7 @@ import static uk.ac.ox.oxfish.model.regs.MultipleRegulations.TAG_FOR_ALL;
 import static uk.ac.ox.oxfish.utility.MasonUtils.oneOf;
 import static uk.ac.ox.oxfish.utility.Measures.DOLLAR;
 import static uk.ac.ox.oxfish.utility.Measures.asDouble;
-import static uk.ac.ox.oxfish.utility.csv.CsvParserUtil.parseAllRecords;
+import static uk.ac.ox.oxfish.utility.csv.CsvParserUtil.getSharedRecords;
 
 @SuppressWarnings("UnstableApiUsage")
 public class TunaScenario implements Scenario {
@@ -462,7 +462,7 @@ public class TunaScenario implements Scenario {
             "Profits"
         );
 
-        final Map<String, Fisher> fishersByBoatId = parseAllRecords(boatsFile).stream()
+        final Map<String, Fisher> fishersByBoatId = getSharedRecords(boatsFile).stream()
             .filter(record -> record.getInt("year") == TARGET_YEAR)
             .collect(toMap(
                 record -> record.getString("boat_id"),
@@ -525,7 +525,7 @@ public class TunaScenario implements Scenario {
 
     private Consumer<Fisher> addHourlyCosts() {
         final RangeMap<ComparableQuantity<Mass>, HourlyCost> hourlyCostsPerCarryingCapacity =
-            parseAllRecords(costsFile).stream().collect(toImmutableRangeMap(
+            getSharedRecords(costsFile).stream().collect(toImmutableRangeMap(
                 r -> Range.openClosed(
                     getQuantity(r.getInt("lower_capacity"), TONNE),
                     getQuantity(r.getInt("upper_capacity"), TONNE)
@@ -23,6 +23,7 @@ import com.esotericsoftware.minlog.Log;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableMap;
 import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.io.binary.BinaryStreamDriver;
 import com.thoughtworks.xstream.io.xml.StaxDriver;
 import ec.util.MersenneTwisterFast;
 import org.jetbrains.annotations.Nullable;
@@ -49,12 +50,19 @@ import uk.ac.ox.oxfish.model.scenario.Scenario;
 import uk.ac.ox.oxfish.utility.adaptation.Sensor;
 import uk.ac.ox.oxfish.utility.yaml.FishYAML;
 import uk.ac.ox.oxfish.utility.yaml.ModelResults;
+import uk.ac.ox.oxfish.utility.yaml.ScenarioCache;
 
 import java.awt.geom.Point2D;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Serializable;
 import java.lang.reflect.Array;
 import java.net.InetAddress;
@@ -83,6 +91,8 @@ import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static com.google.common.collect.Streams.stream;
@@ -835,14 +845,22 @@ public class FishStateUtilities {
     }
 
 
+    /**
+     * reads back a model saved by either {@link #writeModelToFile(File, FishState)} or
+     * {@link #writeCheckpoint(File, FishState, boolean)}; the format (and compression) is recognised from the
+     * first bytes of the file, which is streamed rather than read into memory
+     */
     public static FishState readModelFromFile(File file)
     {
         Log.info("Reading from File");
-        XStream xstream = new XStream(new StaxDriver());
-        String xml = null;
-        try {
-            xml = new String(Files.readAllBytes(file.toPath()));
-            return  (FishState) xstream.fromXML(xml);
+        try (InputStream input = openCheckpoint(file)) {
+            input.mark(1);
+            final boolean xml = input.read() == '<';
+            input.reset();
+            if(xml)
+                return (FishState) new XStream(new StaxDriver()).fromXML(input);
+            else
+                return readCheckpoint(input);
         } catch (IOException e) {
             e.printStackTrace();
             Log.error("Failed to read file " + file);
@@ -850,15 +868,66 @@ public class FishStateUtilities {
         }
     }
 
+    /**
+     * a buffered stream over the file, unzipped if it was gzipped
+     */
+    private static InputStream openCheckpoint(File file) throws IOException {
+        final InputStream input = new BufferedInputStream(new FileInputStream(file), CHECKPOINT_BUFFER);
+        input.mark(2);
+        final int first = input.read();
+        final int second = input.read();
+        input.reset();
+        if (first == (GZIPInputStream.GZIP_MAGIC & 0xff) && second == (GZIPInputStream.GZIP_MAGIC >> 8))
+            return new BufferedInputStream(new GZIPInputStream(input, CHECKPOINT_BUFFER), CHECKPOINT_BUFFER);
+        return input;
+    }
+
+    private static final int CHECKPOINT_BUFFER = 1 << 16;
 
+    /**
+     * saves the model as (human readable) XML
+     */
     public static void writeModelToFile(File file, FishState state)
     {
-        XStream xstream = new XStream(new StaxDriver());
-        Log.info("Writing to file!");
-        String xml = xstream.toXML(state);
+        writeModel(file, state, new XStream(new StaxDriver()), false);
+    }
 
-        try {
-            Files.write(file.toPath(),xml.getBytes());
+    /**
+     * saves the model in XStream's binary format, optionally gzipped: the same object graph as
+     * {@link #writeModelToFile(File, FishState)} (schedule, random number generator, biology, fishers, data and so
+     * on) but much smaller and faster to write and read back. Either way the model is streamed to disk rather than
+     * built in memory first. Read it back with {@link #readModelFromFile(File)}
+     */
+    public static void writeCheckpoint(File file, FishState state, boolean compress)
+    {
+        writeModel(file, state, new XStream(new BinaryStreamDriver()), compress);
+    }
+
+    /**
+     * writes the model in the binary format of {@link #writeCheckpoint(File, FishState, boolean)} to any stream,
+     * which is left open
+     */
+    public static void writeCheckpoint(OutputStream output, FishState state)
+    {
+        new XStream(new BinaryStreamDriver()).toXML(state, output);
+    }
+
+    /**
+     * reads back a model written by {@link #writeCheckpoint(OutputStream, FishState)}
+     */
+    public static FishState readCheckpoint(InputStream input)
+    {
+        return (FishState) new XStream(new BinaryStreamDriver()).fromXML(input);
+    }
+
+    private static void writeModel(File file, FishState state, XStream xstream, boolean compress)
+    {
+        Log.info("Writing to file!");
+        try (OutputStream output = compress ?
+            new BufferedOutputStream(
+                new GZIPOutputStream(new FileOutputStream(file), CHECKPOINT_BUFFER), CHECKPOINT_BUFFER) :
+            new BufferedOutputStream(new FileOutputStream(file), CHECKPOINT_BUFFER)) {
+            xstream.toXML(state, output);
             Log.info("State saved at " + file);
         } catch (IOException e) {
             e.printStackTrace();
@@ -1008,10 +1077,8 @@ public class FishStateUtilities {
 
         System.out.println("seed " + seed);
         //create scenario and files
-        String fullScenario = String.join("\n", Files.readAllLines(scenarioYaml));
-
         FishYAML yaml = new FishYAML();
-        Scenario scenario = yaml.loadAs(fullScenario, Scenario.class);
+        Scenario scenario = ScenarioCache.getShared().load(scenarioYaml, Scenario.class);
 
 
 
@@ -1126,9 +1193,9 @@ public class FishStateUtilities {
             }
             writeAdditionalOutputsToFolder(outputFolder, model);
             if(saveOnExit)
-                writeModelToFile(
+                writeCheckpoint(
                         outputFolder.resolve(simulationName+".checkpoint").toFile(),
-                        model);
+                        model, true);
         }
 
 
@@ -0,0 +1,94 @@
+package uk.ac.ox.oxfish.utility;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Process-wide registry of whatever is read from input files and never modified afterwards (currents, depth
+ * samples, parsed csv records and so on), so that models running at the same time share one copy instead of
+ * reading their own.
+ * <p>
+ * Entries are keyed by what the caller reads plus the path, modification time and length of every file it reads
+ * from: change a file and it is read again. Values are softly referenced, so they go away when memory runs short
+ * and are simply read again when next needed. Whatever is stored here must therefore be treated as read-only by
+ * everybody.
+ */
+public enum InputRegistry {
+
+    INSTANCE;
+
+    private final Cache<Object, Object> cache = CacheBuilder.newBuilder().softValues().build();
+
+    /**
+     * the value read by {@code reader} from {@code file}, reading it only if no model has already
+     * @param key what is being read (different things can be read from the same file)
+     */
+    public <T> T get(final Object key, final Path file, final Supplier<? extends T> reader) {
+        return get(key, ImmutableList.of(file), reader);
+    }
+
+    /**
+     * the value read by {@code reader} from {@code files}, reading them only if no model has already
+     * @param key what is being read (different things can be read from the same files)
+     */
+    public <T> T get(final Object key, final Collection<Path> files, final Supplier<? extends T> reader) {
+        final ImmutableList.Builder<Object> fullKey = ImmutableList.builder().add(key);
+        for (final Path path : files)
+            fullKey.add(new FileVersion(path));
+        try {
+            @SuppressWarnings("unchecked") final T value = (T) cache.get(fullKey.build(), reader::get);
+            return value;
+        } catch (final ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    private static class FileVersion {
+
+        private final String path;
+
+        private final long lastModified;
+
+        private final long length;
+
+        private FileVersion(final Path path) {
+            final File file = path.toAbsolutePath().normalize().toFile();
+            this.path = file.getPath();
+            this.lastModified = file.lastModified();
+            this.length = file.length();
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (!(o instanceof FileVersion)) return false;
+            final FileVersion that = (FileVersion) o;
+            return lastModified == that.lastModified && length == that.length && path.equals(that.path);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, lastModified, length);
+        }
+    }
+
+}
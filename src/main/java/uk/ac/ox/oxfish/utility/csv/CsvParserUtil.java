@@ -1,9 +1,11 @@
 package uk.ac.ox.oxfish.utility.csv;
 
+import com.google.common.collect.ImmutableList;
 import com.univocity.parsers.common.AbstractParser;
 import com.univocity.parsers.common.record.Record;
 import com.univocity.parsers.csv.CsvParser;
 import com.univocity.parsers.csv.CsvParserSettings;
+import uk.ac.ox.oxfish.utility.InputRegistry;
 
 import java.io.FileReader;
 import java.io.IOException;
@@ -35,6 +37,16 @@ public class CsvParserUtil {
         return parse(inputFilePath, AbstractParser::parseAllRecords);
     }
 
+    /**
+     * the same records as {@link #parseAllRecords(Path)}, but read only once for all the models running in this
+     * process (see {@link InputRegistry}); the list can't be modified
+     */
+    public static List<Record> getSharedRecords(Path inputFilePath) {
+        return InputRegistry.INSTANCE.get(
+            Record.class, inputFilePath, () -> ImmutableList.copyOf(parseAllRecords(inputFilePath))
+        );
+    }
+
     private static <T> T parse(Path inputFilePath, BiFunction<CsvParser, Reader, T> parseFunction) {
         final CsvParser csvParser = getCsvParser();
         T result = parseFunction.apply(csvParser, getReader(inputFilePath));
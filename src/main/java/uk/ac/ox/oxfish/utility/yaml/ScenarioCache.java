@@ -0,0 +1,131 @@
+package uk.ac.ox.oxfish.utility.yaml;
+
+import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.io.binary.BinaryStreamDriver;
+import uk.ac.ox.oxfish.model.scenario.Scenario;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parses each scenario file once and hands out independent copies of it, so that batch runs don't read and parse
+ * the same YAML over and over. Each file is kept in a compact binary form (through XStream, so scenarios don't need
+ * to be Serializable) straight after parsing and every copy is read back from it: the parsed scenario itself is
+ * never handed out, so no copy ever sees another's changes.
+ * <p>
+ * A file is parsed again if it changes on disk. Thread-safe.
+ */
+public class ScenarioCache {
+
+    private static final ScenarioCache SHARED = new ScenarioCache();
+
+    private final Map<Key, Template> templates = new ConcurrentHashMap<>();
+
+    /**
+     * thread-safe once configured
+     */
+    private final XStream xstream = new XStream(new BinaryStreamDriver());
+
+    /**
+     * the cache shared by all batch runners
+     */
+    public static ScenarioCache getShared() {
+        return SHARED;
+    }
+
+    /**
+     * a new copy of the scenario in the file, parsing it only if it hasn't been already (or has changed since)
+     */
+    public <S extends Scenario> S load(Path scenarioFile, Class<S> scenarioClass) throws IOException {
+        final File file = scenarioFile.toAbsolutePath().normalize().toFile();
+        final Key key = new Key(file, scenarioClass);
+        final Template template;
+        try {
+            template = templates.compute(key, (k, old) -> {
+                if (old != null && old.isUpToDate(file))
+                    return old;
+                try {
+                    return parse(file, scenarioClass);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return scenarioClass.cast(xstream.fromXML(new ByteArrayInputStream(template.serialized)));
+    }
+
+    public void clear() {
+        templates.clear();
+    }
+
+    public int size() {
+        return templates.size();
+    }
+
+    private Template parse(File file, Class<? extends Scenario> scenarioClass) throws IOException {
+        //attributes are read before parsing so that a change while parsing is noticed next time
+        final long lastModified = file.lastModified();
+        final long length = file.length();
+        final Scenario scenario;
+        try (Reader reader = new FileReader(file)) {
+            scenario = new FishYAML().loadAs(reader, scenarioClass);
+        }
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        xstream.toXML(scenario, output);
+        return new Template(output.toByteArray(), lastModified, length);
+    }
+
+    private static class Key {
+
+        private final File file;
+
+        private final Class<?> scenarioClass;
+
+        private Key(File file, Class<?> scenarioClass) {
+            this.file = file;
+            this.scenarioClass = scenarioClass;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return file.equals(key.file) && scenarioClass.equals(key.scenarioClass);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * file.hashCode() + scenarioClass.hashCode();
+        }
+    }
+
+    private static class Template {
+
+        private final byte[] serialized;
+
+        private final long lastModified;
+
+        private final long length;
+
+        private Template(byte[] serialized, long lastModified, long length) {
+            this.serialized = serialized;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+
+        private boolean isUpToDate(File file) {
+            return file.lastModified() == lastModified && file.length() == length;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package uk.ac.ox.oxfish.biology.complicated;
+
+import com.esotericsoftware.minlog.Log;
+import ec.util.MersenneTwisterFast;
+import org.junit.Ignore;
+import org.junit.Test;
+import uk.ac.ox.oxfish.biology.GlobalBiology;
+import uk.ac.ox.oxfish.biology.Species;
+import uk.ac.ox.oxfish.geography.NauticalMap;
+import uk.ac.ox.oxfish.geography.SeaTile;
+import uk.ac.ox.oxfish.model.FishState;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static uk.ac.ox.oxfish.biology.complicated.StencilAbundanceDiffuserTest.randomBiologies;
+import static uk.ac.ox.oxfish.geography.TestUtilities.makeMap;
+
+/**
+ * Logs how long a day of the shuffling diffusers and of the stencil takes on a larger map. Timings depend on the
+ * machine, so this is ignored in the unit suite and meant to be run by hand.
+ */
+@Ignore("benchmark, run by hand")
+public class AbundanceDiffuserBenchmark {
+
+    @Test
+    public void constantRate() {
+        compare(
+            "constant rate",
+            weights -> new ConstantRateAbundanceDiffuser(1, .01),
+            weights -> new StencilAbundanceDiffuser(1, .01, true)
+        );
+    }
+
+    @Test
+    public void weighted() {
+        compare(
+            "weighted",
+            weights -> new WeightedAbundanceDiffuser(1, .01, new HashMap<>(weights)),
+            weights -> new StencilAbundanceDiffuser(1, .01, true, weights)
+        );
+    }
+
+    private static void compare(
+        String name,
+        Function<Map<AbundanceLocalBiology, Double>, AbundanceDiffuser> shuffling,
+        Function<Map<AbundanceLocalBiology, Double>, AbundanceDiffuser> stencil) {
+        Species species = new Species("only", new FromListMeristics(new double[5], 2));
+        GlobalBiology biology = new GlobalBiology(species);
+        Log.info(String.format("%s: %.2f ms/day, stencil: %.2f ms/day",
+                               name,
+                               millisecondsPerDay(shuffling, species, biology),
+                               millisecondsPerDay(stencil, species, biology)));
+    }
+
+    private static double millisecondsPerDay(
+        Function<Map<AbundanceLocalBiology, Double>, AbundanceDiffuser> factory,
+        Species species, GlobalBiology biology) {
+        NauticalMap map = makeMap(120, 100);
+        Map<AbundanceLocalBiology, Double> weights = new HashMap<>();
+        Map<SeaTile, AbundanceLocalBiology> biologies = randomBiologies(species, biology, map, weights);
+        FishState state = mock(FishState.class);
+        when(state.getMap()).thenReturn(map);
+        when(state.getRandom()).thenReturn(new MersenneTwisterFast(0));
+        AbundanceDiffuser diffuser = factory.apply(weights);
+        //one day to warm up and fill caches
+        diffuser.step(species, biologies, state);
+        final int days = 10;
+        long start = System.nanoTime();
+        for (int day = 0; day < days; day++)
+            diffuser.step(species, biologies, state);
+        return (System.nanoTime() - start) / 1e6 / days;
+    }
+
+}
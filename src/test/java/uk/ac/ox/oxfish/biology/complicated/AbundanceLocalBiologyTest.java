@@ -94,4 +94,35 @@ public class AbundanceLocalBiologyTest
 
     }
 
-}
\ No newline at end of file
+    @Test
+    public void biomassIsOnlyRecomputedForTheSpeciesThatMightHaveChanged() throws Exception {
+
+        Species first = new Species("First", longspineTestInput);
+        Species second = new Species("Second", longspineTestInput);
+        GlobalBiology biology = new GlobalBiology(first, second);
+        AbundanceLocalBiology local = new AbundanceLocalBiology(biology);
+
+        double[][] firstMatrix = local.getAbundance(first).asMatrix();
+        double[][] secondMatrix = local.getAbundance(second).asMatrix();
+        firstMatrix[FishStateUtilities.MALE][5] = 100;
+        secondMatrix[FishStateUtilities.MALE][5] = 100;
+        assertEquals(100 * 0.019880139, local.getBiomass(first), .001);
+        assertEquals(100 * 0.019880139, local.getBiomass(second), .001);
+
+        //reading doesn't reset anything: the stale cached value is still there
+        firstMatrix[FishStateUtilities.MALE][5] = 200;
+        assertEquals(200, local.getAbundanceView(first).asMatrix()[FishStateUtilities.MALE][5], .001);
+        assertEquals(100 * 0.019880139, local.getBiomass(first), .001);
+        local.markAbundanceChanged(first);
+        assertEquals(200 * 0.019880139, local.getBiomass(first), .001);
+
+        //asking for the abundance of one species resets that species only
+        secondMatrix[FishStateUtilities.MALE][5] = 300;
+        local.getAbundance(first);
+        assertEquals(100 * 0.019880139, local.getBiomass(second), .001);
+        local.getAbundance(second);
+        assertEquals(300 * 0.019880139, local.getBiomass(second), .001);
+
+    }
+
+}
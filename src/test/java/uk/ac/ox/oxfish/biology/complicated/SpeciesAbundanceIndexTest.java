@@ -0,0 +1,42 @@
+package uk.ac.ox.oxfish.biology.complicated;
+
+import org.junit.Test;
+import uk.ac.ox.oxfish.biology.GlobalBiology;
+import uk.ac.ox.oxfish.biology.Species;
+import uk.ac.ox.oxfish.geography.SeaTile;
+import uk.ac.ox.oxfish.utility.FishStateUtilities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+
+public class SpeciesAbundanceIndexTest {
+
+    @Test
+    public void sharesTablesWithTheBiologies() {
+        Species longspine = new Species("Longspine", AbundanceLocalBiologyTest.longspineTestInput);
+        GlobalBiology biology = new GlobalBiology(longspine);
+        AbundanceLocalBiology first = new AbundanceLocalBiology(biology);
+        AbundanceLocalBiology second = new AbundanceLocalBiology(biology);
+        SeaTile firstTile = mock(SeaTile.class);
+
+        SpeciesAbundanceIndex index = new SpeciesAbundanceIndex(longspine);
+        index.add(firstTile, first);
+        index.add(mock(SeaTile.class), second);
+        assertEquals(2, index.size());
+        assertSame(firstTile, index.getTile(0));
+        assertSame(second, index.getBiology(1));
+
+        //changes made through the biology show up in the index
+        first.getAbundance(longspine).asMatrix()[FishStateUtilities.MALE][5] = 100;
+        second.getAbundance(longspine).asMatrix()[FishStateUtilities.MALE][5] = 50;
+        second.getAbundance(longspine).asMatrix()[FishStateUtilities.FEMALE][3] = 10;
+        assertSame(first.getAbundance(longspine).asMatrix(), index.getAbundance(0));
+
+        double[][] total = index.sum();
+        assertEquals(150, total[FishStateUtilities.MALE][5], .0001);
+        assertEquals(10, total[FishStateUtilities.FEMALE][3], .0001);
+        assertEquals(0, total[FishStateUtilities.FEMALE][5], .0001);
+    }
+
+}
@@ -0,0 +1,242 @@
+package uk.ac.ox.oxfish.biology.complicated;
+
+import ec.util.MersenneTwisterFast;
+import org.junit.Test;
+import uk.ac.ox.oxfish.biology.GlobalBiology;
+import uk.ac.ox.oxfish.biology.Species;
+import uk.ac.ox.oxfish.geography.NauticalMap;
+import uk.ac.ox.oxfish.geography.SeaTile;
+import uk.ac.ox.oxfish.model.FishState;
+import uk.ac.ox.oxfish.utility.FishStateUtilities;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static uk.ac.ox.oxfish.geography.TestUtilities.makeMap;
+
+public class StencilAbundanceDiffuserTest {
+
+    @Test
+    public void movesCorrectly() throws Exception {
+
+        Meristics meristics = new FromListMeristics(
+                new double[]{10d,20d,30d}, 2);
+        Species species = new Species("only",meristics);
+        GlobalBiology biology = new GlobalBiology(species);
+        NauticalMap map = makeMap(1, 2);
+
+        //we will move from full to empty at 50%, same as the constant rate diffuser
+        SeaTile full = map.getSeaTile(0, 0);
+        AbundanceLocalBiology fullBio = new AbundanceLocalBiology(biology);
+        fullBio.getAbundance(species).asMatrix()[FishStateUtilities.MALE][0]=1000;
+        fullBio.getAbundance(species).asMatrix()[FishStateUtilities.MALE][1]=500;
+        fullBio.getAbundance(species).asMatrix()[FishStateUtilities.FEMALE][2]=10;
+        SeaTile empty = map.getSeaTile(0, 1);
+        AbundanceLocalBiology emptyBio = new AbundanceLocalBiology(biology);
+
+        Map<SeaTile,AbundanceLocalBiology> tiles = new LinkedHashMap<>();
+        tiles.put(full,fullBio);
+        tiles.put(empty,emptyBio);
+        double biomass = fullBio.getBiomass(species);
+
+        FishState state = mock(FishState.class);
+        when(state.getMap()).thenReturn(map);
+        when(state.getRandom()).thenReturn(new MersenneTwisterFast());
+        new StencilAbundanceDiffuser(1, .5, false).step(species, tiles, state);
+
+        assertArrayEquals(fullBio.getAbundance(species).asMatrix()[FishStateUtilities.MALE],new double[]{500,250,0},.001d);
+        assertArrayEquals(fullBio.getAbundance(species).asMatrix()[FishStateUtilities.FEMALE],new double[]{0,0,5},.001d);
+        assertArrayEquals(emptyBio.getAbundance(species).asMatrix()[FishStateUtilities.MALE],new double[]{500,250,0},.001d);
+        assertArrayEquals(emptyBio.getAbundance(species).asMatrix()[FishStateUtilities.FEMALE],new double[]{0,0,5},.001d);
+        //the cached biomass has been reset
+        assertEquals(biomass / 2, fullBio.getBiomass(species), .001);
+    }
+
+    @Test
+    public void sameResultWhateverTheOrderAndNoFishLost() throws Exception {
+
+        Meristics meristics = new FromListMeristics(
+                new double[]{10d,20d,30d}, 2);
+        Species species = new Species("only",meristics);
+        GlobalBiology biology = new GlobalBiology(species);
+        NauticalMap map = makeMap(6, 5);
+        MersenneTwisterFast random = new MersenneTwisterFast(0);
+
+        List<SeaTile> seaTiles = new ArrayList<>(map.getAllSeaTilesAsList());
+        Map<SeaTile,AbundanceLocalBiology> ordered = new LinkedHashMap<>();
+        Map<SeaTile,AbundanceLocalBiology> shuffled = new LinkedHashMap<>();
+        for (SeaTile tile : seaTiles) {
+            AbundanceLocalBiology bio = new AbundanceLocalBiology(biology);
+            for (double[] row : bio.getAbundance(species).asMatrix())
+                for (int bin = 0; bin < row.length; bin++)
+                    row[bin] = random.nextDouble() * 1000;
+            ordered.put(tile, bio);
+        }
+        Collections.shuffle(seaTiles, new Random(0));
+        for (SeaTile tile : seaTiles) {
+            AbundanceLocalBiology copy = new AbundanceLocalBiology(biology);
+            double[][] original = ordered.get(tile).getAbundance(species).asMatrix();
+            for (int subdivision = 0; subdivision < original.length; subdivision++)
+                System.arraycopy(original[subdivision], 0, copy.getAbundance(species).asMatrix()[subdivision], 0,
+                                 original[subdivision].length);
+            shuffled.put(tile, copy);
+        }
+        double totalBefore = 0;
+        for (AbundanceLocalBiology bio : ordered.values())
+            totalBefore += bio.getAbundance(species).getAbundanceInBin(1);
+
+        FishState state = mock(FishState.class);
+        when(state.getMap()).thenReturn(map);
+        when(state.getRandom()).thenReturn(new MersenneTwisterFast());
+        //a rate this high would take more fish out of some tiles than they have, if outflows weren't scaled down
+        new StencilAbundanceDiffuser(2, 1, false).step(species, ordered, state);
+        new StencilAbundanceDiffuser(2, 1, false).step(species, shuffled, state);
+
+        double totalAfter = 0;
+        for (SeaTile tile : ordered.keySet()) {
+            double[][] first = ordered.get(tile).getAbundance(species).asMatrix();
+            double[][] second = shuffled.get(tile).getAbundance(species).asMatrix();
+            for (int subdivision = 0; subdivision < first.length; subdivision++) {
+                assertArrayEquals(first[subdivision], second[subdivision], .0001);
+                for (double fish : first[subdivision])
+                    assertTrue(fish >= 0);
+            }
+            totalAfter += ordered.get(tile).getAbundance(species).getAbundanceInBin(1);
+        }
+        assertEquals(totalBefore, totalAfter, .0001);
+    }
+
+    @Test
+    public void picksUpBiologiesSwappedInTheSameMap() throws Exception {
+
+        Species species = new Species("only", new FromListMeristics(new double[]{10d}, 1));
+        GlobalBiology biology = new GlobalBiology(species);
+        NauticalMap map = makeMap(1, 2);
+
+        Map<SeaTile,AbundanceLocalBiology> tiles = new LinkedHashMap<>();
+        AbundanceLocalBiology full = new AbundanceLocalBiology(biology);
+        full.getAbundance(species).asMatrix()[0][0] = 1000;
+        tiles.put(map.getSeaTile(0, 0), full);
+        tiles.put(map.getSeaTile(0, 1), new AbundanceLocalBiology(biology));
+
+        FishState state = mock(FishState.class);
+        when(state.getMap()).thenReturn(map);
+        when(state.getRandom()).thenReturn(new MersenneTwisterFast());
+        StencilAbundanceDiffuser diffuser = new StencilAbundanceDiffuser(1, .5, false);
+        diffuser.step(species, tiles, state);
+        assertEquals(500, full.getAbundance(species).asMatrix()[0][0], .001);
+
+        //same map object, same size, new biology on the second tile
+        AbundanceLocalBiology replacement = new AbundanceLocalBiology(biology);
+        tiles.put(map.getSeaTile(0, 1), replacement);
+        diffuser.step(species, tiles, state);
+        assertEquals(250, full.getAbundance(species).asMatrix()[0][0], .001);
+        assertEquals(250, replacement.getAbundance(species).asMatrix()[0][0], .001);
+    }
+
+    @Test
+    public void movesLikeTheConstantRateDiffuserOnAverage() throws Exception {
+        compareWithShufflingDiffuser(
+            "constant rate",
+            weights -> new ConstantRateAbundanceDiffuser(1, .01),
+            weights -> new StencilAbundanceDiffuser(1, .01, true)
+        );
+    }
+
+    @Test
+    public void movesLikeTheWeightedDiffuserOnAverage() throws Exception {
+        compareWithShufflingDiffuser(
+            "weighted",
+            weights -> new WeightedAbundanceDiffuser(1, .01, new HashMap<>(weights)),
+            weights -> new StencilAbundanceDiffuser(1, .01, true, weights)
+        );
+    }
+
+    /**
+     * steps both diffusers once on copies of the same random abundance, checks that the stencil moves about the same
+     * fish (the shuffling diffuser moves fish one pair at a time, so the two only agree up to second order in the
+     * rate and rounding). How long a day of each takes is measured by {@link AbundanceDiffuserBenchmark}
+     */
+    private static void compareWithShufflingDiffuser(
+        String name,
+        Function<Map<AbundanceLocalBiology, Double>, AbundanceDiffuser> shuffling,
+        Function<Map<AbundanceLocalBiology, Double>, AbundanceDiffuser> stencil) {
+
+        Species species = new Species("only", new FromListMeristics(new double[5], 2));
+        GlobalBiology biology = new GlobalBiology(species);
+        NauticalMap map = makeMap(40, 30);
+        Map<AbundanceLocalBiology, Double> weights = new HashMap<>();
+        Map<SeaTile, AbundanceLocalBiology> start = randomBiologies(species, biology, map, weights);
+        Map<SeaTile, AbundanceLocalBiology> shuffled = copy(species, biology, start);
+        Map<SeaTile, AbundanceLocalBiology> flowed = copy(species, biology, start);
+        Map<AbundanceLocalBiology, Double> shuffledWeights = new HashMap<>();
+        Map<AbundanceLocalBiology, Double> flowedWeights = new HashMap<>();
+        for (SeaTile tile : start.keySet()) {
+            shuffledWeights.put(shuffled.get(tile), weights.get(start.get(tile)));
+            flowedWeights.put(flowed.get(tile), weights.get(start.get(tile)));
+        }
+
+        FishState state = mock(FishState.class);
+        when(state.getMap()).thenReturn(map);
+        when(state.getRandom()).thenReturn(new MersenneTwisterFast(0));
+        shuffling.apply(shuffledWeights).step(species, shuffled, state);
+        stencil.apply(flowedWeights).step(species, flowed, state);
+
+        double moved = 0;
+        double difference = 0;
+        for (SeaTile tile : start.keySet()) {
+            double[][] before = start.get(tile).getAbundance(species).asMatrix();
+            double[][] first = shuffled.get(tile).getAbundance(species).asMatrix();
+            double[][] second = flowed.get(tile).getAbundance(species).asMatrix();
+            for (int subdivision = 0; subdivision < before.length; subdivision++)
+                for (int bin = 0; bin < before[subdivision].length; bin++) {
+                    moved += Math.abs(first[subdivision][bin] - before[subdivision][bin]);
+                    difference += Math.abs(first[subdivision][bin] - second[subdivision][bin]);
+                }
+        }
+        assertTrue(moved > 0);
+        assertTrue(name + ": stencil differs by " + difference + " over " + moved + " fish moved",
+                   difference < .1 * moved);
+    }
+
+    static Map<SeaTile, AbundanceLocalBiology> randomBiologies(
+        Species species, GlobalBiology biology, NauticalMap map, Map<AbundanceLocalBiology, Double> weights) {
+        MersenneTwisterFast random = new MersenneTwisterFast(0);
+        Map<SeaTile, AbundanceLocalBiology> biologies = new LinkedHashMap<>();
+        for (SeaTile tile : map.getAllSeaTilesExcludingLandAsList()) {
+            AbundanceLocalBiology local = new AbundanceLocalBiology(biology);
+            for (double[] row : local.getAbundance(species).asMatrix())
+                for (int bin = 0; bin < row.length; bin++)
+                    row[bin] = random.nextInt(10000);
+            biologies.put(tile, local);
+            weights.put(local, random.nextDouble() + .5);
+        }
+        return biologies;
+    }
+
+    private static Map<SeaTile, AbundanceLocalBiology> copy(
+        Species species, GlobalBiology biology, Map<SeaTile, AbundanceLocalBiology> original) {
+        Map<SeaTile, AbundanceLocalBiology> copy = new LinkedHashMap<>();
+        for (Map.Entry<SeaTile, AbundanceLocalBiology> entry : original.entrySet()) {
+            AbundanceLocalBiology local = new AbundanceLocalBiology(biology);
+            double[][] from = entry.getValue().getAbundance(species).asMatrix();
+            for (int subdivision = 0; subdivision < from.length; subdivision++)
+                System.arraycopy(from[subdivision], 0, local.getAbundance(species).asMatrix()[subdivision], 0,
+                                 from[subdivision].length);
+            copy.put(entry.getKey(), local);
+        }
+        return copy;
+    }
+
+}
@@ -27,6 +27,7 @@ import uk.ac.ox.oxfish.biology.complicated.FromListMeristics;
 import uk.ac.ox.oxfish.biology.complicated.StructuredAbundance;
 import uk.ac.ox.oxfish.fisher.Fisher;
 import uk.ac.ox.oxfish.fisher.equipment.Catch;
+import uk.ac.ox.oxfish.fisher.equipment.gear.components.ArrayFilter;
 import uk.ac.ox.oxfish.fisher.equipment.gear.components.FixedProportionFilter;
 import uk.ac.ox.oxfish.geography.SeaTile;
 import uk.ac.ox.oxfish.utility.FishStateUtilities;
@@ -52,7 +53,7 @@ public class HomogeneousAbundanceGearTest
                                                                      new FixedProportionFilter(.5, true));
 
         SeaTile tile = mock(SeaTile.class,RETURNS_DEEP_STUBS);
-        when(tile.getAbundance(any())).thenReturn(new StructuredAbundance(new double[]{0},new double[]{100}));
+        when(tile.getAbundanceView(any())).thenReturn(new StructuredAbundance(new double[]{0},new double[]{100}));
         when(tile.getBiology().getBiomass(any())).thenReturn(1d);
 
         Species species = new Species("test", new FromListMeristics(new double[]{1},2));
@@ -85,7 +86,7 @@ public class HomogeneousAbundanceGearTest
                                                                      new FixedProportionFilter(.5, true));
 
         SeaTile tile = mock(SeaTile.class,RETURNS_DEEP_STUBS);
-        when(tile.getAbundance(any())).thenReturn(new StructuredAbundance(new double[]{0},new double[]{100}));
+        when(tile.getAbundanceView(any())).thenReturn(new StructuredAbundance(new double[]{0},new double[]{100}));
 
         when(tile.getBiology().getBiomass(any())).thenReturn(1d);
 
@@ -111,7 +112,7 @@ public class HomogeneousAbundanceGearTest
                                                                      new FixedProportionFilter(.5, true));
 
         SeaTile tile = mock(SeaTile.class,RETURNS_DEEP_STUBS);
-        when(tile.getAbundance(any())).thenReturn(new StructuredAbundance(new double[]{0},new double[]{100}));
+        when(tile.getAbundanceView(any())).thenReturn(new StructuredAbundance(new double[]{0},new double[]{100}));
 
         when(tile.getBiology().getBiomass(any())).thenReturn(1d);
 
@@ -135,7 +136,7 @@ public class HomogeneousAbundanceGearTest
                                                                      new FixedProportionFilter(.5, true));
 
         SeaTile tile = mock(SeaTile.class,RETURNS_DEEP_STUBS);
-        when(tile.getAbundance(any())).thenReturn(new StructuredAbundance(new double[]{0},new double[]{100}));
+        when(tile.getAbundanceView(any())).thenReturn(new StructuredAbundance(new double[]{0},new double[]{100}));
 
         when(tile.getBiology().getBiomass(any())).thenReturn(1d);
 
@@ -151,4 +152,33 @@ public class HomogeneousAbundanceGearTest
 
 
     }
-}
\ No newline at end of file
+
+    @Test
+    public void fusedFiltersMatchFilteringInSequence() throws Exception {
+
+        //no rounding, so the two filters are multiplied together once and applied in one go
+        HomogeneousAbundanceGear gear = new HomogeneousAbundanceGear(1,
+                                                                     new FixedProportionFilter(.5, false),
+                                                                     new ArrayFilter(false,
+                                                                                     new double[]{.1, .2},
+                                                                                     new double[]{.3, .4}));
+
+        SeaTile tile = mock(SeaTile.class,RETURNS_DEEP_STUBS);
+        when(tile.getAbundanceView(any())).thenReturn(new StructuredAbundance(new double[]{10, 20},new double[]{30, 40}));
+        when(tile.getBiology().getBiomass(any())).thenReturn(1d);
+
+        Species species = new Species("test", new FromListMeristics(new double[]{1, 2},2));
+        GlobalBiology biology = new GlobalBiology(species);
+
+        double[][] hourly = gear.filter(species, new double[][]{{10, 20}, {30, 40}});
+        Catch fish = gear.fish(mock(Fisher.class), tile, tile, 3, biology);
+        for (int subdivision = 0; subdivision < 2; subdivision++)
+            for (int bin = 0; bin < 2; bin++)
+                assertEquals(hourly[subdivision][bin] * 3,
+                             fish.getAbundance(0).asMatrix()[subdivision][bin], .0001);
+        assertEquals(.5 * .4 * 40 * 3, fish.getAbundance(0).asMatrix()[1][1], .0001);
+        //working out the catch only reads the abundance
+        verify(tile, never()).getAbundance(any());
+
+    }
+}
@@ -0,0 +1,107 @@
+package uk.ac.ox.oxfish.fisher.purseseiner.strategies.fields;
+
+import ec.util.MersenneTwisterFast;
+import org.junit.Test;
+import sim.util.Double2D;
+import sim.util.Int2D;
+import uk.ac.ox.oxfish.fisher.Fisher;
+import uk.ac.ox.oxfish.fisher.equipment.Boat;
+import uk.ac.ox.oxfish.geography.EquirectangularDistance;
+import uk.ac.ox.oxfish.geography.NauticalMap;
+import uk.ac.ox.oxfish.geography.SeaTile;
+import uk.ac.ox.oxfish.model.FishState;
+
+import java.util.Map.Entry;
+import java.util.Set;
+
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static uk.ac.ox.oxfish.fisher.purseseiner.strategies.fields.LocationValuesTreeTest.HEIGHT;
+import static uk.ac.ox.oxfish.fisher.purseseiner.strategies.fields.LocationValuesTreeTest.WIDTH;
+import static uk.ac.ox.oxfish.fisher.purseseiner.strategies.fields.LocationValuesTreeTest.randomValues;
+
+public class AttractionFieldTest {
+
+    @Test
+    public void aggregatedFieldStaysCloseToTheExactOne() {
+        final MersenneTwisterFast random = new MersenneTwisterFast(0);
+        final Set<Entry<Int2D, Double>> values = randomValues(2000, random);
+
+        // half a degree per cell, around the equator
+        final EquirectangularDistance distance = new EquirectangularDistance(0, .5);
+        final NauticalMap map = mock(NauticalMap.class);
+        when(map.distance(any(Int2D.class), any(Int2D.class))).thenAnswer(invocation -> {
+            final Int2D here = invocation.getArgument(0);
+            final Int2D there = invocation.getArgument(1);
+            return distance.distance(here.x, here.y, there.x, there.y);
+        });
+        final FishState fishState = mock(FishState.class);
+        when(fishState.getMap()).thenReturn(map);
+        when(fishState.getHoursPerStep()).thenReturn(24.0);
+        final Boat boat = mock(Boat.class);
+        when(boat.getSpeedInKph()).thenReturn(10.0);
+        final SeaTile location = mock(SeaTile.class);
+        final Fisher fisher = mock(Fisher.class);
+        when(fisher.grabState()).thenReturn(fishState);
+        when(fisher.getBoat()).thenReturn(boat);
+        when(fisher.getLocation()).thenReturn(location);
+
+        final AttractionField exact = field(values, 0);
+        final AttractionField aggregated = field(values, .5);
+        exact.start(fishState, fisher);
+        aggregated.start(fishState, fisher);
+
+        double worstActionError = 0;
+        double worstDirectionError = 0;
+        for (int i = 0; i < 100; i++) {
+            final Int2D here = new Int2D(random.nextInt(WIDTH), random.nextInt(HEIGHT));
+            when(location.getGridLocation()).thenReturn(here);
+            final double exactValue = exact.getActionValueAt(here);
+            worstActionError = Math.max(
+                worstActionError,
+                Math.abs(aggregated.getActionValueAt(here) - exactValue) / exactValue
+            );
+            final Double2D exactAttraction = exact.netAttractionHere();
+            final Double2D aggregatedAttraction = aggregated.netAttractionHere();
+            worstDirectionError = Math.max(
+                worstDirectionError,
+                Math.abs(Math.atan2(
+                    exactAttraction.x * aggregatedAttraction.y - exactAttraction.y * aggregatedAttraction.x,
+                    exactAttraction.x * aggregatedAttraction.x + exactAttraction.y * aggregatedAttraction.y
+                ))
+            );
+        }
+        assertTrue("action value off by " + worstActionError, worstActionError < .02);
+        assertTrue("attraction off by " + worstDirectionError + " radians", worstDirectionError < .05);
+    }
+
+    private static AttractionField field(final Set<Entry<Int2D, Double>> values, final double threshold) {
+        final LocationValues locationValues = new LocationValues() {
+            @Override
+            public double getValueAt(final Int2D location) {
+                return values.stream()
+                    .filter(entry -> entry.getKey().equals(location))
+                    .mapToDouble(Entry::getValue)
+                    .findFirst()
+                    .orElse(0);
+            }
+
+            @Override
+            public Set<Entry<Int2D, Double>> getValues() { return values; }
+
+            @Override
+            public void start(final FishState model, final Fisher fisher) { }
+        };
+        return new AttractionField(
+            locationValues,
+            ConstantLocalAttractionModulator.INSTANCE,
+            fisher -> 1.0,
+            1,
+            1,
+            threshold
+        );
+    }
+
+}
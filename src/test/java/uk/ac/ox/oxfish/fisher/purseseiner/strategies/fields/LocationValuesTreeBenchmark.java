@@ -0,0 +1,102 @@
+package uk.ac.ox.oxfish.fisher.purseseiner.strategies.fields;
+
+import com.esotericsoftware.minlog.Log;
+import ec.util.MersenneTwisterFast;
+import org.junit.Ignore;
+import org.junit.Test;
+import sim.util.Int2D;
+import uk.ac.ox.oxfish.geography.EquirectangularDistance;
+
+import java.util.Map.Entry;
+import java.util.Set;
+
+import static java.lang.Math.pow;
+import static org.junit.Assert.assertTrue;
+import static uk.ac.ox.oxfish.fisher.purseseiner.strategies.fields.LocationValuesTreeTest.HEIGHT;
+import static uk.ac.ox.oxfish.fisher.purseseiner.strategies.fields.LocationValuesTreeTest.WIDTH;
+import static uk.ac.ox.oxfish.fisher.purseseiner.strategies.fields.LocationValuesTreeTest.randomValues;
+
+/**
+ * Times, for locations spread over the whole map, an exact evaluation, building the tree and an aggregated
+ * evaluation. {@link AttractionField} builds the tree at most once a step, so the build is shared by every
+ * evaluation a vessel makes during that step. Timings depend on the machine, so this is ignored in the unit suite
+ * and meant to be run by hand.
+ */
+@Ignore("benchmark, run by hand")
+public class LocationValuesTreeBenchmark {
+
+    // half a degree per cell, around the equator
+    private static final EquirectangularDistance DISTANCE = new EquirectangularDistance(0, .5);
+
+    @Test
+    public void aggregation() {
+        for (final int numberOfValues : new int[]{50, 500, 5000}) {
+            final Set<Entry<Int2D, Double>> values = randomValues(numberOfValues, new MersenneTwisterFast(0));
+            final int evaluations = 2000;
+            double checksum = 0;
+            long exactNanos = 0, buildNanos = 0, aggregatedNanos = 0;
+            // first round warms up the JIT
+            for (int round = 0; round < 2; round++) {
+                long start = System.nanoTime();
+                for (int i = 0; i < evaluations; i++)
+                    checksum += exactSums(new Int2D(i % WIDTH, i % HEIGHT), values)[0];
+                exactNanos = System.nanoTime() - start;
+                start = System.nanoTime();
+                LocationValuesTree tree = null;
+                for (int i = 0; i < evaluations; i++)
+                    tree = new LocationValuesTree(values);
+                buildNanos = System.nanoTime() - start;
+                start = System.nanoTime();
+                for (int i = 0; i < evaluations; i++)
+                    checksum += sums(new Int2D(i % WIDTH, i % HEIGHT), tree, .5)[0];
+                aggregatedNanos = System.nanoTime() - start;
+            }
+            assertTrue(checksum > 0);
+            Log.info(String.format(
+                "%d locations: exact %.1f us, tree build %.1f us, aggregated %.1f us per evaluation",
+                numberOfValues,
+                exactNanos / 1e3 / evaluations,
+                buildNanos / 1e3 / evaluations,
+                aggregatedNanos / 1e3 / evaluations
+            ));
+        }
+    }
+
+    /**
+     * The sums {@link AttractionField} computes, with both distance exponents at 1 and no modulation:
+     * the action value followed by the x and y of the net attraction.
+     */
+    private static double[] sums(final Int2D here, final LocationValuesTree tree, final double threshold) {
+        final double[] sums = new double[3];
+        tree.forEachCluster(here, threshold, (x, y, there, value) -> {
+            final double distance = distance(here, there);
+            sums[0] += value / pow(distance + 1, 1);
+            final double length = Math.hypot(x - here.x, y - here.y);
+            if (length > 0) {
+                sums[1] += (x - here.x) / length * value / distance;
+                sums[2] += (y - here.y) / length * value / distance;
+            }
+        });
+        return sums;
+    }
+
+    private static double[] exactSums(final Int2D here, final Set<Entry<Int2D, Double>> values) {
+        final double[] sums = new double[3];
+        for (final Entry<Int2D, Double> entry : values) {
+            final Int2D there = entry.getKey();
+            final double distance = distance(here, there);
+            sums[0] += entry.getValue() / pow(distance + 1, 1);
+            final double length = Math.hypot(there.x - here.x, there.y - here.y);
+            if (length > 0) {
+                sums[1] += (there.x - here.x) / length * entry.getValue() / distance;
+                sums[2] += (there.y - here.y) / length * entry.getValue() / distance;
+            }
+        }
+        return sums;
+    }
+
+    private static double distance(final Int2D here, final Int2D there) {
+        return DISTANCE.distance(here.x, here.y, there.x, there.y);
+    }
+
+}
@@ -0,0 +1,42 @@
+package uk.ac.ox.oxfish.fisher.purseseiner.strategies.fields;
+
+import ec.util.MersenneTwisterFast;
+import org.junit.Test;
+import sim.util.Int2D;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+public class LocationValuesTreeTest {
+
+    static final int WIDTH = 150;
+    static final int HEIGHT = 100;
+
+    @Test
+    public void zeroThresholdVisitsEveryLocationOnItsOwn() {
+        final Set<Entry<Int2D, Double>> values = randomValues(500, new MersenneTwisterFast(0));
+        final Map<Int2D, Double> visited = new HashMap<>();
+        new LocationValuesTree(values).forEachCluster(new Int2D(10, 10), 0, (x, y, there, value) -> {
+            assertEquals(there.x, x, 0);
+            assertEquals(there.y, y, 0);
+            visited.put(there, value);
+        });
+        assertEquals(values.size(), visited.size());
+        values.forEach(entry -> assertEquals(entry.getValue(), visited.get(entry.getKey())));
+    }
+
+    static Set<Entry<Int2D, Double>> randomValues(final int n, final MersenneTwisterFast random) {
+        final Map<Int2D, Double> values = new HashMap<>();
+        while (values.size() < n)
+            values.put(
+                new Int2D(random.nextInt(WIDTH), random.nextInt(HEIGHT)),
+                -Math.log(1 - random.nextDouble()) * 1000
+            );
+        return values.entrySet();
+    }
+
+}
@@ -0,0 +1,51 @@
+package uk.ac.ox.oxfish.geography;
+
+import ec.util.MersenneTwisterFast;
+import org.junit.Test;
+import sim.util.Bag;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static uk.ac.ox.oxfish.geography.TestUtilities.makeMap;
+
+public class MooreNeighborhoodIndexTest {
+
+    @Test
+    public void sameNeighborsInSameOrderAsBags() {
+        final MersenneTwisterFast random = new MersenneTwisterFast(42);
+        int[][] altitudes = new int[12][7];
+        for (int[] row : altitudes)
+            for (int j = 0; j < row.length; j++)
+                row[j] = random.nextDouble() < .3 ? 10 : -1;
+        final NauticalMap map = makeMap(altitudes);
+
+        for (int radius = 1; radius <= 3; radius++) {
+            final MooreNeighborhoodIndex index = map.getMooreNeighborhoodIndex(radius);
+            assertSame(index, map.getMooreNeighborhoodIndex(radius));
+            assertEquals(12 * 7, index.getNumberOfTiles());
+            for (SeaTile tile : map.getAllSeaTilesAsList()) {
+                final int tileIndex = map.getTileIndex(tile);
+                assertSame(tile, map.getSeaTileByIndex(tileIndex));
+
+                final Bag bag = map.getMooreNeighbors(tile, radius);
+                final List<SeaTile> expectedWater = new ArrayList<>();
+                assertEquals(bag.size(), index.getNumberOfNeighbors(tileIndex));
+                for (int i = 0; i < bag.size(); i++) {
+                    final SeaTile expected = (SeaTile) bag.get(i);
+                    assertSame(expected, map.getSeaTileByIndex(index.getNeighbors()[index.getOffsets()[tileIndex] + i]));
+                    if (expected.isWater())
+                        expectedWater.add(expected);
+                }
+                assertEquals(expectedWater.size(), index.getNumberOfWaterNeighbors(tileIndex));
+                for (int i = 0; i < expectedWater.size(); i++) {
+                    final int neighbor = index.getWaterNeighbors()[index.getWaterOffsets()[tileIndex] + i];
+                    assertSame(expectedWater.get(i), map.getSeaTileByIndex(neighbor));
+                }
+            }
+        }
+    }
+
+}
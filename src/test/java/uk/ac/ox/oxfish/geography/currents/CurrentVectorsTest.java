@@ -13,7 +13,6 @@ import java.util.TreeMap;
 import static java.util.stream.IntStream.range;
 import static org.junit.Assert.assertEquals;
 import static uk.ac.ox.oxfish.geography.currents.CurrentPattern.NEUTRAL;
-import static uk.ac.ox.oxfish.geography.currents.CurrentVectors.getInterpolatedVector;
 
 public class CurrentVectorsTest {
 
@@ -35,27 +34,20 @@ public class CurrentVectorsTest {
 
     @Test
     public void getInterpolatedVectorTest() {
-        final Double2D vectorBefore = new Double2D(0, 1);
-        final Double2D vectorAfter = new Double2D(1, 0);
-        assertEquals(
+        final Int2D gridLocation = new Int2D(0, 0);
+        final TreeMap<Integer, EnumMap<CurrentPattern, Map<Int2D, Double2D>>> vectorMaps = new TreeMap<>();
+        vectorMaps.put(1, new EnumMap<>(ImmutableMap.of(NEUTRAL, ImmutableMap.of(gridLocation, new Double2D(0, 1)))));
+        vectorMaps.put(5, new EnumMap<>(ImmutableMap.of(NEUTRAL, ImmutableMap.of(gridLocation, new Double2D(1, 0)))));
+        final CurrentVectors currentVectors = new CurrentVectors(vectorMaps, __ -> NEUTRAL, 0, 0, 1);
+        final ImmutableList<Double2D> expectedVectors = ImmutableList.of(
             new Double2D(0, 1),
-            getInterpolatedVector(vectorBefore, 0, vectorAfter, 4)
-        );
-        assertEquals(
             new Double2D(0.25, 0.75),
-            getInterpolatedVector(vectorBefore, 1, vectorAfter, 3)
-        );
-        assertEquals(
             new Double2D(0.5, 0.5),
-            getInterpolatedVector(vectorBefore, 2, vectorAfter, 2)
-        );
-        assertEquals(
             new Double2D(0.75, 0.25),
-            getInterpolatedVector(vectorBefore, 3, vectorAfter, 1)
+            new Double2D(1, 0)
         );
-        assertEquals(
-            new Double2D(1, 0),
-            getInterpolatedVector(vectorBefore, 4, vectorAfter, 0)
+        range(0, expectedVectors.size()).forEach(i ->
+            assertEquals(expectedVectors.get(i), currentVectors.getVector(i, gridLocation))
         );
     }
 
@@ -77,4 +69,23 @@ public class CurrentVectorsTest {
             assertEquals(expectedVectors.get(i), currentVectors.getVector(i, gridLocation))
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    public void missingLocationsHaveNoCurrents() {
+        final Int2D everyDay = new Int2D(0, 0);
+        final Int2D firstDayOnly = new Int2D(1, 0);
+        final TreeMap<Integer, EnumMap<CurrentPattern, Map<Int2D, Double2D>>> vectorMaps = new TreeMap<>();
+        vectorMaps.put(1, new EnumMap<>(ImmutableMap.of(NEUTRAL, ImmutableMap.of(
+            everyDay, new Double2D(1, 1),
+            firstDayOnly, new Double2D(1, 1)
+        ))));
+        vectorMaps.put(3, new EnumMap<>(ImmutableMap.of(NEUTRAL, ImmutableMap.of(everyDay, new Double2D(1, 1)))));
+        final CurrentVectors currentVectors = new CurrentVectors(vectorMaps, __ -> NEUTRAL, 2, 2, 1);
+        assertEquals(new Double2D(1, 1), currentVectors.getVector(0, firstDayOnly));
+        assertEquals(new Double2D(1, 1), currentVectors.getVector(1, everyDay));
+        // can't interpolate if we only have one side
+        assertEquals(new Double2D(0, 0), currentVectors.getVector(1, firstDayOnly));
+        assertEquals(new Double2D(0, 0), currentVectors.getVector(0, new Int2D(1, 1)));
+        assertEquals(new Double2D(0, 0), currentVectors.getVector(0, new Int2D(5, 5)));
+    }
+}
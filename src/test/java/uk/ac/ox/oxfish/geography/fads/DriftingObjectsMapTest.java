@@ -0,0 +1,73 @@
+package uk.ac.ox.oxfish.geography.fads;
+
+import org.junit.Test;
+import sim.util.Double2D;
+import uk.ac.ox.oxfish.geography.NauticalMap;
+import uk.ac.ox.oxfish.geography.currents.CurrentVectors;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static uk.ac.ox.oxfish.fisher.purseseiner.fads.TestUtilities.makeUniformCurrentVectors;
+import static uk.ac.ox.oxfish.geography.TestUtilities.makeMap;
+
+public class DriftingObjectsMapTest {
+
+    @Test
+    public void objectsDriftUntilTheyLeaveTheMap() {
+        final NauticalMap nauticalMap = makeMap(5, 2, -1);
+        final CurrentVectors currentVectors = makeUniformCurrentVectors(nauticalMap, new Double2D(1, 0), 1);
+        final DriftingObjectsMap map = new DriftingObjectsMap(currentVectors, nauticalMap);
+
+        final List<Object> removed = new ArrayList<>();
+        final List<Object> objects = new ArrayList<>();
+        for (int x = 0; x < 5; x++) {
+            final Object object = "object " + x;
+            objects.add(object);
+            map.add(object, new Double2D(x + 0.5, 0.5), (oldLoc, newLoc) -> {
+                if (!newLoc.isPresent()) removed.add(object);
+            });
+        }
+
+        // one object falls off the east edge at each step, and the others keep drifting
+        for (int step = 1; step <= 5; step++) {
+            map.applyDrift(step);
+            assertEquals(objects.subList(5 - step, 6 - step), removed);
+            for (int x = 0; x < 5 - step; x++)
+                assertEquals(new Double2D(x + step + 0.5, 0.5), map.getObjectLocation(objects.get(x)));
+            removed.clear();
+        }
+        assertEquals(0, map.getField().allObjects.numObjs);
+    }
+
+    @Test
+    public void parallelDriftGivesTheSameResults() {
+        final NauticalMap nauticalMap = makeMap(100, 100, -1);
+        final CurrentVectors currentVectors = makeUniformCurrentVectors(nauticalMap, new Double2D(0.7, -0.3), 1);
+        final DriftingObjectsMap serial = new DriftingObjectsMap(currentVectors, nauticalMap);
+        final DriftingObjectsMap parallel = new DriftingObjectsMap(currentVectors, nauticalMap);
+        parallel.setParallelDrift(true);
+
+        final List<Optional<Double2D>> serialMoves = new ArrayList<>();
+        final List<Optional<Double2D>> parallelMoves = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            final Double2D location = new Double2D((i % 100) + 0.25, (i / 100) + 0.75);
+            serial.add(i, location, (oldLoc, newLoc) -> serialMoves.add(newLoc));
+            parallel.add(i, location, (oldLoc, newLoc) -> parallelMoves.add(newLoc));
+        }
+        for (int step = 1; step <= 20; step++) {
+            serial.applyDrift(step);
+            parallel.applyDrift(step);
+        }
+        assertEquals(serialMoves, parallelMoves);
+        assertEquals(serial.getField().allObjects.numObjs, parallel.getField().allObjects.numObjs);
+        for (int i = 0; i < serial.getField().allObjects.numObjs; i++) {
+            final Object object = serial.getField().allObjects.get(i);
+            assertEquals(object, parallel.getField().allObjects.get(i));
+            assertEquals(serial.getObjectLocation(object), parallel.getObjectLocation(object));
+        }
+    }
+
+}
@@ -0,0 +1,54 @@
+package uk.ac.ox.oxfish.geography.pathfinding;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+import uk.ac.ox.oxfish.geography.NauticalMap;
+import uk.ac.ox.oxfish.geography.SeaTile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static uk.ac.ox.oxfish.geography.TestUtilities.makeMap;
+
+public class BoundedPathMemoryTest {
+
+    @Test
+    public void storesPathsOnceAndEvictsLeastRecentlyUsed() {
+        final NauticalMap map = makeMap(5, 5);
+        final BoundedPathMemory memory = new BoundedPathMemory(map, 7);
+
+        final SeaTile a = map.getSeaTile(0, 0);
+        final SeaTile b = map.getSeaTile(0, 2);
+        final SeaTile c = map.getSeaTile(4, 4);
+        final ImmutableList<SeaTile> ab = ImmutableList.of(a, map.getSeaTile(0, 1), b);
+        final ImmutableList<SeaTile> cb = ImmutableList.of(c, map.getSeaTile(3, 3), map.getSeaTile(2, 3), b);
+
+        assertNull(memory.getPath(a, b));
+        memory.putPath(a, b, ab);
+        memory.putPath(b, a, ab.reverse());
+        // the path and its reverse share the same storage
+        assertEquals(1, memory.getNumberOfPaths());
+        assertEquals(3, memory.getStoredTiles());
+        assertEquals(ab, memory.getPath(a, b).get());
+        assertEquals(ab.reverse(), memory.getPath(b, a).get());
+
+        memory.putPath(c, b, cb);
+        assertEquals(7, memory.getStoredTiles());
+        assertEquals(cb.reverse(), memory.getPath(b, c).get());
+
+        // touch a->b so that c->b becomes the least recently used path, then go over capacity
+        memory.getPath(a, b);
+        memory.putImpossiblePath(a, c);
+        assertEquals(1, memory.getEvictions());
+        assertNull(memory.getPath(c, b));
+        assertTrue(memory.getPath(a, b).isPresent());
+        assertFalse(memory.getPath(c, a).isPresent());
+        assertEquals(4, memory.getStoredTiles());
+
+        assertEquals(6, memory.getHits());
+        assertEquals(2, memory.getMisses());
+        assertEquals(.75, memory.getHitRate(), .0001);
+    }
+
+}
@@ -21,11 +21,18 @@
 package uk.ac.ox.oxfish.geography.pathfinding;
 
 import com.google.common.collect.ImmutableList;
+import ec.util.MersenneTwisterFast;
 import org.junit.Test;
+import uk.ac.ox.oxfish.biology.GlobalBiology;
 import uk.ac.ox.oxfish.geography.CartesianDistance;
+import uk.ac.ox.oxfish.geography.Distance;
+import uk.ac.ox.oxfish.geography.EquirectangularDistance;
 import uk.ac.ox.oxfish.geography.NauticalMap;
 import uk.ac.ox.oxfish.geography.SeaTile;
+import uk.ac.ox.oxfish.geography.ports.Port;
+import uk.ac.ox.oxfish.model.market.MarketMap;
 
+import java.util.Arrays;
 import java.util.Deque;
 
 import static com.google.common.collect.Iterables.elementsEqual;
@@ -140,4 +147,118 @@ public class PathfinderTest {
         assertNotNull(straightLinePathfinder.getRoute(impassableMap, start, end));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void indexedAStarAgreesWithAStar() {
+
+        final MersenneTwisterFast random = new MersenneTwisterFast(42);
+        for (Distance distance : ImmutableList.of(new CartesianDistance(1), new EquirectangularDistance(0, 1))) {
+            // a 40x30 map with roughly a third of land, so there are islands, detours and a few unreachable tiles
+            int[][] altitudes = new int[40][30];
+            for (int[] row : altitudes)
+                for (int j = 0; j < row.length; j++)
+                    row[j] = random.nextDouble() < .35 ? 10 : -1;
+            NauticalMap map = makeMap(altitudes);
+
+            final AStarPathfinder aStarPathfinder = new AStarPathfinder(distance, new DiscardingPathMemory());
+            final IndexedAStarPathfinder indexedPathfinder =
+                new IndexedAStarPathfinder(distance, new DiscardingPathMemory());
+            for (int i = 0; i < 500; i++) {
+                final SeaTile start = map.getRandomBelowWaterLineSeaTile(random);
+                final SeaTile end = map.getRandomBelowWaterLineSeaTile(random);
+                final Deque<SeaTile> expected = aStarPathfinder.getRoute(map, start, end);
+                final Deque<SeaTile> actual = indexedPathfinder.getRoute(map, start, end);
+                if (expected == null)
+                    assertNull(actual);
+                else
+                    assertTrue(elementsEqual(expected, actual));
+            }
+        }
+    }
+
+    @Test
+    public void portDistanceFieldsGiveShortestRoutes() {
+
+        final MersenneTwisterFast random = new MersenneTwisterFast(42);
+        int[][] altitudes = new int[40][30];
+        for (int[] row : altitudes)
+            for (int j = 0; j < row.length; j++)
+                row[j] = random.nextDouble() < .3 ? 10 : -1;
+        // a port on a land tile in the middle of the sea
+        altitudes[20][15] = 10;
+        altitudes[20][16] = -1;
+        NauticalMap map = makeMap(altitudes);
+        final SeaTile portTile = map.getSeaTile(20, 15);
+        map.addPort(new Port("port", portTile, new MarketMap(new GlobalBiology()), 0));
+
+        final CartesianDistance distance = new CartesianDistance(1);
+        final PortDistanceFieldPathfinder fieldPathfinder = new PortDistanceFieldPathfinder(distance);
+        fieldPathfinder.prepare(map);
+        final AStarPathfinder aStarPathfinder = new AStarPathfinder(distance, new DiscardingPathMemory());
+        for (int i = 0; i < 200; i++) {
+            final SeaTile tile = map.getRandomBelowWaterLineSeaTile(random);
+            final Deque<SeaTile> expected = aStarPathfinder.getRoute(map, portTile, tile);
+            final Deque<SeaTile> outbound = fieldPathfinder.getRoute(map, portTile, tile);
+            final Deque<SeaTile> inbound = fieldPathfinder.getRoute(map, tile, portTile);
+            if (expected == null) {
+                assertNull(outbound);
+                assertNull(inbound);
+                assertEquals(Double.POSITIVE_INFINITY, fieldPathfinder.getRouteDistance(map, portTile, tile), 0);
+                continue;
+            }
+            assertEquals(portTile, outbound.peekFirst());
+            assertEquals(tile, outbound.peekLast());
+            assertTrue(outbound.stream().allMatch(seaTile -> seaTile == portTile || seaTile.isWater()));
+            assertTrue(elementsEqual(outbound, ImmutableList.copyOf(inbound).reverse()));
+            // A* is optimal with this distance, so both routes must have the same length
+            final double expectedLength = routeLength(map, expected, distance);
+            assertEquals(expectedLength, routeLength(map, outbound, distance), .0001);
+            assertEquals(expectedLength, fieldPathfinder.getRouteDistance(map, portTile, tile), .0001);
+        }
+    }
+
+    @Test
+    public void portDistanceFieldsCheckTheirTilesLikeAStar() {
+        int[][] altitudes = new int[5][5];
+        for (int[] row : altitudes)
+            Arrays.fill(row, -1);
+        altitudes[2][2] = 10;
+        altitudes[4][4] = 10;
+        NauticalMap map = makeMap(altitudes);
+        final SeaTile portTile = map.getSeaTile(2, 2);
+        map.addPort(new Port("port", portTile, new MarketMap(new GlobalBiology()), 0));
+
+        final CartesianDistance distance = new CartesianDistance(1);
+        final PortDistanceFieldPathfinder fieldPathfinder = new PortDistanceFieldPathfinder(distance);
+        fieldPathfinder.prepare(map);
+        final IndexedAStarPathfinder aStarPathfinder = new IndexedAStarPathfinder(distance);
+
+        // from the port to itself, same answer as the pathfinder routes between other tiles are delegated to
+        assertEquals(
+            aStarPathfinder.getRoute(map, portTile, portTile),
+            fieldPathfinder.getRoute(map, portTile, portTile)
+        );
+
+        final SeaTile land = map.getSeaTile(4, 4);
+        final SeaTile otherMapTile = makeMap(5, 5).getSeaTile(0, 0);
+        for (SeaTile[] route : new SeaTile[][]{
+            {null, portTile}, {portTile, null}, {land, portTile}, {portTile, land}, {otherMapTile, portTile},
+            {portTile, otherMapTile}
+        }) {
+            try {
+                fieldPathfinder.getRoute(map, route[0], route[1]);
+                fail("expected " + route[0] + " -> " + route[1] + " to be rejected");
+            } catch (NullPointerException | IllegalArgumentException expected) {
+                // as expected
+            }
+        }
+    }
+
+    private static double routeLength(NauticalMap map, Deque<SeaTile> route, Distance distance) {
+        final ImmutableList<SeaTile> tiles = ImmutableList.copyOf(route);
+        double length = 0;
+        for (int i = 1; i < tiles.size(); i++)
+            length += distance.distance(tiles.get(i - 1), tiles.get(i), map);
+        return length;
+    }
+
+}
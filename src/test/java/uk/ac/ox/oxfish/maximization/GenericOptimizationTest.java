@@ -0,0 +1,162 @@
+package uk.ac.ox.oxfish.maximization;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+import uk.ac.ox.oxfish.maximization.generic.DataTarget;
+import uk.ac.ox.oxfish.maximization.generic.FixedDataLastStepTarget;
+import uk.ac.ox.oxfish.maximization.generic.SimpleOptimizationParameter;
+import uk.ac.ox.oxfish.model.FishState;
+import uk.ac.ox.oxfish.model.scenario.PolicyScript;
+import uk.ac.ox.oxfish.utility.parameters.FixedDoubleParameter;
+import uk.ac.ox.oxfish.utility.yaml.FishYAML;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+public class GenericOptimizationTest {
+
+    @Test
+    public void replicateSeedsAreDeterministicAndDistinct() {
+        double[] x = {1, 2, 3};
+        assertEquals(GenericOptimization.replicateSeed(42, x, 0),
+                     GenericOptimization.replicateSeed(42, x.clone(), 0));
+        assertNotEquals(GenericOptimization.replicateSeed(42, x, 0),
+                        GenericOptimization.replicateSeed(42, x, 1));
+        assertNotEquals(GenericOptimization.replicateSeed(42, x, 0),
+                        GenericOptimization.replicateSeed(43, x, 0));
+        assertNotEquals(GenericOptimization.replicateSeed(42, x, 0),
+                        GenericOptimization.replicateSeed(42, new double[]{1, 2, 4}, 0));
+    }
+
+    @Test
+    public void replicatesGetTheWholeThreadBudget() {
+        GenericOptimization optimization = new GenericOptimization();
+        optimization.setRunsPerSetting(4);
+        //serial replicates run on EvA's threads
+        assertEquals(32, optimization.allocateThreadBudget(32));
+        assertEquals(1, optimization.getReplicateThreads());
+        //parallel replicates share one executor as large as the budget, EvA only needs to keep it busy
+        optimization.setReplicateThreads(4);
+        assertEquals(8, optimization.allocateThreadBudget(32));
+        assertEquals(32, optimization.getReplicateThreads());
+        assertEquals(3, optimization.allocateThreadBudget(10));
+        assertEquals(10, optimization.getReplicateThreads());
+        //but always at least one thread for EvA
+        assertEquals(1, optimization.allocateThreadBudget(2));
+    }
+
+    @Test
+    public void whatAProblemLearnsStaysWithItUntilReleased() throws Exception {
+        GenericOptimization optimization = new GenericOptimization();
+        optimization.updateBestError(10);
+        optimization.updateBestError(5);
+        assertEquals(5, optimization.getBestError(), 0);
+        //problems loaded separately don't share anything
+        assertEquals(Double.POSITIVE_INFINITY, new GenericOptimization().getBestError(), 0);
+
+        //nor do copies made by serialization
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(optimization);
+        }
+        GenericOptimization copy;
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (GenericOptimization) input.readObject();
+        }
+        assertNotSame(optimization, copy);
+        assertEquals(Double.POSITIVE_INFINITY, copy.getBestError(), 0);
+
+        optimization.release();
+        assertEquals(Double.POSITIVE_INFINITY, optimization.getBestError(), 0);
+    }
+
+    @Test
+    public void forkingTheSpinUpInMemoryMatchesAFullRun() throws Exception {
+        Path directory = Files.createTempDirectory("spinup");
+        GenericOptimization optimization = spinUpOptimization(directory);
+        double[] x = {3};
+        assertEquals(fullRunError(optimization, x), optimization.evaluate(x)[0], 0);
+        //every evaluation forks the same spin-up, and the script parameters do matter
+        assertEquals(fullRunError(optimization, x), optimization.evaluate(x)[0], 0);
+        assertNotEquals(optimization.evaluate(x)[0], optimization.evaluate(new double[]{-3})[0], 0);
+    }
+
+    @Test
+    public void forkingTheSpinUpFromACheckpointMatchesAFullRun() throws Exception {
+        Path directory = Files.createTempDirectory("spinup");
+        GenericOptimization optimization = spinUpOptimization(directory);
+        File checkpoint = directory.resolve("spinup.checkpoint").toFile();
+        checkpoint.deleteOnExit();
+        optimization.setSpinUpCheckpointFile(checkpoint.getAbsolutePath());
+        double[] x = {3};
+        //the first evaluation writes the checkpoint, the second one reads it back
+        assertEquals(fullRunError(optimization, x), optimization.evaluate(x)[0], 0);
+        assertTrue(checkpoint.exists());
+        assertEquals(fullRunError(optimization, x), optimization.evaluate(x)[0], 0);
+    }
+
+    /**
+     * one year of spin-up out of two, the parameter sets the hourly travelling costs of the after spin-up script
+     */
+    private static GenericOptimization spinUpOptimization(Path directory) throws IOException {
+        PolicyScript script = new PolicyScript();
+        script.setHourlyTravellingCosts(new FixedDoubleParameter(0));
+        File scriptFile = directory.resolve("after_spinup.yaml").toFile();
+        scriptFile.deleteOnExit();
+        try (FileWriter writer = new FileWriter(scriptFile)) {
+            new FishYAML().dump(script, writer);
+        }
+
+        GenericOptimization optimization = new GenericOptimization();
+        optimization.setScenarioFile(Paths.get("inputs", "tests", "replicate.yaml").toString());
+        optimization.setAfterSpinUpScriptFile(scriptFile.getAbsolutePath());
+        optimization.setParameters(Lists.newArrayList(
+            new SimpleOptimizationParameter("hourlyTravellingCosts", 0, 100)
+        ));
+        optimization.setTargets(Lists.newArrayList(new FixedDataLastStepTarget(0, "Average Cash-Flow")));
+        optimization.setSpinUpYears(1);
+        optimization.setSimulatedYears(2);
+        optimization.setRunsPerSetting(1);
+        optimization.setSeed(42L);
+        return optimization;
+    }
+
+    /**
+     * what {@link GenericOptimization#evaluate(double[])} should get, without any forking: the same model run
+     * straight through, reseeded and given the script once the spin-up is over
+     */
+    private static double fullRunError(GenericOptimization optimization, double[] x) throws IOException {
+        FishState model = new FishState(optimization.getSeed());
+        model.setScenario(GenericOptimization.buildScenario(
+            new double[0], Paths.get(optimization.getScenarioFile()).toFile(), new LinkedList<>()));
+        model.start();
+        while (model.getYear() < optimization.getSpinUpYears())
+            model.schedule.step(model);
+        model.random.setSeed(GenericOptimization.replicateSeed(optimization.getSeed(), x, 0));
+        GenericOptimization.buildPolicyScript(
+            x, Paths.get(optimization.getAfterSpinUpScriptFile()).toFile(), optimization.getParameters()
+        ).apply(model);
+        while (model.getYear() < optimization.getSimulatedYears())
+            model.schedule.step(model);
+        model.schedule.step(model);
+        double error = 0;
+        for (DataTarget target : optimization.getTargets())
+            error += target.computeError(model);
+        return error;
+    }
+
+}
@@ -0,0 +1,35 @@
+package uk.ac.ox.oxfish.maximization.generic;
+
+import org.junit.Test;
+import uk.ac.ox.oxfish.model.FishState;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.*;
+
+public class ScaledFixedDataLastStepTargetTest {
+
+    @Test
+    public void accumulatingColumnsAreBoundedInTheLastYear() {
+        ScaledFixedDataLastStepTarget target = new ScaledFixedDataLastStepTarget();
+        target.setColumnName("Landings");
+        target.setFixedTarget(100);
+        target.setWeight(2);
+
+        FishState model = mock(FishState.class, RETURNS_DEEP_STUBS);
+        when(model.getYear()).thenReturn(1);
+        when(model.getYearlyDataSet().peek("Landings")).thenReturn(150d);
+
+        //nothing is known about columns that might go down
+        assertEquals(0, target.computeLowerBound(model, 2), 0);
+
+        target.setAccumulating(true);
+        //150 landed already, and it can only grow: at least 50% off
+        assertEquals(1, target.computeLowerBound(model, 2), .0001);
+        //not the last year: this year's landings don't count
+        assertEquals(0, target.computeLowerBound(model, 3), 0);
+        //below the target, the year can still end anywhere
+        when(model.getYearlyDataSet().peek("Landings")).thenReturn(80d);
+        assertEquals(0, target.computeLowerBound(model, 2), 0);
+    }
+
+}
@@ -25,6 +25,8 @@ import uk.ac.ox.oxfish.biology.growers.CommonLogisticGrowerFactory;
 import uk.ac.ox.oxfish.biology.initializer.factory.FromLeftToRightFactory;
 import uk.ac.ox.oxfish.biology.initializer.factory.MultipleIndependentSpeciesBiomassFactory;
 import uk.ac.ox.oxfish.biology.initializer.factory.SingleSpeciesBiomassFactory;
+import uk.ac.ox.oxfish.fisher.equipment.gear.factory.RandomCatchabilityTrawlFactory;
+import uk.ac.ox.oxfish.model.scenario.PolicyScript;
 import uk.ac.ox.oxfish.model.scenario.PrototypeScenario;
 import uk.ac.ox.oxfish.utility.parameters.FixedDoubleParameter;
 
@@ -121,5 +123,23 @@ public class SimpleOptimizationParameterTest {
                      10,.0001);
     }
 
+    @Test
+    public void policyScriptsCanBeParametrizedToo() {
+        PolicyScript script = new PolicyScript();
+        RandomCatchabilityTrawlFactory gear = new RandomCatchabilityTrawlFactory();
+        script.setGear(gear);
+
+        SimpleOptimizationParameter parameter = new SimpleOptimizationParameter(
+                "gear.meanCatchabilityFirstSpecies",
+                0,.02
+        );
+
+        parameter.parametrize(script,
+                              new double[]{10});
+
+        assertEquals(((FixedDoubleParameter) gear.getMeanCatchabilityFirstSpecies()).getFixedValue(),
+                     .02,.0001);
+    }
+
 
-}
\ No newline at end of file
+}
@@ -62,6 +62,34 @@ public class YearlyDataTargetTest {
 
     }
 
+    @Test
+    public void lowerBoundGrowsWithTheYears() {
+        YearlyDataTarget target = new YearlyDataTarget(
+                Paths.get("inputs","tests","landings3.csv").toString(),
+                "fakeData",
+                true,
+                1,
+                1,
+                false);
+
+        FishState model = mock(FishState.class,RETURNS_DEEP_STUBS);
+        DataColumn fakeData = new DataColumn("fakeData");
+        when(model.getYearlyDataSet().getColumn("fakeData")).thenReturn(fakeData);
+
+        assertEquals(target.computeLowerBound(model, 4),0,.0001);
+        fakeData.add(90d);
+        fakeData.add(90d);
+        assertEquals(target.computeLowerBound(model, 4),.05,.0001);
+        fakeData.add(90d);
+        fakeData.add(90d);
+        assertEquals(target.computeLowerBound(model, 4),.1,.0001);
+        assertEquals(target.computeError(model),.1,.0001);
+
+        //errors can cancel out when cumulative, so there is no bound
+        target.setCumulative(true);
+        assertEquals(target.computeLowerBound(model, 4),0,.0001);
+    }
+
     @Test
     public void nonSTD() {
         YearlyDataTarget target = new YearlyDataTarget(
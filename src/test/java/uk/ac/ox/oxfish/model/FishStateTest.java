@@ -26,7 +26,12 @@ import org.junit.Test;
 import sim.engine.SimState;
 import sim.engine.Steppable;
 import uk.ac.ox.oxfish.biology.GlobalBiology;
+import uk.ac.ox.oxfish.biology.Species;
+import uk.ac.ox.oxfish.biology.complicated.factory.ConstantRateDiffuserFactory;
+import uk.ac.ox.oxfish.biology.initializer.SingleSpeciesAbundanceInitializer;
 import uk.ac.ox.oxfish.biology.initializer.factory.FromLeftToRightFactory;
+import uk.ac.ox.oxfish.biology.initializer.factory.MultipleIndependentSpeciesAbundanceFactory;
+import uk.ac.ox.oxfish.biology.initializer.factory.SingleSpeciesAbundanceFactory;
 import uk.ac.ox.oxfish.fisher.Fisher;
 import uk.ac.ox.oxfish.geography.NauticalMap;
 import uk.ac.ox.oxfish.geography.mapmakers.SimpleMapInitializerFactory;
@@ -35,11 +40,18 @@ import uk.ac.ox.oxfish.model.scenario.PrototypeScenario;
 import uk.ac.ox.oxfish.model.scenario.Scenario;
 import uk.ac.ox.oxfish.model.scenario.ScenarioEssentials;
 import uk.ac.ox.oxfish.model.scenario.ScenarioPopulation;
+import uk.ac.ox.oxfish.utility.AlgorithmFactory;
 import uk.ac.ox.oxfish.utility.parameters.FixedDoubleParameter;
 
+import ec.util.MersenneTwisterFast;
+
 import java.util.LinkedList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.*;
 import static uk.ac.ox.oxfish.model.StepOrder.*;
@@ -220,4 +232,60 @@ public class FishStateTest {
                 });
         do fishState.schedule.step(fishState); while (fishState.getDay() <= 900);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void workersSeeTheirOwnRandom() throws Exception {
+        FishState state = new FishState(1L);
+        final MersenneTwisterFast modelRandom = state.getRandom();
+        final MersenneTwisterFast[] randoms = new MersenneTwisterFast[8];
+        final ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[randoms.length];
+        for (int i = 0; i < randoms.length; i++) {
+            final MersenneTwisterFast random = randoms[i] = new MersenneTwisterFast(i);
+            tasks[i] = ForkJoinPool.commonPool().submit(
+                () -> state.runWithRandom(random, () -> assertSame(random, state.getRandom()))
+            );
+        }
+        for (ForkJoinTask<?> task : tasks)
+            task.join();
+        state.runWithRandom(randoms[0], () -> assertSame(randoms[0], state.getRandom()));
+        assertSame(modelRandom, state.getRandom());
+    }
+
+    @Test
+    public void parallelBiologyDoesNotDependOnTheNumberOfThreads() throws Exception {
+        double[][] onThread = biomassSeries(new ForkJoinPool(1));
+        double[][] onFourThreads = biomassSeries(new ForkJoinPool(4));
+        for (int species = 0; species < onThread.length; species++)
+            assertArrayEquals(onThread[species], onFourThreads[species], 0d);
+    }
+
+    /**
+     * daily biomass of each species in a diffusing multi-species abundance scenario, species stepped on this pool
+     */
+    private static double[][] biomassSeries(ForkJoinPool pool) {
+        MultipleIndependentSpeciesAbundanceFactory biology = new MultipleIndependentSpeciesAbundanceFactory();
+        for (AlgorithmFactory<? extends SingleSpeciesAbundanceInitializer> factory : biology.getFactories())
+            ((SingleSpeciesAbundanceFactory) factory).setDiffuser(new ConstantRateDiffuserFactory());
+        PrototypeScenario scenario = new PrototypeScenario();
+        scenario.setBiologyInitializer(biology);
+        SimpleMapInitializerFactory mapInitializer = new SimpleMapInitializerFactory();
+        mapInitializer.setWidth(new FixedDoubleParameter(10));
+        mapInitializer.setHeight(new FixedDoubleParameter(10));
+        scenario.setMapInitializer(mapInitializer);
+        scenario.setFishers(2);
+
+        FishState state = new FishState(42L);
+        state.setScenario(scenario);
+        state.setParallelBiology(pool);
+        state.start();
+        final int days = 400;
+        double[][] series = new double[state.getSpecies().size()][days];
+        for (int day = 0; day < days; day++) {
+            state.schedule.step(state);
+            for (Species species : state.getSpecies())
+                series[species.getIndex()][day] = state.getTotalBiomass(species);
+        }
+        pool.shutdown();
+        return series;
+    }
+}
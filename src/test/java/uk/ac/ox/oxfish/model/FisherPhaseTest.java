@@ -0,0 +1,83 @@
+package uk.ac.ox.oxfish.model;
+
+import org.junit.Test;
+import sim.engine.Stoppable;
+import uk.ac.ox.oxfish.fisher.Fisher;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+public class FisherPhaseTest {
+
+    @Test
+    public void stepsEachFisherOncePerStep() {
+        FishState state = new FishState(1);
+        FisherPhase phase = new FisherPhase();
+        state.schedule.scheduleRepeating(phase, StepOrder.FISHER_PHASE.ordinal(), 1.0);
+
+        int[] steps = new int[100];
+        Stoppable[] receipts = new Stoppable[steps.length];
+        for (int i = 0; i < steps.length; i++) {
+            final int fisher = i;
+            receipts[i] = phase.add(simState -> steps[fisher]++, 0);
+        }
+        state.schedule.step(state);
+        for (int step : steps)
+            assertEquals(1, step);
+
+        //removed fishers are not stepped anymore, the others still are
+        for (int i = 0; i < steps.length; i += 2)
+            receipts[i].stop();
+        //stopping twice does nothing
+        receipts[0].stop();
+        assertEquals(50, phase.getNumberOfFishers());
+        state.schedule.step(state);
+        for (int i = 0; i < steps.length; i++)
+            assertEquals(i % 2 == 0 ? 1 : 2, steps[i]);
+    }
+
+    @Test
+    public void fishersAddedDuringAStepWaitForTheNextOne() {
+        FishState state = new FishState(1);
+        FisherPhase phase = new FisherPhase();
+        state.schedule.scheduleRepeating(phase, StepOrder.FISHER_PHASE.ordinal(), 1.0);
+
+        int[] steps = new int[2];
+        phase.add(simState -> {
+            if (steps[0]++ == 0)
+                phase.add(other -> steps[1]++, simState.schedule.getTime() + 1);
+        }, 0);
+
+        state.schedule.step(state);
+        assertEquals(1, steps[0]);
+        assertEquals(0, steps[1]);
+        state.schedule.step(state);
+        assertEquals(2, steps[0]);
+        assertEquals(1, steps[1]);
+    }
+
+    @Test
+    public void parallelPhasePlansEverythingBeforeStepping() {
+        FishState state = new FishState(1);
+        FisherPhase phase = new FisherPhase();
+        phase.setParallel(true);
+        state.schedule.scheduleRepeating(phase, StepOrder.FISHER_PHASE.ordinal(), 1.0);
+
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < 10; i++) {
+            Fisher fisher = mock(Fisher.class);
+            doAnswer(invocation -> events.add("plan")).when(fisher).planStep(state);
+            doAnswer(invocation -> events.add("step")).when(fisher).step(state);
+            phase.add(fisher, 0);
+        }
+        state.schedule.step(state);
+        assertEquals(Collections.nCopies(10, "plan"), events.subList(0, 10));
+        assertEquals(Collections.nCopies(10, "step"), events.subList(10, 20));
+    }
+
+}
@@ -22,10 +22,14 @@ package uk.ac.ox.oxfish.model.data;
 
 import org.junit.Assert;
 import org.junit.Test;
+import uk.ac.ox.oxfish.biology.Species;
 import uk.ac.ox.oxfish.model.FishState;
 import uk.ac.ox.oxfish.model.FishStateDailyTimeSeries;
 import uk.ac.ox.oxfish.model.data.collectors.DataColumn;
 import uk.ac.ox.oxfish.model.data.collectors.FishStateYearlyTimeSeries;
+import uk.ac.ox.oxfish.model.data.collectors.FisherDailyTimeSeries;
+import uk.ac.ox.oxfish.model.market.AbstractMarket;
+import uk.ac.ox.oxfish.model.scenario.PrototypeScenario;
 import uk.ac.ox.oxfish.utility.FishStateUtilities;
 
 import java.util.ListIterator;
@@ -33,6 +37,7 @@ import java.util.function.Function;
 
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
+import static uk.ac.ox.oxfish.utility.FishStateUtilities.generateYearlySum;
 
 public class FishStateYearlyTimeSeriesTest {
 
@@ -54,4 +59,59 @@ public class FishStateYearlyTimeSeriesTest {
 
 
     }
+
+    /**
+     * The running sums are checked against gatherers that walk back through the daily columns the way the yearly
+     * columns used to, registered on the same yearly data set so that both are computed at the same time.
+     */
+    @Test
+    public void runningSumsMatchTheDailyColumns() {
+        PrototypeScenario scenario = new PrototypeScenario();
+        scenario.setFishers(10);
+        FishState state = new FishState(42L);
+        state.setScenario(scenario);
+        state.start();
+
+        FishStateDailyTimeSeries daily = state.getDailyDataSet();
+        FishStateYearlyTimeSeries yearly = state.getYearlyDataSet();
+        Gatherer<FishState> effort = generateYearlySum(daily.getColumn("Total Effort"));
+        for (Species species : state.getSpecies()) {
+            Gatherer<FishState> catches = generateYearlySum(
+                daily.getColumn(species + " " + FisherDailyTimeSeries.CATCHES_COLUMN_NAME));
+            Gatherer<FishState> earnings = generateYearlySum(
+                daily.getColumn(species + " " + AbstractMarket.EARNINGS_COLUMN_NAME));
+            Gatherer<FishState> landings = generateYearlySum(
+                daily.getColumn(species + " " + AbstractMarket.LANDINGS_COLUMN_NAME));
+            yearly.registerGatherer("Expected " + species + " " + FisherDailyTimeSeries.CATCHES_COLUMN_NAME,
+                                    catches, Double.NaN);
+            yearly.registerGatherer("Expected " + species + " CPUE",
+                                    model -> catches.apply(model) / effort.apply(model), Double.NaN);
+            yearly.registerGatherer("Expected " + species + " Average Sale Price",
+                                    model -> earnings.apply(model) / landings.apply(model), Double.NaN);
+        }
+
+        while (state.getYear() < 3)
+            state.schedule.step(state);
+
+        double totalCatches = 0;
+        for (Species species : state.getSpecies()) {
+            for (String column : new String[]{
+                species + " " + FisherDailyTimeSeries.CATCHES_COLUMN_NAME,
+                species + " CPUE",
+                species + " Average Sale Price"
+            }) {
+                DataColumn actual = yearly.getColumn(column);
+                DataColumn expected = yearly.getColumn("Expected " + column);
+                Assert.assertEquals(expected.size(), actual.size());
+                Assert.assertTrue(actual.size() >= 2);
+                for (int year = 0; year < actual.size(); year++)
+                    Assert.assertEquals(column + " in year " + year,
+                                        expected.get(year), actual.get(year),
+                                        1e-9 * Math.max(1, Math.abs(expected.get(year))));
+            }
+            for (Double catches : yearly.getColumn(species + " " + FisherDailyTimeSeries.CATCHES_COLUMN_NAME))
+                totalCatches += catches;
+        }
+        Assert.assertTrue(totalCatches > 0);
+    }
 }
\ No newline at end of file
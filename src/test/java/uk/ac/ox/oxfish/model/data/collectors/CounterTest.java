@@ -0,0 +1,42 @@
+package uk.ac.ox.oxfish.model.data.collectors;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class CounterTest {
+
+    @Test
+    public void handlesAndNamesCountTheSameColumns() {
+        Counter counter = new Counter(IntervalPolicy.EVERY_DAY);
+        int[] handles = new int[20];
+        for (int i = 0; i < handles.length; i++)
+            handles[i] = counter.addColumn("column " + i);
+
+        for (int i = 0; i < handles.length; i++) {
+            counter.count(handles[i], i);
+            counter.count("column " + i, 1);
+        }
+        for (int i = 0; i < handles.length; i++) {
+            assertEquals(i + 1, counter.getColumn(handles[i]), .0001);
+            assertEquals(i + 1, counter.getColumn("column " + i), .0001);
+            assertEquals(handles[i], counter.getColumnIndex("column " + i));
+        }
+        assertNull(counter.getColumn("missing"));
+
+        //resetting zeroes everything but keeps the handles
+        counter.step(null);
+        for (int i = 0; i < handles.length; i++)
+            assertEquals(0, counter.getColumn(handles[i]), .0001);
+        counter.count(handles[3], 2);
+        assertEquals(2, counter.getColumn("column 3"), .0001);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void countingMissingColumnsFails() {
+        Counter counter = new Counter(IntervalPolicy.EVERY_DAY);
+        counter.count("missing", 1);
+    }
+
+}
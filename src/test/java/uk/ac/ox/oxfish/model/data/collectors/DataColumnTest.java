@@ -0,0 +1,85 @@
+package uk.ac.ox.oxfish.model.data.collectors;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DataColumnTest {
+
+    @Test
+    public void randomAccessAndIteration() {
+        DataColumn column = new DataColumn("test");
+        assertEquals(Double.NaN, column.getLatest(), 0);
+        for (int i = 0; i < 100; i++)
+            column.add((double) i);
+        column.add((Double) null);
+        column.add(101d);
+
+        assertEquals(102, column.size());
+        assertEquals(101d, column.getLatest(), 0);
+        assertNull(column.getDatumXStepsAgo(1));
+        assertEquals(99d, column.getDatumXStepsAgo(2), 0);
+        assertEquals(42d, column.get(42), 0);
+        assertEquals(Double.NaN, column.getAsDouble(100), 0);
+        assertArrayEquals(new double[]{10, 11, 12}, column.toArray(10, 13), 0);
+        assertEquals(4950d + 101d, Arrays.stream(column.toArray()).filter(Double::isFinite).sum(), 0);
+
+        Iterator<Double> descending = column.descendingIterator();
+        assertEquals(101d, descending.next(), 0);
+        assertNull(descending.next());
+        assertEquals(99d, descending.next(), 0);
+
+        int count = 0;
+        for (Double datum : column) {
+            if (count != 100)
+                assertEquals(count == 101 ? 101 : count, datum, 0);
+            count++;
+        }
+        assertEquals(102, count);
+        assertEquals(102, column.copy().size());
+
+        column.clear();
+        assertEquals(0, column.size());
+        assertFalse(column.iterator().hasNext());
+    }
+
+    @Test
+    public void forgetsNullsWithTheirValues() throws IOException {
+        DataColumn column = new DataColumn("test");
+        column.setRetention(ColumnRetention.keepLast(400));
+        for (int i = 0; i < 10000; i++)
+            column.add(i % 7 == 0 ? null : (double) i);
+        final int shortRun = serializedSize(column);
+        for (int i = 10000; i < 100000; i++)
+            column.add(i % 7 == 0 ? null : (double) i);
+
+        assertEquals(99600, column.getFirstAvailableIndex());
+        for (int i = 99600; i < 100000; i++) {
+            if (i % 7 == 0)
+                assertNull(column.get(i));
+            else
+                assertEquals(i, column.get(i), 0);
+        }
+        //only the last 400 values (and their nulls) are kept, however many were added
+        assertTrue(serializedSize(column) < shortRun + 100);
+    }
+
+    private static int serializedSize(DataColumn column) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(column);
+        }
+        return bytes.size();
+    }
+
+}
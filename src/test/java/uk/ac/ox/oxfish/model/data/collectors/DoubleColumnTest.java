@@ -0,0 +1,90 @@
+package uk.ac.ox.oxfish.model.data.collectors;
+
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DoubleColumnTest {
+
+    @Test
+    public void keepsOnlyTheLastObservations() {
+        DoubleColumn column = new DoubleColumn(4);
+        column.setRetention(ColumnRetention.keepLast(365));
+        for (int i = 0; i < 1000; i++)
+            column.add(i);
+
+        assertEquals(1000, column.size());
+        assertEquals(635, column.getFirstAvailableIndex());
+        assertEquals(999, column.get(999), 0);
+        assertEquals(635, column.get(635), 0);
+        assertArrayEquals(new double[]{997, 998, 999}, column.toArray(997, 1000), 0);
+        assertEquals(365, column.toArray().length);
+        //the sum over the last year is still exact
+        double sum = 0;
+        for (int i = 635; i < 1000; i++)
+            sum += i;
+        assertEquals(sum, column.stream().sum(), 0);
+        //evicted observations read as missing, whether one by one or copied
+        assertTrue(Double.isNaN(column.get(634)));
+        assertTrue(Double.isNaN(column.get(0)));
+        assertEquals(1000, column.toArray(0, 1000).length);
+        assertTrue(Double.isNaN(column.toArray(0, 1000)[634]));
+        assertEquals(635, column.toArray(0, 1000)[635], 0);
+        try {
+            column.get(1000);
+            fail("observations that were never added can't be read");
+        } catch (IndexOutOfBoundsException ignored) {
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void keepingLessThanAYearIsRejected() {
+        ColumnRetention.keepLast(364);
+    }
+
+    @Test
+    public void retentionCanBeChangedAfterTheFact() {
+        DoubleColumn column = new DoubleColumn();
+        for (int i = 0; i < 1000; i++)
+            column.add(i);
+        column.setRetention(ColumnRetention.keepLast(365));
+        assertEquals(635, column.getFirstAvailableIndex());
+        assertEquals(800, column.get(800), 0);
+        column.setRetention(ColumnRetention.UNBOUNDED);
+        for (int i = 1000; i < 1100; i++)
+            column.add(i);
+        assertEquals(635, column.getFirstAvailableIndex());
+        assertEquals(465, column.toArray().length);
+        assertEquals(1050, column.get(1050), 0);
+    }
+
+    @Test
+    public void spillsOlderObservationsToDisk() {
+        DoubleColumn column = new DoubleColumn();
+        column.setRetention(ColumnRetention.spillToDisk(30));
+        for (int i = 0; i < 1000; i++)
+            column.add(i * 2);
+
+        assertEquals(0, column.getFirstAvailableIndex());
+        for (int i = 0; i < 1000; i++)
+            assertEquals(i * 2, column.get(i), 0);
+        assertEquals(1000, column.toArray().length);
+        assertEquals(1998, column.toArray()[999], 0);
+
+        final Path file = column.getSpillFile();
+        assertTrue(Files.exists(file));
+        column.clear();
+        assertFalse(Files.exists(file));
+        assertEquals(0, column.size());
+        column.add(3);
+        assertEquals(3, column.get(0), 0);
+    }
+
+}
@@ -0,0 +1,135 @@
+package uk.ac.ox.oxfish.model.data.webviz.heatmaps;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonWriter;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import sim.field.grid.DoubleGrid2D;
+import uk.ac.ox.oxfish.model.FishState;
+import uk.ac.ox.oxfish.model.data.heatmaps.HeatmapGatherer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StringWriter;
+import java.util.function.BiConsumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.withSettings;
+
+public class HeatmapBuilderTest {
+
+    @Test
+    public void streamedJsonMatchesTheBuiltObject() throws IOException {
+        for (final Gson gson : new Gson[]{new Gson(), new GsonBuilder().setPrettyPrinting().create()}) {
+            final HeatmapGatherer gatherer = mock(HeatmapGatherer.class);
+            final HeatmapBuilder builder = new HeatmapBuilder(gatherer);
+            final BiConsumer<Integer, DoubleGrid2D> listener = start(builder, gatherer);
+            listener.accept(0, grid(0.5));
+            listener.accept(30, grid(1.123456));
+            listener.accept(60, grid(-2));
+            assertEquals(gson.toJson(builder.buildJsonObject(null)), streamed(gson, builder));
+        }
+    }
+
+    @Test
+    public void writingTheJsonCanBeRepeated() throws IOException {
+        final Gson gson = new Gson();
+        final HeatmapGatherer gatherer = mock(HeatmapGatherer.class);
+        final HeatmapBuilder builder = new HeatmapBuilder(gatherer);
+        final BiConsumer<Integer, DoubleGrid2D> listener = start(builder, gatherer);
+        listener.accept(0, grid(1));
+        final String first = streamed(gson, builder);
+        assertEquals(first, streamed(gson, builder));
+
+        // timesteps gathered after a write are appended to the ones before
+        listener.accept(30, grid(2));
+        assertEquals(json(gson, grid(1), grid(2)), streamed(gson, builder));
+    }
+
+    @Test
+    public void turningOffDeletesTheTimesteps() throws IOException {
+        final HeatmapGatherer gatherer = mock(HeatmapGatherer.class);
+        final HeatmapBuilder builder = new HeatmapBuilder(gatherer);
+        start(builder, gatherer).accept(0, grid(1));
+        builder.turnOff();
+        assertEquals("{\"timesteps\":[]}", streamed(new Gson(), builder));
+    }
+
+    /**
+     * The builder is serialized along with the listener its gatherer holds, as in a checkpoint.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void restoredCopiesKeepTheirOwnTimesteps() throws IOException, ClassNotFoundException {
+        final Gson gson = new Gson();
+        final HeatmapGatherer gatherer = mock(HeatmapGatherer.class, withSettings().serializable());
+        final HeatmapBuilder original = new HeatmapBuilder(gatherer);
+        final BiConsumer<Integer, DoubleGrid2D> originalListener = start(original, gatherer);
+        originalListener.accept(0, grid(1));
+
+        final Object[] restored = copy(new Object[]{original, originalListener});
+        final HeatmapBuilder copy = (HeatmapBuilder) restored[0];
+        final BiConsumer<Integer, DoubleGrid2D> copyListener = (BiConsumer<Integer, DoubleGrid2D>) restored[1];
+        originalListener.accept(30, grid(2));
+        copyListener.accept(30, grid(3));
+
+        final String copyJson = gson.toJson(copy.buildJsonObject(null));
+        assertEquals(json(gson, grid(1), grid(2)), gson.toJson(original.buildJsonObject(null)));
+        assertEquals(json(gson, grid(1), grid(3)), copyJson);
+
+        // turning one of them off leaves the other alone
+        original.turnOff();
+        assertEquals(copyJson, gson.toJson(copy.buildJsonObject(null)));
+    }
+
+    private static String json(final Gson gson, final DoubleGrid2D first, final DoubleGrid2D second) {
+        final HeatmapGatherer gatherer = mock(HeatmapGatherer.class);
+        final HeatmapBuilder builder = new HeatmapBuilder(gatherer);
+        final BiConsumer<Integer, DoubleGrid2D> listener = start(builder, gatherer);
+        listener.accept(0, first);
+        listener.accept(30, second);
+        return gson.toJson(builder.buildJsonObject(null));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Integer, DoubleGrid2D> start(
+        final HeatmapBuilder builder,
+        final HeatmapGatherer gatherer
+    ) {
+        builder.start(mock(FishState.class));
+        final ArgumentCaptor<BiConsumer> listener = ArgumentCaptor.forClass(BiConsumer.class);
+        verify(gatherer).addGridListener(listener.capture());
+        return listener.getValue();
+    }
+
+    private static String streamed(final Gson gson, final HeatmapBuilder builder) throws IOException {
+        final StringWriter writer = new StringWriter();
+        final JsonWriter jsonWriter = gson.newJsonWriter(writer);
+        builder.writeJson(jsonWriter, null);
+        jsonWriter.flush();
+        return writer.toString();
+    }
+
+    private static Object[] copy(final Object[] objects) throws IOException, ClassNotFoundException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(objects);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return (Object[]) in.readObject();
+        }
+    }
+
+    private static DoubleGrid2D grid(final double value) {
+        final DoubleGrid2D grid = new DoubleGrid2D(3, 2, value);
+        grid.set(1, 1, value * 10);
+        return grid;
+    }
+
+}
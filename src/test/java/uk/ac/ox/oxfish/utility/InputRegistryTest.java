@@ -0,0 +1,52 @@
+package uk.ac.ox.oxfish.utility;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class InputRegistryTest {
+
+    @Test
+    public void readsOncePerFileVersion() throws Exception {
+        File file = File.createTempFile("input", ".csv");
+        file.deleteOnExit();
+        Path path = file.toPath();
+        Files.write(path, "a\n1\n".getBytes());
+
+        AtomicInteger reads = new AtomicInteger(0);
+        Object first = InputRegistry.INSTANCE.get("test", path, () -> {
+            reads.incrementAndGet();
+            return new Object();
+        });
+        Object second = InputRegistry.INSTANCE.get("test", path, () -> {
+            reads.incrementAndGet();
+            return new Object();
+        });
+        assertSame(first, second);
+        assertEquals(1, reads.get());
+
+        //something else read from the same file is kept apart
+        InputRegistry.INSTANCE.get("other", path, () -> {
+            reads.incrementAndGet();
+            return new Object();
+        });
+        assertEquals(2, reads.get());
+
+        //changing the file means reading it again
+        Files.write(path, "a\n1\n2\n".getBytes());
+        Object third = InputRegistry.INSTANCE.get("test", path, () -> {
+            reads.incrementAndGet();
+            return new Object();
+        });
+        assertEquals(3, reads.get());
+        assertNotSame(first, third);
+    }
+
+}
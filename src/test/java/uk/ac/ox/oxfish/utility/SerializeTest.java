@@ -42,6 +42,7 @@ import java.util.Arrays;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Created by carrknight on 4/20/16.
@@ -110,6 +111,42 @@ public class SerializeTest {
     }
 
 
+    @Test
+    public void binaryCheckpointProgressesCorrectly() throws Exception {
+
+        FishState state = new FishState(System.currentTimeMillis());
+        state.setScenario(new PrototypeScenario());
+        state.start();
+        for(int i=0; i<400; i++)
+            state.schedule.step(state);
+
+        FishStateUtilities.writeCheckpoint(Paths.get("save2.checkpoint").toFile(), state, true);
+        FishState state2 = FishStateUtilities.readModelFromFile(Paths.get("save2.checkpoint").toFile());
+        //plain xml is still read back
+        FishStateUtilities.writeModelToFile(Paths.get("save3.checkpoint").toFile(), state);
+        FishState state3 = FishStateUtilities.readModelFromFile(Paths.get("save3.checkpoint").toFile());
+        assertTrue(Files.size(Paths.get("save2.checkpoint")) < Files.size(Paths.get("save3.checkpoint")));
+
+        for(int i=0; i<400; i++) {
+            state.schedule.step(state);
+            state2.schedule.step(state2);
+            state3.schedule.step(state3);
+            //the randomizers are linked!
+            double next = state.random.nextDouble();
+            assertEquals(next, state2.random.nextDouble(), .001);
+            assertEquals(next, state3.random.nextDouble(), .001);
+        }
+
+        assertEquals(800,state2.getFishers().get(5).getDailyData().numberOfObservations());
+        assertEquals(state.getFishers().get(5).getLatestYearlyObservation(FisherYearlyTimeSeries.CASH_COLUMN),
+                     state2.getFishers().get(5).getLatestYearlyObservation(FisherYearlyTimeSeries.CASH_COLUMN),
+                     .001);
+        assertEquals(state.getFishers().get(5).getDailyData().getLatestObservation(FisherYearlyTimeSeries.CASH_COLUMN),
+                     state2.getFishers().get(5).getDailyData().getLatestObservation(FisherYearlyTimeSeries.CASH_COLUMN),
+                     .001);
+    }
+
+
     @Test
     public void randomSeedWorks1() throws Exception {
 
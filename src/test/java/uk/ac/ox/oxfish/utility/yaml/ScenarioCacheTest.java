@@ -0,0 +1,49 @@
+package uk.ac.ox.oxfish.utility.yaml;
+
+import org.junit.Test;
+import uk.ac.ox.oxfish.model.scenario.PrototypeScenario;
+import uk.ac.ox.oxfish.model.scenario.Scenario;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+public class ScenarioCacheTest {
+
+    @Test
+    public void copiesAreIndependent() throws Exception {
+        ScenarioCache cache = new ScenarioCache();
+        Path file = Paths.get("inputs", "tests", "replicate.yaml");
+
+        PrototypeScenario first = (PrototypeScenario) cache.load(file, Scenario.class);
+        PrototypeScenario second = (PrototypeScenario) cache.load(file, Scenario.class);
+        assertEquals(1, cache.size());
+        assertNotSame(first, second);
+        assertNotSame(first.getBiologyInitializer(), second.getBiologyInitializer());
+        assertEquals(5, first.getFishers());
+
+        first.setFishers(100);
+        assertEquals(5, second.getFishers());
+        assertEquals(5, ((PrototypeScenario) cache.load(file, Scenario.class)).getFishers());
+    }
+
+    @Test
+    public void changedFilesAreParsedAgain() throws Exception {
+        ScenarioCache cache = new ScenarioCache();
+        File file = File.createTempFile("scenario", ".yaml");
+        file.deleteOnExit();
+
+        Files.write(file.toPath(), "Abstract:\n  fishers: 5\n".getBytes());
+        assertEquals(5, ((PrototypeScenario) cache.load(file.toPath(), Scenario.class)).getFishers());
+
+        Files.write(file.toPath(), "Abstract:\n  fishers: 50\n".getBytes());
+        //make sure the change is visible even on file systems with coarse timestamps
+        file.setLastModified(file.lastModified() + 2000);
+        assertEquals(50, ((PrototypeScenario) cache.load(file.toPath(), Scenario.class)).getFishers());
+    }
+
+}